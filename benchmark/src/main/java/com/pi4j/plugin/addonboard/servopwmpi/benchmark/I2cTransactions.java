@@ -0,0 +1,71 @@
+package com.pi4j.plugin.addonboard.servopwmpi.benchmark;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  I2cTransactions.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * I2C transactions issued by a benchmark thread
+ * <p>
+ *  Reported by JMH as secondary result <code>i2cTransactions</code> in the
+ *  unit of the primary result: I2C transactions per second next to calls per
+ *  second in throughput mode, time per I2C transaction next to time per call
+ *  in average time mode. The ratio of primary and secondary result is the
+ *  number of I2C transactions per call.
+ *  <p>
+ *  The simulated bus counts transactions of all threads. The count of an
+ *  iteration is split evenly between the benchmark threads.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class I2cTransactions {
+
+    public long i2cTransactions;
+
+    private long start;
+
+    @Setup(Level.Iteration)
+    public void start(SimulatedBoardState board) {
+        this.i2cTransactions = 0;
+        this.start = board.transactions();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop(SimulatedBoardState board, BenchmarkParams params) {
+        this.i2cTransactions = (board.transactions() - this.start) / params.getThreads();
+    }
+}
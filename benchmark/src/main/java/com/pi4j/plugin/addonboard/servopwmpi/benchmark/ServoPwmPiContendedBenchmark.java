@@ -0,0 +1,90 @@
+package com.pi4j.plugin.addonboard.servopwmpi.benchmark;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiContendedBenchmark.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Contended channel updates of a single Servo PWM Pi board
+ * <p>
+ *  Every benchmark thread updates its own PWM pin of the same board, so all
+ *  threads compete for the board and its I2C bus. The primary result is the
+ *  update throughput per board. The number of threads is set with
+ *  <code>-t</code>, the write modes to compare with
+ *  <code>-p writeMode=DIRECT,COMBINING,WRITE_BEHIND</code>.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ServoPwmPiContendedBenchmark {
+
+    /**
+     * PWM pin of a benchmark thread with alternating duty-cycles
+     */
+    @State(Scope.Thread)
+    public static class Channel {
+        private ServoPwmPiPwm pwm;
+        private float duty_cycle;
+
+        @Setup
+        public void setUp(SimulatedBoardState board, ThreadParams thread) {
+            this.pwm = board.pwms[thread.getThreadIndex() % SERVOPWMPI.PWM_CHANNEL_COUNT];
+            this.duty_cycle = 25.0f;
+        }
+
+        float next() {
+            this.duty_cycle = 100.0f - this.duty_cycle;
+            return this.duty_cycle;
+        }
+    }
+
+    @Benchmark
+    public ServoPwmPiPwm on(Channel channel, I2cTransactions transactions) {
+        return channel.pwm.on(channel.next());
+    }
+}
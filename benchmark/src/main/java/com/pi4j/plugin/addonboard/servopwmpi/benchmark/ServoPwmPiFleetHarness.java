@@ -0,0 +1,380 @@
+package com.pi4j.plugin.addonboard.servopwmpi.benchmark;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiFleetHarness.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.platform.ServoPwmPiPlatform;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiProvider;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwmConfigBuilder;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.ServoPwmPiSimulatedI2CProvider;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.ServoPwmPiSimulatedPca9685;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Scale harness for fleets of Servo PWM Pi boards on simulated I2C buses
+ * <p>
+ *  For each fleet size the harness creates one {@link ServoPwmPiPlatform}
+ *  per board, spread evenly across the simulated I2C buses, and creates all
+ *  16 PWM pins of every board through the Servo PWM Pi PWM provider. One
+ *  control thread per I2C bus then drives the PWM pins of its boards like
+ *  a servo controller: once per frame every PWM pin moves one step along a
+ *  triangular sweep between 5 % and 10 % duty-cycle, the sweeps of the PWM
+ *  pins being out of phase. Frames that overrun their period delay the next
+ *  frame, missed frames are skipped.
+ *  <p>
+ *  Reported per fleet size:
+ *  <ul>
+ *  <li>start-up time: Pi4J context with all platforms plus PWM pin creation</li>
+ *  <li>heap memory per PWM pin after start-up</li>
+ *  <li>achieved and targeted updates per second, frames overrunning their period</li>
+ *  <li>p50/p99/p999/max latency from setpoint to the I2C write that loads
+ *      the LEDn registers, measured from the oldest setpoint not yet written</li>
+ *  <li>I2C write transactions per second</li>
+ *  </ul>
+ *  Options are given as <code>name=value</code> arguments:
+ *  <ul>
+ *  <li><code>boards</code>: comma-separated fleet sizes (default: 1,2,4,8,16,31,62)</li>
+ *  <li><code>buses</code>: number of simulated I2C buses (default: 2)</li>
+ *  <li><code>busSpeed</code>: <code>NONE</code> or {@link SERVOPWMPI.I2cBusSpeed} name (default: FAST_MODE)</li>
+ *  <li><code>transactionOverhead</code>: time per I2C transaction in ns on top of the bit times (default: 20000)</li>
+ *  <li><code>writeMode</code>: {@link SERVOPWMPI.WriteMode} name (default: DIRECT)</li>
+ *  <li><code>rate</code>: frames per second (default: 50)</li>
+ *  <li><code>warmup</code>, <code>duration</code>: seconds per fleet size (default: 2, 10)</li>
+ *  </ul>
+ *  Boards use the I2C addresses from 0x40 upwards, skipping the default
+ *  group addresses (ALLCALLADR, SUBADR1 - SUBADR3), i. e. up to 60 boards
+ *  per I2C bus.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public class ServoPwmPiFleetHarness {
+
+    // sweep of every PWM pin: typical servo pulse range at 50 Hz
+    private static final float SWEEP_MIN = 5.0f;
+    private static final float SWEEP_MAX = 10.0f;
+    private static final int SWEEP_FRAMES = 100;    // frames per sweep period, even
+
+    private final Map<String, String> options;
+
+    // fleet of the current run
+    private Context context;
+    private ServoPwmPiSimulatedI2CProvider i2c;
+    // PWM pins indexed by board * 16 + channel, PWM pin indices per I2C bus
+    private ServoPwmPiPwm[] pwms;
+    private List<List<Integer>> bus_pwms;
+
+    // setpoint time of the oldest not yet written setpoint per PWM pin, 0: none
+    private AtomicLongArray pending;
+    private long[] latencies;
+    private final AtomicInteger latency_count = new AtomicInteger();
+    private volatile boolean recording = false;
+
+    private ServoPwmPiFleetHarness(Map<String, String> options) {
+        this.options = options;
+    }
+
+    /**
+     * <p>main.</p>
+     *
+     * @param args options as <code>name=value</code> arguments
+     * @throws java.lang.InterruptedException if interrupted while waiting for the control threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("invalid option '" + arg + "', expected name=value");
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        new ServoPwmPiFleetHarness(options).run();
+    }
+
+    private String option(String name, String defaultValue) {
+        return this.options.getOrDefault(name, defaultValue);
+    }
+
+    private void run() throws InterruptedException {
+        int buses = Integer.parseInt(option("buses", "2"));
+        String busSpeed = option("busSpeed", "FAST_MODE");
+        long overhead = Long.parseLong(option("transactionOverhead", "20000"));
+        SERVOPWMPI.WriteMode writeMode = SERVOPWMPI.WriteMode.parse(option("writeMode", "DIRECT"));
+        int rate = Integer.parseInt(option("rate", "50"));
+        long warmup = TimeUnit.SECONDS.toNanos(Long.parseLong(option("warmup", "2")));
+        long duration = TimeUnit.SECONDS.toNanos(Long.parseLong(option("duration", "10")));
+
+        System.out.printf("%d simulated I2C buses at %s, %d ns per transaction, write mode %s, %d frames/s%n",
+                buses, busSpeed, overhead, writeMode, rate);
+        // load and initialize all classes before the first start-up is measured
+        startFleet(1, 1, null, 0, writeMode);
+        this.context.shutdown();
+        System.out.printf("%6s %8s %11s %9s %10s %11s %11s %7s %9s %9s %9s %9s %9s%n",
+                "boards", "channels", "startup ms", "ms/board", "B/channel", "updates/s", "target/s", "late",
+                "p50 us", "p99 us", "p999 us", "max us", "tx/s");
+        for (String boards : option("boards", "1,2,4,8,16,31,62").split(",")) {
+            runFleet(Integer.parseInt(boards.trim()), buses, SimulatedBoardState.busSpeed(busSpeed), overhead, writeMode, rate, warmup, duration);
+        }
+    }
+
+    private void runFleet(int boards, int buses, SERVOPWMPI.I2cBusSpeed busSpeed, long overhead, SERVOPWMPI.WriteMode writeMode,
+                          int rate, long warmup, long duration) throws InterruptedException {
+        int channels = boards * SERVOPWMPI.PWM_CHANNEL_COUNT;
+        long period = TimeUnit.SECONDS.toNanos(1) / rate;
+        long heap;
+        long startup;
+        long transactions;
+        long updates = 0;
+        long late = 0;
+        long elapsed;
+        ControlThread[] threads;
+
+        heap = usedHeap();
+        startup = System.nanoTime();
+        startFleet(boards, buses, busSpeed, overhead, writeMode);
+        startup = System.nanoTime() - startup;
+        heap = usedHeap() - heap;
+
+        this.pending = new AtomicLongArray(channels);
+        this.latencies = new long[(int) Math.min(Integer.MAX_VALUE - 8, channels * (long) rate * (duration / TimeUnit.SECONDS.toNanos(1) + 1))];
+        this.latency_count.set(0);
+        threads = new ControlThread[this.bus_pwms.size()];
+        for (int bus = 0; bus < threads.length; bus++) {
+            threads[bus] = new ControlThread(bus + 1, this.bus_pwms.get(bus), period, System.nanoTime() + warmup + duration);
+            threads[bus].start();
+        }
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(warmup));
+        transactions = this.i2c.getWriteTransactionCount();
+        elapsed = System.nanoTime();
+        this.recording = true;
+        for (ControlThread thread : threads) {
+            thread.join();
+        }
+        this.recording = false;
+        elapsed = System.nanoTime() - elapsed;
+        transactions = this.i2c.getWriteTransactionCount() - transactions;
+        for (ControlThread thread : threads) {
+            updates += thread.updates;
+            late += thread.late_frames;
+        }
+        this.context.shutdown();
+
+        long[] sorted = Arrays.copyOf(this.latencies, Math.min(this.latency_count.get(), this.latencies.length));
+        Arrays.sort(sorted);
+        System.out.printf("%6d %8d %11.1f %9.2f %10d %11.0f %11d %7d %9.1f %9.1f %9.1f %9.1f %9.0f%n",
+                boards, channels, startup / 1e6, startup / 1e6 / boards, heap / channels,
+                updates * 1e9 / elapsed, (long) channels * rate, late,
+                percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                (sorted.length > 0) ? sorted[sorted.length - 1] / 1e3 : Double.NaN,
+                transactions * 1e9 / elapsed);
+    }
+
+    /**
+     * Create the simulated I2C buses, the Pi4J context with one platform per
+     * board and all PWM pins
+     */
+    private void startFleet(int boards, int buses, SERVOPWMPI.I2cBusSpeed busSpeed, long overhead, SERVOPWMPI.WriteMode writeMode) {
+        ServoPwmPiPlatform[] platforms = new ServoPwmPiPlatform[boards];
+        int[] addresses = boardAddresses((boards + buses - 1) / buses);
+        ServoPwmPiProvider provider;
+
+        this.i2c = ServoPwmPiSimulatedI2CProvider.newInstance(busSpeed, overhead);
+        for (int board = 0; board < boards; board++) {
+            platforms[board] = new ServoPwmPiPlatform(board % buses + 1, addresses[board / buses]);
+        }
+        this.context = Pi4J.newContextBuilder().noAutoDetect()
+                .add(this.i2c)
+                .add(ServoPwmPiProvider.newInstance())
+                .add(platforms)
+                .build();
+        provider = this.context.provider(ServoPwmPiProvider.ID);
+        this.pwms = new ServoPwmPiPwm[boards * SERVOPWMPI.PWM_CHANNEL_COUNT];
+        this.bus_pwms = new ArrayList<>();
+        for (int bus = 0; bus < Math.min(boards, buses); bus++) {
+            this.bus_pwms.add(new ArrayList<>());
+        }
+        for (int board = 0; board < boards; board++) {
+            ServoPwmPiSimulatedPca9685 pca9685 = this.i2c.getBoard(board % buses + 1, addresses[board / buses]);
+            int first = board * SERVOPWMPI.PWM_CHANNEL_COUNT;
+
+            platforms[board].setWriteMode(writeMode);
+            pca9685.setLedWriteListener((b, channelMask) -> written(first, channelMask));
+            for (int channel = 0; channel < SERVOPWMPI.PWM_CHANNEL_COUNT; channel++) {
+                this.pwms[first + channel] = provider.create(ServoPwmPiPwmConfigBuilder.newInstance(this.context)
+                        .id(String.format("servopwmpi-fleet-%d-%d", board, channel))
+                        .platform(platforms[board].id())
+                        .address(channel)
+                        .build());
+                this.bus_pwms.get(board % buses).add(first + channel);
+            }
+        }
+    }
+
+    /**
+     * I2C addresses of the boards of an I2C bus
+     */
+    private static int[] boardAddresses(int count) {
+        int[] addresses = new int[count];
+        int address = SERVOPWMPI.ADDRESS_000000;
+
+        for (int i = 0; i < count; i++) {
+            while (isDefaultGroupAddress(address)) {
+                address++;
+            }
+            if (address > SERVOPWMPI.ADDRESS_111111) {
+                throw new IllegalArgumentException("too many boards per I2C bus: " + count);
+            }
+            addresses[i] = address++;
+        }
+        return addresses;
+    }
+
+    private static boolean isDefaultGroupAddress(int address) {
+        for (SERVOPWMPI.GroupAddress group : SERVOPWMPI.GroupAddress.all()) {
+            if (group.getDefaultAddress() == address) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Record the setpoint-to-write latency of the written PWM pins of a board
+     */
+    private void written(int first, int channelMask) {
+        long now = System.nanoTime();
+
+        for (int mask = channelMask; mask != 0; mask &= mask - 1) {
+            long setpoint = this.pending.getAndSet(first + Integer.numberOfTrailingZeros(mask), 0);
+            if (setpoint != 0 && this.recording) {
+                int index = this.latency_count.getAndIncrement();
+                if (index < this.latencies.length) {
+                    this.latencies[index] = now - setpoint;
+                }
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e3;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Control loop of the PWM pins of one I2C bus
+     */
+    private class ControlThread extends Thread {
+        private final int[] indices;
+        private final float[] setpoints;
+        private final long period;
+        private final long end;
+        private long updates = 0;
+        private long late_frames = 0;
+
+        ControlThread(int bus, List<Integer> indices, long period, long end) {
+            super("servopwmpi-fleet-bus-" + bus);
+            this.indices = indices.stream().mapToInt(Integer::intValue).toArray();
+            this.setpoints = new float[this.indices.length];
+            this.period = period;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            long frame = 0;
+            long now;
+
+            while (System.nanoTime() < this.end) {
+                boolean measured = recording;
+                for (int i = 0; i < this.indices.length; i++) {
+                    int index = this.indices[i];
+                    float setpoint = sweep(frame + index);
+                    if (setpoint == this.setpoints[i]) {
+                        // skipped frames may yield an unchanged setpoint, whose write is elided
+                        continue;
+                    }
+                    this.setpoints[i] = setpoint;
+                    pending.compareAndSet(index, 0, System.nanoTime());
+                    pwms[index].on(setpoint);
+                    if (measured) {
+                        this.updates++;
+                    }
+                }
+                frame++;
+                now = System.nanoTime();
+                if (now - start > frame * this.period) {
+                    // frame overran its period: skip the missed frames
+                    if (measured) {
+                        this.late_frames++;
+                    }
+                    frame = (now - start) / this.period + 1;
+                }
+                LockSupport.parkNanos(start + frame * this.period - now);
+            }
+        }
+    }
+
+    /**
+     * Triangular sweep between SWEEP_MIN and SWEEP_MAX, consecutive frames
+     * never yield the same duty-cycle
+     */
+    private static float sweep(long frame) {
+        int position = (int) (frame % SWEEP_FRAMES);
+        int half = SWEEP_FRAMES / 2;
+
+        if (position > half) {
+            position = SWEEP_FRAMES - position;
+        }
+        return SWEEP_MIN + (SWEEP_MAX - SWEEP_MIN) * position / half;
+    }
+}
@@ -0,0 +1,116 @@
+package com.pi4j.plugin.addonboard.servopwmpi.benchmark;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiInitializeBenchmark.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import com.pi4j.plugin.addonboard.servopwmpi.platform.ServoPwmPiPlatform;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiProvider;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.ServoPwmPiSimulatedI2CProvider;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Start-up time of a Servo PWM Pi platform
+ * <p>
+ *  Every invocation initializes a new platform on a fresh Pi4J context with
+ *  a freshly reset simulated board. The secondary result
+ *  <code>i2cTransactions</code> is the number of I2C transactions of one
+ *  initialization.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 50)
+@Measurement(iterations = 50)
+@Fork(1)
+public class ServoPwmPiInitializeBenchmark {
+
+    /**
+     * Timing of the simulated I2C bus, see {@link SimulatedBoardState}
+     */
+    @State(Scope.Benchmark)
+    public static class BusTiming {
+        @Param({"NONE"})
+        public String busSpeed;
+
+        @Param({"0"})
+        public long transactionOverhead;
+    }
+
+    /**
+     * Fresh Pi4J context and simulated I2C bus of an invocation
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Rig {
+        public long i2cTransactions;
+
+        private ServoPwmPiSimulatedI2CProvider i2c;
+        private Context context;
+        private ServoPwmPiPlatform platform;
+
+        @Setup(Level.Iteration)
+        public void setUp(BusTiming timing) {
+            this.i2c = ServoPwmPiSimulatedI2CProvider.newInstance(SimulatedBoardState.busSpeed(timing.busSpeed), timing.transactionOverhead);
+            this.context = Pi4J.newContextBuilder().noAutoDetect()
+                    .add(this.i2c)
+                    .add(ServoPwmPiProvider.newInstance())
+                    .build();
+            this.platform = new ServoPwmPiPlatform(SimulatedBoardState.ADDRESS);
+            this.i2cTransactions = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            this.i2cTransactions = this.i2c.getWriteTransactionCount() + this.i2c.getReadTransactionCount();
+            this.platform.shutdown(this.context);
+            this.context.shutdown();
+        }
+    }
+
+    @Benchmark
+    public ServoPwmPiPlatform initialize(Rig rig) {
+        return rig.platform.initialize(rig.context);
+    }
+}
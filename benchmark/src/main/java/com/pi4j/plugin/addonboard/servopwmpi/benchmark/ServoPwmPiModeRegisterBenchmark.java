@@ -0,0 +1,100 @@
+package com.pi4j.plugin.addonboard.servopwmpi.benchmark;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiModeRegisterBenchmark.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the MODE1/MODE2 register getters of a Servo PWM Pi board
+ * <p>
+ *  Measured for each {@link SERVOPWMPI.RegisterCachePolicy}: CACHED getters
+ *  should not access the I2C bus at all, UNCACHED getters read the mode
+ *  register on every call.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServoPwmPiModeRegisterBenchmark {
+
+    /**
+     * Register cache policy of the benchmarked board
+     */
+    @State(Scope.Benchmark)
+    public static class CachePolicy {
+        @Param({"CACHED", "REVALIDATE", "UNCACHED"})
+        public String registerCachePolicy;
+
+        @Setup(Level.Trial)
+        public void setUp(SimulatedBoardState board) {
+            board.platform.setRegisterCachePolicy(SERVOPWMPI.RegisterCachePolicy.parse(this.registerCachePolicy));
+        }
+    }
+
+    @Benchmark
+    public SERVOPWMPI.OutputPolarity getOutputPolarity(SimulatedBoardState board, CachePolicy policy, I2cTransactions transactions) {
+        return board.platform.getPwmDevice().getOutputPolarity();
+    }
+
+    @Benchmark
+    public SERVOPWMPI.OutputDriver getOutputDriverType(SimulatedBoardState board, CachePolicy policy, I2cTransactions transactions) {
+        return board.platform.getPwmDevice().getOutputDriverType();
+    }
+
+    @Benchmark
+    public SERVOPWMPI.OEMode getOutNEMode(SimulatedBoardState board, CachePolicy policy, I2cTransactions transactions) {
+        return board.platform.getPwmDevice().getOutNEMode();
+    }
+
+    @Benchmark
+    public SERVOPWMPI.OutputsChangeMode getOutputsChangeMode(SimulatedBoardState board, CachePolicy policy, I2cTransactions transactions) {
+        return board.platform.getPwmDevice().getOutputsChangeMode();
+    }
+
+    @Benchmark
+    public boolean isSleeping(SimulatedBoardState board, CachePolicy policy, I2cTransactions transactions) {
+        return board.platform.isSleeping();
+    }
+}
@@ -0,0 +1,92 @@
+package com.pi4j.plugin.addonboard.servopwmpi.benchmark;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiPwmBenchmark.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-thread channel update hot path of a Servo PWM Pi PWM pin
+ * <p>
+ *  <ul>
+ *  <li><code>setDutyCycle</code>: store a new duty-cycle without I2C access</li>
+ *  <li><code>on</code>: write a new duty-cycle to the board</li>
+ *  <li><code>onUnchanged</code>: re-write the current duty-cycle, i. e. the
+ *      elided write path</li>
+ *  </ul>
+ *  Run with <code>-prof gc</code> to report the allocation rate per call
+ *  (<code>gc.alloc.rate.norm</code>).
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServoPwmPiPwmBenchmark {
+
+    /**
+     * Alternating duty-cycles so that consecutive writes are never elided
+     */
+    @State(Scope.Thread)
+    public static class Setpoints {
+        private static final float[] DUTY_CYCLES = {25.0f, 75.0f};
+        private int next;
+
+        float next() {
+            this.next ^= 1;
+            return DUTY_CYCLES[this.next];
+        }
+    }
+
+    @Benchmark
+    public void setDutyCycle(SimulatedBoardState board, Setpoints setpoints) {
+        board.pwms[0].setDutyCycle(setpoints.next());
+    }
+
+    @Benchmark
+    public ServoPwmPiPwm on(SimulatedBoardState board, Setpoints setpoints, I2cTransactions transactions) {
+        return board.pwms[0].on(setpoints.next());
+    }
+
+    @Benchmark
+    public ServoPwmPiPwm onUnchanged(SimulatedBoardState board, I2cTransactions transactions) {
+        return board.pwms[1].on(50.0f);
+    }
+}
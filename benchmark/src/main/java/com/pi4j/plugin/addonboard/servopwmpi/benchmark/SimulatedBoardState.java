@@ -0,0 +1,140 @@
+package com.pi4j.plugin.addonboard.servopwmpi.benchmark;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  SimulatedBoardState.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.platform.ServoPwmPiPlatform;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiProvider;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwmConfigBuilder;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.ServoPwmPiSimulatedI2CProvider;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Servo PWM Pi board on a simulated I2C bus with all 16 PWM pins initialized
+ * <p>
+ *  The board is shared by all benchmark threads. Bus timing and write mode
+ *  are benchmark parameters:
+ *  <ul>
+ *  <li><code>busSpeed</code>: <code>NONE</code> (transactions take no time)
+ *      or a {@link SERVOPWMPI.I2cBusSpeed} name</li>
+ *  <li><code>transactionOverhead</code>: additional time per I2C transaction
+ *      in nanoseconds, e. g. system call and driver latency</li>
+ *  <li><code>writeMode</code>: {@link SERVOPWMPI.WriteMode} name</li>
+ *  </ul>
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+@State(Scope.Benchmark)
+public class SimulatedBoardState {
+
+    /** Constant <code>ADDRESS=0x40</code> */
+    public static final int ADDRESS = 0x40;
+
+    @Param({"NONE"})
+    public String busSpeed;
+
+    @Param({"0"})
+    public long transactionOverhead;
+
+    @Param({"DIRECT"})
+    public String writeMode;
+
+    ServoPwmPiSimulatedI2CProvider i2c;
+    Context context;
+    ServoPwmPiPlatform platform;
+    ServoPwmPiPwm[] pwms;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.i2c = ServoPwmPiSimulatedI2CProvider.newInstance(busSpeed(this.busSpeed), this.transactionOverhead);
+        this.platform = new ServoPwmPiPlatform(ADDRESS);
+        this.context = Pi4J.newContextBuilder().noAutoDetect()
+                .add(this.i2c)
+                .add(ServoPwmPiProvider.newInstance())
+                .add(this.platform)
+                .build();
+        this.platform.setWriteMode(SERVOPWMPI.WriteMode.parse(this.writeMode));
+        this.pwms = createPwms(this.context, SERVOPWMPI.PWM_CHANNEL_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.shutdown();
+    }
+
+    /**
+     * Get the number of I2C transactions on the simulated bus so far
+     *
+     * @return number of read and write transactions
+     */
+    long transactions() {
+        return this.i2c.getWriteTransactionCount() + this.i2c.getReadTransactionCount();
+    }
+
+    /**
+     * Create PWM pins of the Servo PWM Pi board
+     *
+     * @param context Pi4J context with a Servo PWM Pi platform
+     * @param count number of PWM pins, starting at channel 0
+     * @return PWM pins indexed by channel
+     */
+    static ServoPwmPiPwm[] createPwms(Context context, int count) {
+        ServoPwmPiProvider provider = context.provider(ServoPwmPiProvider.ID);
+        ServoPwmPiPwm[] pwms = new ServoPwmPiPwm[count];
+
+        for (int channel = 0; channel < count; channel++) {
+            pwms[channel] = provider.create(ServoPwmPiPwmConfigBuilder.newInstance(context)
+                    .id("servopwmpi-bench-" + channel)
+                    .address(channel)
+                    .build());
+        }
+        return pwms;
+    }
+
+    /**
+     * Parse the bus speed parameter
+     *
+     * @param busSpeed <code>NONE</code> or {@link SERVOPWMPI.I2cBusSpeed} name
+     * @return {@link SERVOPWMPI.I2cBusSpeed} or null if transactions take no time
+     */
+    static SERVOPWMPI.I2cBusSpeed busSpeed(String busSpeed) {
+        if (busSpeed.equalsIgnoreCase("NONE")) {
+            return null;
+        }
+        return SERVOPWMPI.I2cBusSpeed.parse(busSpeed);
+    }
+}
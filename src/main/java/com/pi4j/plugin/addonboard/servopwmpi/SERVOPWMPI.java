@@ -105,10 +105,22 @@ public interface SERVOPWMPI {
     static final int LED14 = 13;
     static final int LED15 = 14;
     static final int LED16 = 15;
+    static final int PWM_CHANNEL_COUNT = 16;
+    static final int ALL_CHANNELS_MASK = 0xFFFF;            // one bit per PWM pin (LED0 = bit 0)
 
     // communication registers
     static final byte REGISTER_MODE_1 = 0x00;
     static final byte REGISTER_MODE_2 = 0x01;
+    static final byte REGISTER_SUBADR1 = 0x02;
+    static final byte REGISTER_SUBADR2 = 0x03;
+    static final byte REGISTER_SUBADR3 = 0x04;
+    static final byte REGISTER_ALLCALLADR = 0x05;
+
+    // I2C group address power-up defaults (7-bit)
+    static final int DEFAULT_SUBADR1 = ADDRESS_110001;      // 0x71
+    static final int DEFAULT_SUBADR2 = ADDRESS_110010;      // 0x72
+    static final int DEFAULT_SUBADR3 = ADDRESS_110100;      // 0x74
+    static final int DEFAULT_ALLCALLADR = ADDRESS_110000;   // 0x70
     
     /**
      * Mode 1 register defaults
@@ -131,7 +143,14 @@ public interface SERVOPWMPI {
     // Mode 1 register constants
     static final byte RESTART_DISABLE_MASK = (byte) 0x7F;   // for use with bitwise AND
     static final byte RESTART_ENABLE_MASK = (byte) 0x80;    // for use with bitwise OR
+    static final byte EXTCLK_MASK = (byte) 0x40;            // Mode 1 register bit 6 (sticky)
+    static final byte AI_MASK = (byte) 0x20;                // Mode 1 register bit 5
     static final byte SLEEP_MASK = (byte) 0x10;             // Mode 1 register bit 4
+    static final byte SUB1_MASK = (byte) 0x08;              // Mode 1 register bit 3
+    static final byte SUB2_MASK = (byte) 0x04;              // Mode 1 register bit 2
+    static final byte SUB3_MASK = (byte) 0x02;              // Mode 1 register bit 1
+    static final byte ALLCALL_MASK = (byte) 0x01;           // Mode 1 register bit 0
+    static final byte GROUP_ADDRESS_MASK = (byte) 0x0F;     // Mode 1 register bit 0 to bit 3
 
     // Mode 2 register constants
     static final byte INVRT_MASK = (byte) 0x10;             // Mode 2 register bit 4
@@ -143,13 +162,51 @@ public interface SERVOPWMPI {
     static final int REGISTER_PRE_SCALE = 0xFE;
     
     static final double FREQ_OSC_CLOCK = 25000000.0;
+    static final double MIN_OSCILLATOR_CORRECTION = 0.85;   // per-board deviation of the internal oscillator
+    static final double MAX_OSCILLATOR_CORRECTION = 1.15;
     static final byte DEFAULT_PRE_SCALE = 0x1E;
+    static final int MIN_PRE_SCALE = 0x03;
+    static final int MAX_PRE_SCALE = 0xFF;
+    static final int MIN_PWM_FREQUENCY = 40;        // internal oscillator
+    static final int MAX_PWM_FREQUENCY = 1000;      // internal oscillator
+    static final double MAX_EXTERNAL_CLOCK = 50000000.0;    // EXTCLK input, Hz
+    static final long OSCILLATOR_SETTLE_TIME = 5;   // ms, wait before restart after wake-up
     static final int DEFAULT_PWM_FREQUENCY = 200;   // PRE_SCALE = 0x1E
 
+    // control register (MODE1, MODE2, PRE_SCALE) shadow cache defaults
+    static final long DEFAULT_REGISTER_REVALIDATE_INTERVAL = 1000;  // ms
+
+    // I2C bus arbitration defaults
+    static final int DEFAULT_BUS_PRIORITY = 0;
+
+    // servo calibration defaults
+    static final int DEFAULT_SERVO_MIN_PULSE = 1000;        // us
+    static final int DEFAULT_SERVO_CENTER_PULSE = 1500;     // us
+    static final int DEFAULT_SERVO_MAX_PULSE = 2000;        // us
+    static final float DEFAULT_SERVO_ANGLE_RANGE = 180f;    // degrees
+
+    // motion engine: share of the duration a timed trapezoidal move accelerates (and decelerates)
+    static final double MOTION_RAMP_FRACTION = 0.25;
+
+    // PWM counter resolution: 12 bit
+    static final int PWM_STEPS = 4096;
+    static final float PWM_STEPS_PER_PERCENT = PWM_STEPS / 100f;
+    static final float PWM_PERCENT_PER_STEP = 100f / PWM_STEPS;
+
     static final int LED0_ON_L  = 0x06;
     static final int LED0_ON_H  = 0x07;
     static final int LED0_OFF_L = 0x08;
     static final int LED0_OFF_H = 0x09;
+    static final int LED_REGISTER_COUNT = 4;                // LEDn_ON_L, LEDn_ON_H, LEDn_OFF_L, LEDn_OFF_H
+    static final int LED_FULL_MASK = 0x1000;                // LEDn_ON_H/LEDn_OFF_H bit 4: full ON/full OFF
+    static final int LED_COUNT_MAX = 0x1FFF;                // 12-bit count plus full ON/OFF bit
+    static final int LED_BLOCK_BRIDGE_CHANNELS = 2;         // unchanged PWM pins a block write may span to join two runs
+
+    // ALL_LED registers: writes load LEDn_ON and LEDn_OFF registers of all PWM pins
+    static final int ALL_LED_ON_L  = 0xFA;
+    static final int ALL_LED_ON_H  = 0xFB;
+    static final int ALL_LED_OFF_L = 0xFC;
+    static final int ALL_LED_OFF_H = 0xFD;
 
     /**
      * Output Driver (OUTDRV) Enumerations
@@ -472,6 +529,550 @@ public interface SERVOPWMPI {
         }
     }
     
-}
+    /**
+     * Control register (MODE1, MODE2, PRE_SCALE) cache policy Enumerations
+     * <p>
+     *  Control registers are cached write-through by the Servo PWM Pi device.
+     *  The policy defines when a read access is served from the cache.
+     *
+     * @author Thomas Reim
+     * @version $Id: $Id
+     */
+    public enum RegisterCachePolicy {
+        CACHED(0, "cached"),
+        REVALIDATE(1, "revalidate"),
+        UNCACHED(2, "uncached");
+
+        private final int value;
+        private final String name;
+
+        /**
+         * Control register cache policy Enumerations
+         */
+        private RegisterCachePolicy(int value, String name) {
+            this.value = value;
+            this.name = name;
+        }
+
+        /**
+         * <p>Getter for the field <code>value</code>.</p>
+         *
+         * @return a int.
+         */
+        public int getValue() {
+            return value;
+        }
+
+        /**
+         * <p>Getter for the field <code>name</code>.</p>
+         *
+         * @return a {@link java.lang.String} object.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return name.toUpperCase();
+        }
+
+        /**
+         * <p>all.</p>
+         *
+         * @return a {@link java.util.EnumSet} object.
+         */
+        public static EnumSet<RegisterCachePolicy> all() {
+            return EnumSet.allOf(RegisterCachePolicy.class);
+        }
+
+        /**
+         * <p>parse.</p>
+         *
+         * @param type a {@link java.lang.String} object.
+         * @return a {@link #RegisterCachePolicy} object.
+         */
+        public static RegisterCachePolicy parse(String type) {
+            if(type.equalsIgnoreCase("0")) return RegisterCachePolicy.CACHED;
+            if(type.equalsIgnoreCase("1")) return RegisterCachePolicy.REVALIDATE;
+            if(type.equalsIgnoreCase("2")) return RegisterCachePolicy.UNCACHED;
+            if(type.toLowerCase().startsWith("c")) return RegisterCachePolicy.CACHED;
+            if(type.toLowerCase().startsWith("r")) return RegisterCachePolicy.REVALIDATE;
+            if(type.toLowerCase().startsWith("u")) return RegisterCachePolicy.UNCACHED;
+            return RegisterCachePolicy.CACHED; // default
+        }
+    }
+    
+    /**
+     * LEDn register write mode Enumerations
+     * <p>
+     *  DIRECT writes the LEDn registers of a PWM pin in the calling thread.
+     *  WRITE_BEHIND stages the LEDn counts in a latest-value-wins slot per PWM
+     *  pin and returns immediately. The timer thread of the I2C bus drains the
+     *  slots of a board in one block write. Superseded setpoints are dropped.
+     *  COMBINING keeps synchronous semantics: callers stage their LEDn counts
+     *  and the thread that gets the I2C bus lock writes the staged LEDn counts
+     *  of all waiting callers in one block write before releasing them.
+     *
+     * @author Thomas Reim
+     * @version $Id: $Id
+     */
+    public enum WriteMode {
+        DIRECT(0, "direct"),
+        WRITE_BEHIND(1, "write-behind"),
+        COMBINING(2, "combining");
+
+        private final int value;
+        private final String name;
+
+        /**
+         * LEDn register write mode Enumerations
+         */
+        private WriteMode(int value, String name) {
+            this.value = value;
+            this.name = name;
+        }
+
+        /**
+         * <p>Getter for the field <code>value</code>.</p>
+         *
+         * @return a int.
+         */
+        public int getValue() {
+            return value;
+        }
+
+        /**
+         * <p>Getter for the field <code>name</code>.</p>
+         *
+         * @return a {@link java.lang.String} object.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return name.toUpperCase();
+        }
+
+        /**
+         * <p>all.</p>
+         *
+         * @return a {@link java.util.EnumSet} object.
+         */
+        public static EnumSet<WriteMode> all() {
+            return EnumSet.allOf(WriteMode.class);
+        }
+
+        /**
+         * <p>parse.</p>
+         *
+         * @param type a {@link java.lang.String} object.
+         * @return a {@link #WriteMode} object.
+         */
+        public static WriteMode parse(String type) {
+            if(type.equalsIgnoreCase("0")) return WriteMode.DIRECT;
+            if(type.equalsIgnoreCase("1")) return WriteMode.WRITE_BEHIND;
+            if(type.equalsIgnoreCase("2")) return WriteMode.COMBINING;
+            if(type.toLowerCase().startsWith("d")) return WriteMode.DIRECT;
+            if(type.toLowerCase().startsWith("w")) return WriteMode.WRITE_BEHIND;
+            if(type.toLowerCase().startsWith("c")) return WriteMode.COMBINING;
+            return WriteMode.DIRECT; // default
+        }
+    }
+    
+    /**
+     * I2C bus arbitration policy Enumerations
+     * <p>
+     *  FIFO grants the I2C bus to waiting Servo PWM Pi boards in arrival order.
+     *  PRIORITY grants it to the waiting board with the highest bus priority
+     *  first, boards of equal priority in arrival order.
+     *
+     * @author Thomas Reim
+     * @version $Id: $Id
+     */
+    public enum BusArbitration {
+        FIFO(0, "fifo"),
+        PRIORITY(1, "priority");
+
+        private final int value;
+        private final String name;
+
+        /**
+         * I2C bus arbitration policy Enumerations
+         */
+        private BusArbitration(int value, String name) {
+            this.value = value;
+            this.name = name;
+        }
+
+        /**
+         * <p>Getter for the field <code>value</code>.</p>
+         *
+         * @return a int.
+         */
+        public int getValue() {
+            return value;
+        }
+
+        /**
+         * <p>Getter for the field <code>name</code>.</p>
+         *
+         * @return a {@link java.lang.String} object.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return name.toUpperCase();
+        }
+
+        /**
+         * <p>all.</p>
+         *
+         * @return a {@link java.util.EnumSet} object.
+         */
+        public static EnumSet<BusArbitration> all() {
+            return EnumSet.allOf(BusArbitration.class);
+        }
+
+        /**
+         * <p>parse.</p>
+         *
+         * @param type a {@link java.lang.String} object.
+         * @return a {@link #BusArbitration} object.
+         */
+        public static BusArbitration parse(String type) {
+            if(type.equalsIgnoreCase("0")) return BusArbitration.FIFO;
+            if(type.equalsIgnoreCase("1")) return BusArbitration.PRIORITY;
+            if(type.toLowerCase().startsWith("f")) return BusArbitration.FIFO;
+            if(type.toLowerCase().startsWith("p")) return BusArbitration.PRIORITY;
+            return BusArbitration.FIFO; // default
+        }
+    }
+    
+    /**
+     * I2C group address (SUBADR1 - SUBADR3, ALLCALLADR) Enumerations
+     * <p>
+     *  Servo PWM Pi boards respond to up to four I2C group addresses in
+     *  addition to their own I2C address, if enabled in the Mode 1 register.
+     *  A write to a group address is performed by all member boards at once.
+     *
+     * @author Thomas Reim
+     * @version $Id: $Id
+     */
+    public enum GroupAddress {
+        SUBADR1(SUB1_MASK, "subadr1", REGISTER_SUBADR1, DEFAULT_SUBADR1),
+        SUBADR2(SUB2_MASK, "subadr2", REGISTER_SUBADR2, DEFAULT_SUBADR2),
+        SUBADR3(SUB3_MASK, "subadr3", REGISTER_SUBADR3, DEFAULT_SUBADR3),
+        ALLCALL(ALLCALL_MASK, "allcall", REGISTER_ALLCALLADR, DEFAULT_ALLCALLADR);
+
+        private final int value;
+        private final String name;
+        private final int register;
+        private final int address;
+
+        /**
+         * I2C group address Enumerations
+         */
+        private GroupAddress(int value, String name, int register, int address) {
+            this.value = value;
+            this.name = name;
+            this.register = register;
+            this.address = address;
+        }
+
+        /**
+         * <p>Getter for the field <code>value</code>.</p>
+         *
+         * @return a int.
+         */
+        public int getValue() {
+            return value;
+        }
+
+        /**
+         * <p>Getter for the field <code>name</code>.</p>
+         *
+         * @return a {@link java.lang.String} object.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the group address register
+         *
+         * @return register address of SUBADRx or ALLCALLADR
+         */
+        public int getRegister() {
+            return register;
+        }
+
+        /**
+         * Get the power-up default group address
+         *
+         * @return 7-bit I2C address
+         */
+        public int getDefaultAddress() {
+            return address;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return name.toUpperCase();
+        }
+
+        /**
+         * <p>all.</p>
+         *
+         * @return a {@link java.util.EnumSet} object.
+         */
+        public static EnumSet<GroupAddress> all() {
+            return EnumSet.allOf(GroupAddress.class);
+        }
 
+        /**
+         * <p>parse.</p>
+         *
+         * @param type a {@link java.lang.String} object.
+         * @return a {@link #GroupAddress} object.
+         */
+        public static GroupAddress parse(String type) {
+            if(type.equalsIgnoreCase("1")) return GroupAddress.SUBADR1;
+            if(type.equalsIgnoreCase("2")) return GroupAddress.SUBADR2;
+            if(type.equalsIgnoreCase("3")) return GroupAddress.SUBADR3;
+            if(type.equalsIgnoreCase("subadr1")) return GroupAddress.SUBADR1;
+            if(type.equalsIgnoreCase("subadr2")) return GroupAddress.SUBADR2;
+            if(type.equalsIgnoreCase("subadr3")) return GroupAddress.SUBADR3;
+            if(type.toLowerCase().startsWith("a")) return GroupAddress.ALLCALL;
+            return GroupAddress.ALLCALL; // default
+        }
+    }
+    
+    /**
+     * Auto-configured phase-shift allocation Enumerations
+     * <p>
+     *  Applies to PWM pins without explicit phase-shift. DUTY_CYCLE delays the
+     *  switch-on by the PWM pin's own number of HIGH steps. STAGGERED lets
+     *  a board-level allocator spread switching edges and HIGH periods of all
+     *  PWM pins evenly across the PWM frame to bound the peak current.
+     *
+     * @author Thomas Reim
+     * @version $Id: $Id
+     */
+    public enum PhaseAllocation {
+        DUTY_CYCLE(0, "duty_cycle"),
+        STAGGERED(1, "staggered");
+
+        private final int value;
+        private final String name;
+
+        /**
+         * Auto-configured phase-shift allocation Enumerations
+         */
+        private PhaseAllocation(int value, String name) {
+            this.value = value;
+            this.name = name;
+        }
 
+        /**
+         * <p>Getter for the field <code>value</code>.</p>
+         *
+         * @return a int.
+         */
+        public int getValue() {
+            return value;
+        }
+
+        /**
+         * <p>Getter for the field <code>name</code>.</p>
+         *
+         * @return a {@link java.lang.String} object.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return name.toUpperCase();
+        }
+
+        /**
+         * <p>all.</p>
+         *
+         * @return a {@link java.util.EnumSet} object.
+         */
+        public static EnumSet<PhaseAllocation> all() {
+            return EnumSet.allOf(PhaseAllocation.class);
+        }
+
+        /**
+         * <p>parse.</p>
+         *
+         * @param type a {@link java.lang.String} object.
+         * @return a {@link #PhaseAllocation} object.
+         */
+        public static PhaseAllocation parse(String type) {
+            if(type.equalsIgnoreCase("0")) return PhaseAllocation.DUTY_CYCLE;
+            if(type.equalsIgnoreCase("1")) return PhaseAllocation.STAGGERED;
+            if(type.toLowerCase().startsWith("d")) return PhaseAllocation.DUTY_CYCLE;
+            if(type.toLowerCase().startsWith("s")) return PhaseAllocation.STAGGERED;
+            return PhaseAllocation.DUTY_CYCLE; // default
+        }
+    }
+
+    /**
+     * Motion Profile Enumerations
+     *
+     * @author Thomas Reim
+     * @version $Id: $Id
+     */
+    public enum MotionProfile {
+        LINEAR(0, "linear"),
+        TRAPEZOIDAL(1, "trapezoidal"),
+        S_CURVE(2, "s_curve");
+
+        private final int value;
+        private final String name;
+
+        /**
+         * Motion Profile Enumerations
+         */
+        private MotionProfile(int value, String name) {
+            this.value = value;
+            this.name = name;
+        }
+
+        /**
+         * <p>Getter for the field <code>value</code>.</p>
+         *
+         * @return a int.
+         */
+        public int getValue() {
+            return value;
+        }
+
+        /**
+         * <p>Getter for the field <code>name</code>.</p>
+         *
+         * @return a {@link java.lang.String} object.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return name.toUpperCase();
+        }
+
+        /**
+         * <p>all.</p>
+         *
+         * @return a {@link java.util.EnumSet} object.
+         */
+        public static EnumSet<MotionProfile> all() {
+            return EnumSet.allOf(MotionProfile.class);
+        }
+
+        /**
+         * <p>parse.</p>
+         *
+         * @param type a {@link java.lang.String} object.
+         * @return a {@link #MotionProfile} object.
+         */
+        public static MotionProfile parse(String type) {
+            if(type.equalsIgnoreCase("0")) return MotionProfile.LINEAR;
+            if(type.equalsIgnoreCase("1")) return MotionProfile.TRAPEZOIDAL;
+            if(type.equalsIgnoreCase("2")) return MotionProfile.S_CURVE;
+            if(type.toLowerCase().startsWith("l")) return MotionProfile.LINEAR;
+            if(type.toLowerCase().startsWith("t")) return MotionProfile.TRAPEZOIDAL;
+            if(type.toLowerCase().startsWith("s")) return MotionProfile.S_CURVE;
+            return MotionProfile.LINEAR; // default
+        }
+    }
+
+    /**
+     * I2C Bus Speed Enumerations (SCL clock rate in Hz)
+     *
+     * @author Thomas Reim
+     * @version $Id: $Id
+     */
+    public enum I2cBusSpeed {
+        STANDARD_MODE(100000, "standard_mode"),
+        FAST_MODE(400000, "fast_mode"),
+        FAST_MODE_PLUS(1000000, "fast_mode_plus");
+
+        private final int value;
+        private final String name;
+
+        /**
+         * I2C Bus Speed Enumerations
+         */
+        private I2cBusSpeed(int value, String name) {
+            this.value = value;
+            this.name = name;
+        }
+
+        /**
+         * <p>Getter for the field <code>value</code>.</p>
+         *
+         * @return SCL clock rate in Hz
+         */
+        public int getValue() {
+            return value;
+        }
+
+        /**
+         * <p>Getter for the field <code>name</code>.</p>
+         *
+         * @return a {@link java.lang.String} object.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return name.toUpperCase();
+        }
+
+        /**
+         * <p>all.</p>
+         *
+         * @return a {@link java.util.EnumSet} object.
+         */
+        public static EnumSet<I2cBusSpeed> all() {
+            return EnumSet.allOf(I2cBusSpeed.class);
+        }
+
+        /**
+         * <p>parse.</p>
+         *
+         * @param type a {@link java.lang.String} object.
+         * @return a {@link #I2cBusSpeed} object.
+         */
+        public static I2cBusSpeed parse(String type) {
+            if(type.equalsIgnoreCase("100000")) return I2cBusSpeed.STANDARD_MODE;
+            if(type.equalsIgnoreCase("400000")) return I2cBusSpeed.FAST_MODE;
+            if(type.equalsIgnoreCase("1000000")) return I2cBusSpeed.FAST_MODE_PLUS;
+            if(type.toLowerCase().startsWith("s")) return I2cBusSpeed.STANDARD_MODE;
+            if(type.toLowerCase().startsWith("fast_mode_p")) return I2cBusSpeed.FAST_MODE_PLUS;
+            if(type.toLowerCase().startsWith("f")) return I2cBusSpeed.FAST_MODE;
+            return I2cBusSpeed.STANDARD_MODE; // default
+        }
+    }
+    
+}
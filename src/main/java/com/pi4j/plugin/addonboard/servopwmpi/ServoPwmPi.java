@@ -62,8 +62,30 @@ public class ServoPwmPi implements AddOnBoard {
     /** Constant <code>PWM_PROVIDER_ID="ID + -pwm"</code> */
     public static final String SERVOPWMPIZERO_PWM_PROVIDER_ID = BOARD_ID + "-pwm";
     
+    // Simulated I2C Provider name and unique ID
+    /** Constant <code>SIMULATED_I2C_PROVIDER_NAME="NAME +  Simulated I2C Provider"</code> */
+    public static final String SERVOPWMPIZERO_SIMULATED_I2C_PROVIDER_NAME = BOARD_NAME + " Simulated I2C Provider";
+    /** Constant <code>SIMULATED_I2C_PROVIDER_ID="ID + -simulated-i2c"</code> */
+    public static final String SERVOPWMPIZERO_SIMULATED_I2C_PROVIDER_ID = BOARD_ID + "-simulated-i2c";
+
     // Inverse output enable control GPIO pin ID (on Raspberry Pi host)
     public static final String SERVOPWMPIZERO_OE_CONTROL_PIN_ID = BOARD_ID + "-Inv(OE)";
+
+    // Oscillator calibration context properties
+    /** Constant <code>OSCILLATOR_CORRECTION_KEY="ID + .oscillator-correction"</code>, append <code>.0x40</code> for a single board */
+    public static final String SERVOPWMPIZERO_OSCILLATOR_CORRECTION_KEY = BOARD_ID + ".oscillator-correction";
+    /** Constant <code>OSCILLATOR_CALIBRATION_FILE_KEY="ID + .oscillator-calibration-file"</code> */
+    public static final String SERVOPWMPIZERO_OSCILLATOR_CALIBRATION_FILE_KEY = BOARD_ID + ".oscillator-calibration-file";
+    /** Constant <code>EXTERNAL_CLOCK_KEY="ID + .external-clock"</code> in Hz, append <code>.0x40</code> for a single board */
+    public static final String SERVOPWMPIZERO_EXTERNAL_CLOCK_KEY = BOARD_ID + ".external-clock";
+
+    // JMX metrics
+    /** Constant <code>JMX_DOMAIN="com.pi4j.plugin.addonboard.servopwmpi"</code> of the platform MBeans */
+    public static final String SERVOPWMPIZERO_JMX_DOMAIN = "com.pi4j.plugin.addonboard.servopwmpi";
+    /** Constant <code>JMX_KEY="ID + .jmx"</code>, <code>false</code> disables the platform MBeans */
+    public static final String SERVOPWMPIZERO_JMX_KEY = BOARD_ID + ".jmx";
+    /** Constant <code>LATENCY_TRACING_KEY="ID + .latency-tracing"</code>, <code>true</code> enables command latency tracing at start-up */
+    public static final String SERVOPWMPIZERO_LATENCY_TRACING_KEY = BOARD_ID + ".latency-tracing";
     
     private final Provider providers[] = {
             ServoPwmPiProvider.newInstance(),
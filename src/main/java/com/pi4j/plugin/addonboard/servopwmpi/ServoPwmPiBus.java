@@ -0,0 +1,469 @@
+package com.pi4j.plugin.addonboard.servopwmpi;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiBus.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiMotionImpl;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>I2C bus arbiter shared by all Servo PWM Pi boards on the same I2C bus.</p>
+ * <p>
+ *  Every I2C transaction of a Servo PWM Pi board is performed while holding
+ *  the arbiter of its I2C bus, i. e. transactions of stacked boards never
+ *  interleave. The arbiter is reentrant: a board or an application may hold
+ *  it across several transactions to keep them together, e. g. to update
+ *  several boards of a multi-board rig as one unit.
+ *  Waiting boards are granted the I2C bus according to the
+ *  {@link SERVOPWMPI.BusArbitration arbitration policy}: in arrival order
+ *  ({@link SERVOPWMPI.BusArbitration#FIFO FIFO}) or by bus priority
+ *  ({@link SERVOPWMPI.BusArbitration#PRIORITY PRIORITY}). Please note that
+ *  a busy high-priority board may starve low-priority boards.
+ *  Each arbiter provides a timer for delayed I2C transactions of its boards,
+ *  e. g. to wait for the oscillator without blocking the caller, write-behind
+ *  of staged LEDn registers and the frames of the motion engine of the I2C bus.
+ *  Arbiters are reference counted per I2C bus number.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public final class ServoPwmPiBus {
+
+    // arbiters by I2C bus number (guarded by class lock)
+    private static final Map<Integer, ServoPwmPiBus> buses = new HashMap<>();
+
+    private final int bus;
+
+    // number of boards using this arbiter (guarded by class lock)
+    private int references = 0;
+
+    // timer for delayed I2C transactions, started on first use (guarded by class lock)
+    private ScheduledThreadPoolExecutor timer = null;
+
+    // motion engine of all boards on this I2C bus, created on first use (guarded by class lock)
+    private ServoPwmPiMotionImpl motion = null;
+
+    // current owner and its hold count
+    private volatile Thread owner = null;
+    private int holds = 0;
+
+    // waiting threads (guarded by arbiter lock)
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private SERVOPWMPI.BusArbitration arbitration = SERVOPWMPI.BusArbitration.FIFO;
+    private long sequence = 0;
+
+    // contention statistics (guarded by arbiter lock)
+    private long acquisitions = 0;
+    private long contended = 0;
+    private long wait_time = 0;
+    private long max_wait_time = 0;
+    private int max_queue_depth = 0;
+
+    /**
+     * Waiting thread
+     */
+    private final class Waiter implements Comparable<Waiter> {
+        private final Thread thread;
+        private final int priority;
+        private final long sequence;
+
+        private Waiter(Thread thread, int priority, long sequence) {
+            this.thread = thread;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int compareTo(Waiter other) {
+            if (arbitration == SERVOPWMPI.BusArbitration.PRIORITY && this.priority != other.priority) {
+                return (this.priority > other.priority) ? -1 : 1;
+            }
+            return Long.compare(this.sequence, other.sequence);
+        }
+    }
+
+    private ServoPwmPiBus(int bus) {
+        this.bus = bus;
+    }
+
+    /**
+     * Get the arbiter of an I2C bus, create it if required
+     *
+     * @param bus I2C bus number
+     * @return arbiter of the I2C bus
+     */
+    public static synchronized ServoPwmPiBus acquire(int bus) {
+        ServoPwmPiBus arbiter = buses.get(bus);
+
+        if (arbiter == null) {
+            arbiter = new ServoPwmPiBus(bus);
+            buses.put(bus, arbiter);
+        }
+        arbiter.references++;
+        return arbiter;
+    }
+
+    /**
+     * Release the arbiter, discard it if no board uses it anymore
+     */
+    public void release() {
+        ServoPwmPiMotionImpl stopped;
+
+        synchronized (ServoPwmPiBus.class) {
+            if (--this.references > 0) {
+                return;
+            }
+            buses.remove(this.bus);
+            stopped = this.motion;
+            this.motion = null;
+            if (this.timer != null) {
+                // pending delayed transactions are still performed, periodic tasks are cancelled
+                this.timer.shutdown();
+                this.timer = null;
+            }
+        }
+        if (stopped != null) {
+            stopped.stopAll();
+        }
+    }
+
+    /**
+     * Get the motion engine of this I2C bus, create it if required
+     * <p>
+     *  All boards on the I2C bus share one motion engine, its frames are
+     *  written by the timer thread of the I2C bus. Moves are stopped when
+     *  the arbiter is discarded.
+     *
+     * @return motion engine of the I2C bus
+     */
+    public ServoPwmPiMotion getMotion() {
+        synchronized (ServoPwmPiBus.class) {
+            if (this.motion == null) {
+                this.motion = new ServoPwmPiMotionImpl(this);
+            }
+            return this.motion;
+        }
+    }
+
+    /**
+     * Run a task on the timer thread of this I2C bus after a delay
+     * <p>
+     *  The timer thread is a daemon thread shared by all boards on the I2C
+     *  bus. Tasks must acquire the I2C bus themselves and must not block
+     *  for longer than an I2C transaction.
+     *
+     * @param task task to run
+     * @param delay delay before the task is run
+     * @param unit time unit of the delay
+     * @return a {@link ScheduledFuture} of the task
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return timer().schedule(task, delay, unit);
+    }
+
+    /**
+     * Run a task periodically on the timer thread of this I2C bus
+     * <p>
+     *  Like {@link #schedule(Runnable, long, TimeUnit)}, but the task is run
+     *  every period until it is cancelled or the arbiter is discarded.
+     *
+     * @param task task to run
+     * @param delay delay before the task is run first
+     * @param period period between runs of the task
+     * @param unit time unit of the delay and the period
+     * @return a {@link ScheduledFuture} of the task
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long delay, long period, TimeUnit unit) {
+        return timer().scheduleAtFixedRate(task, delay, period, unit);
+    }
+
+    /**
+     * Get the timer of this I2C bus, start it if required
+     */
+    private ScheduledThreadPoolExecutor timer() {
+        synchronized (ServoPwmPiBus.class) {
+            if (this.timer == null) {
+                this.timer = new ScheduledThreadPoolExecutor(1, (Runnable r) -> {
+                    Thread thread = new Thread(r, "servopwmpi-timer-" + this.bus);
+
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                this.timer.setRemoveOnCancelPolicy(true);
+            }
+            return this.timer;
+        }
+    }
+
+    /**
+     * <p>Getter for the field <code>bus</code>.</p>
+     *
+     * @return I2C bus number
+     */
+    public int getBus() {
+        return this.bus;
+    }
+
+    /**
+     * Acquire the I2C bus with default bus priority
+     */
+    public void lock() {
+        lock(SERVOPWMPI.DEFAULT_BUS_PRIORITY);
+    }
+
+    /**
+     * Acquire the I2C bus, wait if it is held by another thread
+     * <p>
+     *  Threads already holding the I2C bus acquire it again without waiting.
+     *  Every call must be matched by a call of {@link #unlock()}.
+     *  An interrupt does not end the wait, the interrupt status of the caller
+     *  is restored after the I2C bus has been acquired.
+     *
+     * @param priority bus priority of the caller (higher values are served first
+     *                 with {@link SERVOPWMPI.BusArbitration#PRIORITY PRIORITY} arbitration)
+     * @return time waited for the I2C bus in nanoseconds, 0 if the I2C bus was free or already held
+     */
+    public long lock(int priority) {
+        try {
+            return acquire(priority, false);
+        } catch (InterruptedException e) {
+            // not thrown by uninterruptible acquisitions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Acquire the I2C bus unless the calling thread is interrupted, wait if
+     * it is held by another thread
+     * <p>
+     *  Like {@link #lock(int)}, but an interrupt cancels the wait.
+     *
+     * @param priority bus priority of the caller (higher values are served first
+     *                 with {@link SERVOPWMPI.BusArbitration#PRIORITY PRIORITY} arbitration)
+     * @return time waited for the I2C bus in nanoseconds, 0 if the I2C bus was free or already held
+     * @throws InterruptedException if the calling thread is interrupted before it acquired the I2C bus
+     */
+    public long lockInterruptibly(int priority) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("ServoPwmPiBus::lockInterruptibly() interrupted while waiting for I2C bus " + String.format("%d", this.bus));
+        }
+        return acquire(priority, true);
+    }
+
+    private long acquire(int priority, boolean interruptible) throws InterruptedException {
+        Thread current = Thread.currentThread();
+        Waiter waiter;
+        boolean interrupted = false;
+        long start;
+        long waited;
+
+        if (this.owner == current) {
+            // reentrant acquisition, only the owner changes the hold count
+            this.holds++;
+            return 0;
+        }
+        synchronized (this) {
+            this.acquisitions++;
+            if (this.owner == null && this.waiters.isEmpty()) {
+                this.owner = current;
+                this.holds = 1;
+                return 0;
+            }
+            this.contended++;
+            waiter = new Waiter(current, priority, this.sequence++);
+            this.waiters.add(waiter);
+            this.max_queue_depth = Math.max(this.max_queue_depth, this.waiters.size());
+        }
+        start = System.nanoTime();
+        // the releasing owner hands the I2C bus over by setting the owner
+        while (this.owner != current) {
+            LockSupport.park(this);
+            // park() returns immediately while the interrupt status is set
+            if (Thread.interrupted()) {
+                if (interruptible && cancel(waiter)) {
+                    throw new InterruptedException("ServoPwmPiBus::lockInterruptibly() interrupted while waiting for I2C bus " + String.format("%d", this.bus));
+                }
+                interrupted = true;
+            }
+        }
+        waited = System.nanoTime() - start;
+        synchronized (this) {
+            this.wait_time += waited;
+            this.max_wait_time = Math.max(this.max_wait_time, waited);
+        }
+        if (interrupted) {
+            current.interrupt();
+        }
+        return waited;
+    }
+
+    /**
+     * Remove an interrupted thread from the waiting threads
+     *
+     * @return false if the I2C bus has already been handed over to the thread
+     */
+    private synchronized boolean cancel(Waiter waiter) {
+        return this.waiters.remove(waiter);
+    }
+
+    /**
+     * Release the I2C bus, hand it over to the next waiting thread
+     *
+     * @throws IllegalMonitorStateException if the calling thread does not hold the I2C bus
+     */
+    public void unlock() throws IllegalMonitorStateException {
+        Waiter next;
+
+        if (this.owner != Thread.currentThread()) {
+            throw new IllegalMonitorStateException("ServoPwmPiBus::unlock() I2C bus " + String.format("%d", this.bus) + " not held by current thread");
+        }
+        if (--this.holds > 0) {
+            return;
+        }
+        synchronized (this) {
+            next = this.waiters.poll();
+            if (next == null) {
+                this.owner = null;
+            } else {
+                this.holds = 1;
+                this.owner = next.thread;
+            }
+        }
+        if (next != null) {
+            LockSupport.unpark(next.thread);
+        }
+    }
+
+    /**
+     * Check if the calling thread holds the I2C bus
+     *
+     * @return true if the I2C bus is held by the calling thread
+     */
+    public boolean isHeldByCurrentThread() {
+        return this.owner == Thread.currentThread();
+    }
+
+    /**
+     * <p>Getter for the field <code>arbitration</code>.</p>
+     *
+     * @return current {@link SERVOPWMPI.BusArbitration} policy
+     */
+    public synchronized SERVOPWMPI.BusArbitration getArbitration() {
+        return this.arbitration;
+    }
+
+    /**
+     * Set I2C bus arbitration policy, applies to waiting threads as well
+     *
+     * @param arbitration new {@link SERVOPWMPI.BusArbitration} policy
+     */
+    public synchronized void setArbitration(SERVOPWMPI.BusArbitration arbitration) {
+        ArrayList<Waiter> waiting;
+
+        if (arbitration == this.arbitration) {
+            return;
+        }
+        this.arbitration = arbitration;
+        // reorder waiting threads
+        waiting = new ArrayList<>(this.waiters);
+        this.waiters.clear();
+        this.waiters.addAll(waiting);
+    }
+
+    /**
+     * Get number of I2C bus acquisitions (without reentrant acquisitions)
+     *
+     * @return number of acquisitions
+     */
+    public synchronized long getAcquisitionCount() {
+        return this.acquisitions;
+    }
+
+    /**
+     * Get number of I2C bus acquisitions that had to wait for another thread
+     *
+     * @return number of contended acquisitions
+     */
+    public synchronized long getContendedCount() {
+        return this.contended;
+    }
+
+    /**
+     * Get accumulated time threads waited for the I2C bus
+     *
+     * @return total wait time in nanoseconds
+     */
+    public synchronized long getWaitTime() {
+        return this.wait_time;
+    }
+
+    /**
+     * Get longest time a thread waited for the I2C bus
+     *
+     * @return maximum wait time in nanoseconds
+     */
+    public synchronized long getMaxWaitTime() {
+        return this.max_wait_time;
+    }
+
+    /**
+     * Get number of threads currently waiting for the I2C bus
+     *
+     * @return current queue depth
+     */
+    public synchronized int getQueueDepth() {
+        return this.waiters.size();
+    }
+
+    /**
+     * Get largest number of threads that waited for the I2C bus at the same time
+     *
+     * @return maximum queue depth
+     */
+    public synchronized int getMaxQueueDepth() {
+        return this.max_queue_depth;
+    }
+
+    /**
+     * Reset contention statistics
+     */
+    public synchronized void resetStatistics() {
+        this.acquisitions = 0;
+        this.contended = 0;
+        this.wait_time = 0;
+        this.max_wait_time = 0;
+        this.max_queue_depth = this.waiters.size();
+    }
+}
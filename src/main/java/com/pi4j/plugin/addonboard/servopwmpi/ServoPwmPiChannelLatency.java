@@ -0,0 +1,121 @@
+package com.pi4j.plugin.addonboard.servopwmpi;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiChannelLatency.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * Command latency histograms of a PWM pin
+ * <p>
+ *  A traced command passes three points: it enters the PWM pin, the I2C bus
+ *  is acquired to write it and the I2C write completes. The queueing delay
+ *  spans the first two points and includes waiting for the bus arbiter and,
+ *  in combining and write-behind mode, waiting for the batch. The bus time
+ *  spans the last two points.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public final class ServoPwmPiChannelLatency {
+
+    private final int channel;
+    private final ServoPwmPiHistogram queueing = new ServoPwmPiHistogram();
+    private final ServoPwmPiHistogram bus_time = new ServoPwmPiHistogram();
+    private final ServoPwmPiHistogram total = new ServoPwmPiHistogram();
+
+    /**
+     * Constructor
+     *
+     * @param channel PWM pin (LEDn) address
+     */
+    public ServoPwmPiChannelLatency(int channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Record a completed command
+     *
+     * @param entered time the command entered the PWM pin ({@link System#nanoTime()})
+     * @param acquired time the I2C bus was acquired
+     * @param completed time the I2C write completed
+     */
+    public void record(long entered, long acquired, long completed) {
+        this.queueing.record(acquired - entered);
+        this.bus_time.record(completed - acquired);
+        this.total.record(completed - entered);
+    }
+
+    /**
+     * <p>Getter for the field <code>channel</code>.</p>
+     *
+     * @return PWM pin (LEDn) address
+     */
+    public int getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Get the queueing delay from command entry to I2C bus acquisition
+     *
+     * @return {@link ServoPwmPiHistogram} of the queueing delay
+     */
+    public ServoPwmPiHistogram getQueueing() {
+        return this.queueing;
+    }
+
+    /**
+     * Get the bus time from I2C bus acquisition to I2C write completion
+     *
+     * @return {@link ServoPwmPiHistogram} of the bus time
+     */
+    public ServoPwmPiHistogram getBusTime() {
+        return this.bus_time;
+    }
+
+    /**
+     * Get the end-to-end latency from command entry to I2C write completion
+     *
+     * @return {@link ServoPwmPiHistogram} of the end-to-end latency
+     */
+    public ServoPwmPiHistogram getTotal() {
+        return this.total;
+    }
+
+    /**
+     * Reset all histograms
+     */
+    public void reset() {
+        this.queueing.reset();
+        this.bus_time.reset();
+        this.total.reset();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format("LED%d: queueing %s, bus %s, total %s", this.channel, this.queueing, this.bus_time, this.total);
+    }
+}
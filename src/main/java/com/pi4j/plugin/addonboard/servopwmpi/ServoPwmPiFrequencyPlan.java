@@ -0,0 +1,177 @@
+package com.pi4j.plugin.addonboard.servopwmpi;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiFrequencyPlan.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiDevice;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PRE_SCALE choice of a Servo PWM Pi board rated for a servo pulse-width range
+ * <p>
+ *  The {@link #plan(double, int, int, double, double, double) planner}
+ *  evaluates every PRE_SCALE value whose PWM frequency lies within the
+ *  tolerated frequency range and whose PWM period exceeds the longest pulse.
+ *  Plans are ranked by the number of PWM counter steps across the pulse-width
+ *  range (finest resolution first), then by the absolute frequency error
+ *  relative to the target frequency.
+ *  A plan is applied with {@link ServoPwmPiDevice#setPreScale(int)}.
+ *  Plans are immutable.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public final class ServoPwmPiFrequencyPlan implements SERVOPWMPI {
+
+    private final int pre_scale;
+    private final double frequency;
+    private final double frequency_error;
+    private final double micros_per_tick;
+    private final int min_pulse_ticks;
+    private final int max_pulse_ticks;
+
+    private ServoPwmPiFrequencyPlan(int preScale, double oscillatorClock, int minPulse, int maxPulse, double targetFrequency) {
+        this.pre_scale = preScale;
+        this.frequency = oscillatorClock / PWM_STEPS / (preScale + 1);
+        this.frequency_error = this.frequency / targetFrequency - 1.0;
+        this.micros_per_tick = 1000000.0 * (preScale + 1) / oscillatorClock;
+        this.min_pulse_ticks = (int) Math.round(minPulse / this.micros_per_tick);
+        this.max_pulse_ticks = (int) Math.round(maxPulse / this.micros_per_tick);
+    }
+
+    /**
+     * Rank all PRE_SCALE values for a servo pulse-width range
+     *
+     * @param oscillatorClock oscillator clock in Hz, e. g. {@link ServoPwmPiDevice#getOscillatorClock()}
+     * @param minPulse shortest pulse width in microseconds
+     * @param maxPulse longest pulse width in microseconds
+     * @param targetFrequency preferred PWM frequency in Hz
+     * @param minFrequency lowest tolerated PWM frequency in Hz
+     * @param maxFrequency highest tolerated PWM frequency in Hz
+     * @return plans ranked best first, empty if no PRE_SCALE value satisfies the constraints
+     */
+    public static List<ServoPwmPiFrequencyPlan> plan(double oscillatorClock, int minPulse, int maxPulse,
+                                                     double targetFrequency, double minFrequency, double maxFrequency) throws IllegalArgumentException {
+        List<ServoPwmPiFrequencyPlan> plans = new ArrayList<>();
+        ServoPwmPiFrequencyPlan plan;
+
+        if (!(oscillatorClock > 0)) {
+            throw new IllegalArgumentException("plan(): oscillator clock must be positive");
+        }
+        if (minPulse <= 0 || maxPulse < minPulse) {
+            throw new IllegalArgumentException("plan(): invalid pulse-width range (" + String.format("%d us - %d us", minPulse, maxPulse) + ")");
+        }
+        if (!(minFrequency > 0) || maxFrequency < minFrequency || targetFrequency < minFrequency || targetFrequency > maxFrequency) {
+            throw new IllegalArgumentException("plan(): invalid frequency range (" + String.format("%.1f Hz - %.1f Hz", minFrequency, maxFrequency)
+                    + ", target " + String.format("%.1f Hz", targetFrequency) + ")");
+        }
+        for (int pre_scale = MIN_PRE_SCALE; pre_scale <= MAX_PRE_SCALE; pre_scale++) {
+            plan = new ServoPwmPiFrequencyPlan(pre_scale, oscillatorClock, minPulse, maxPulse, targetFrequency);
+            if (plan.frequency >= minFrequency && plan.frequency <= maxFrequency && plan.max_pulse_ticks < PWM_STEPS) {
+                plans.add(plan);
+            }
+        }
+        plans.sort((a, b) -> {
+            if (a.getResolution() != b.getResolution()) {
+                return Integer.compare(b.getResolution(), a.getResolution());
+            }
+            return Double.compare(Math.abs(a.frequency_error), Math.abs(b.frequency_error));
+        });
+        return plans;
+    }
+
+    /**
+     * <p>Getter for the field <code>pre_scale</code>.</p>
+     *
+     * @return PRE_SCALE register value
+     */
+    public int getPreScale() {
+        return this.pre_scale;
+    }
+
+    /**
+     * <p>Getter for the field <code>frequency</code>.</p>
+     *
+     * @return resulting PWM frequency in Hz
+     */
+    public double getFrequency() {
+        return this.frequency;
+    }
+
+    /**
+     * <p>Getter for the field <code>frequency_error</code>.</p>
+     *
+     * @return deviation of the resulting from the target PWM frequency (0.01: 1 % too fast)
+     */
+    public double getFrequencyError() {
+        return this.frequency_error;
+    }
+
+    /**
+     * <p>Getter for the field <code>micros_per_tick</code>.</p>
+     *
+     * @return duration of a PWM counter step in microseconds
+     */
+    public double getMicrosPerTick() {
+        return this.micros_per_tick;
+    }
+
+    /**
+     * <p>Getter for the field <code>min_pulse_ticks</code>.</p>
+     *
+     * @return PWM counter steps of the shortest pulse
+     */
+    public int getMinPulseTicks() {
+        return this.min_pulse_ticks;
+    }
+
+    /**
+     * <p>Getter for the field <code>max_pulse_ticks</code>.</p>
+     *
+     * @return PWM counter steps of the longest pulse
+     */
+    public int getMaxPulseTicks() {
+        return this.max_pulse_ticks;
+    }
+
+    /**
+     * Get the number of distinct pulse widths across the pulse-width range
+     *
+     * @return PWM counter steps between shortest and longest pulse
+     */
+    public int getResolution() {
+        return this.max_pulse_ticks - this.min_pulse_ticks;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format("PRE_SCALE %d: %.2f Hz (%+.2f %%), %.3f us/tick, %d steps", this.pre_scale, this.frequency,
+                this.frequency_error * 100.0, this.micros_per_tick, getResolution());
+    }
+}
@@ -0,0 +1,150 @@
+package com.pi4j.plugin.addonboard.servopwmpi;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiGroup.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.context.Context;
+import com.pi4j.exception.ShutdownException;
+import com.pi4j.io.exception.IOException;
+import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiDevice;
+import java.util.List;
+
+/**
+ * Group of Servo PWM Pi boards sharing an I2C group address
+ * <p>
+ *  Member boards respond to a common I2C group address (SUBADR1 - SUBADR3 or
+ *  ALLCALLADR) in addition to their own I2C address. Every write of a group
+ *  is a single I2C transaction that updates all member boards at once.
+ *  Group addresses are write-only: the group does not read registers.
+ *  <p>
+ *  Group writes bypass the write modes of the member boards. LEDn counts
+ *  staged by a member board in write-behind or combining mode are written
+ *  after the group write and overwrite it.
+ * <p>
+ * refer to {@link {@value com.pi4j.plugin.addonboard.servopwmpizero.SERVOPWMPIZERO#DATASHEET}
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public interface ServoPwmPiGroup {
+
+    /**
+     * Get the group address register used by this group
+     *
+     * @return {@link SERVOPWMPI.GroupAddress}
+     */
+    SERVOPWMPI.GroupAddress getGroupAddress();
+
+    /**
+     * Get the I2C group address of this group
+     *
+     * @return 7-bit I2C group address
+     */
+    int getAddress();
+
+    /**
+     * Add a Servo PWM Pi board to the group
+     * <p>
+     *  Configures the group address register of the board and enables its
+     *  response to the group address. The board must be connected to the same
+     *  I2C bus as the group.
+     *
+     * @param member Servo PWM Pi board
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void addMember(ServoPwmPiDevice member) throws IOException, IllegalArgumentException;
+
+    /**
+     * Remove a Servo PWM Pi board from the group and disable its response to
+     * the group address
+     *
+     * @param member Servo PWM Pi board
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void removeMember(ServoPwmPiDevice member) throws IOException;
+
+    /**
+     * Get the member boards of the group
+     *
+     * @return unmodifiable list of member boards
+     */
+    List<ServoPwmPiDevice> getMembers();
+
+    /**
+     * Set LEDn_ON and LEDn_OFF counts of several PWM pins of all member boards
+     * in one I2C transaction per run of adjacent PWM pins
+     *
+     * @param channelMask PWM pins to update, one bit per PWM pin (LED0 = bit 0)
+     * @param onCounts LEDn_ON counts indexed by PWM pin address (range: 0-8191)
+     * @param offCounts LEDn_OFF counts indexed by PWM pin address (range: 0-8191)
+     * @throws IOException if fails to communicate with the Servo PWM Pi boards
+     */
+    void setChannels(int channelMask, int[] onCounts, int[] offCounts) throws IOException, IllegalArgumentException;
+
+    /**
+     * Set duty-cycles of several PWM pins of all member boards
+     * <p>
+     *  The phase-shift of each PWM pin is auto-configured.
+     *
+     * @param channelMask PWM pins to update, one bit per PWM pin (LED0 = bit 0)
+     * @param dutyCycles duty-cycle values indexed by PWM pin address (range: 0-100)
+     * @throws IOException if fails to communicate with the Servo PWM Pi boards
+     */
+    void setChannels(int channelMask, float[] dutyCycles) throws IOException, IllegalArgumentException;
+
+    /**
+     * Set LEDn_ON and LEDn_OFF counts of all PWM pins of all member boards
+     * using the ALL_LED registers
+     *
+     * @param onCount LEDn_ON count (range: 0-8191)
+     * @param offCount LEDn_OFF count (range: 0-8191)
+     * @throws IOException if fails to communicate with the Servo PWM Pi boards
+     */
+    void allSet(int onCount, int offCount) throws IOException, IllegalArgumentException;
+
+    /**
+     * Turn all PWM pins of all member boards fully off
+     *
+     * @throws IOException if fails to communicate with the Servo PWM Pi boards
+     */
+    void allOff() throws IOException;
+
+    /**
+     * Turn all PWM pins of all member boards fully on
+     *
+     * @throws IOException if fails to communicate with the Servo PWM Pi boards
+     */
+    void allFullOn() throws IOException;
+
+    /**
+     * Remove all member boards and release the group I2C address
+     *
+     * @param context PI4J Context
+     * @throws ShutdownException if shutdown fails
+     */
+    void shutdown(Context context) throws ShutdownException;
+}
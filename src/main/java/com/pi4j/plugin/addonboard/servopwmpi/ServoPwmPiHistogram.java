@@ -0,0 +1,193 @@
+package com.pi4j.plugin.addonboard.servopwmpi;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiHistogram.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket histogram of durations in nanoseconds
+ * <p>
+ *  Buckets are log-linear: values below 8 ns have a bucket each, every
+ *  further power of two is split into 8 buckets, i. e. a recorded value is
+ *  known within 12.5 %. Values above 2^36 ns (about 69 s) are counted in the
+ *  last bucket. Percentiles are reported as the upper bound of their bucket,
+ *  but never above the maximum recorded value.
+ *  <p>
+ *  Recording is thread-safe, lock-free and allocation-free. Reading while
+ *  values are recorded yields a consistent approximation, not a snapshot.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public final class ServoPwmPiHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    // the number of recorded durations is the sum of all buckets
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a duration
+     *
+     * @param nanos duration in nanoseconds, negative durations count as zero
+     */
+    public void record(long nanos) {
+        long current;
+
+        if (nanos <= 0) {
+            // fast path, e. g. an uncontended lock
+            this.buckets.incrementAndGet(0);
+            return;
+        }
+        this.buckets.incrementAndGet(bucket(nanos));
+        this.sum.add(nanos);
+        current = this.max.get();
+        while (nanos > current && !this.max.compareAndSet(current, nanos)) {
+            current = this.max.get();
+        }
+    }
+
+    /**
+     * Get the number of recorded durations
+     *
+     * @return number of recorded durations
+     */
+    public long getCount() {
+        long total = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            total += this.buckets.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Get the sum of all recorded durations
+     *
+     * @return sum in nanoseconds
+     */
+    public long getTotal() {
+        return this.sum.sum();
+    }
+
+    /**
+     * Get the mean of all recorded durations
+     *
+     * @return mean in nanoseconds, 0 if no durations have been recorded
+     */
+    public double getMean() {
+        long n = getCount();
+
+        return (n == 0) ? 0 : (double) this.sum.sum() / n;
+    }
+
+    /**
+     * Get the longest recorded duration
+     *
+     * @return maximum in nanoseconds
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Get a percentile of the recorded durations
+     *
+     * @param percentile percentile (range: 0-1, e. g. 0.99)
+     * @return upper bound of the percentile's bucket in nanoseconds, 0 if no durations have been recorded
+     */
+    public long getPercentile(double percentile) throws IllegalArgumentException {
+        long total;
+        long rank;
+        long seen = 0;
+
+        if (!(percentile >= 0.0 && percentile <= 1.0)) {
+            throw new IllegalArgumentException("getPercentile(): percentile out of range (0-1): " + percentile);
+        }
+        total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        rank = Math.max(1, (long) Math.ceil(percentile * total));
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Clear all recorded durations
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets.set(i, 0);
+        }
+        this.sum.reset();
+        this.max.set(0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.0f ns p50=%d ns p99=%d ns p999=%d ns max=%d ns", getCount(), getMean(),
+                getPercentile(0.5), getPercentile(0.99), getPercentile(0.999), getMax());
+    }
+
+    private static int bucket(long nanos) {
+        int exponent;
+
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + (int) ((nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    private static long upperBound(int bucket) {
+        int shift;
+
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        shift = bucket / SUB_BUCKETS - 1;
+        return ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift) - 1;
+    }
+}
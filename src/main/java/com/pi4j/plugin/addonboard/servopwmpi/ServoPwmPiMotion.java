@@ -0,0 +1,164 @@
+package com.pi4j.plugin.addonboard.servopwmpi;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiMotion.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiDevice;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Motion engine of an I2C bus
+ * <p>
+ *  Moves PWM pins along a {@link SERVOPWMPI.MotionProfile motion profile}
+ *  from their current to a target duty-cycle. Setpoints are generated once
+ *  per PWM period of a Servo PWM Pi board, i. e. at the board's actual PWM
+ *  frequency, and all moving PWM pins of a board are written with one
+ *  {@link ServoPwmPiDevice#setChannels(int, float[]) batched write} per
+ *  frame according to the board's write mode.
+ *  The timer thread of the I2C bus generates the frames of all boards on
+ *  that bus, see {@link ServoPwmPiBus#getMotion()}.
+ *  <p>
+ *  A new move of a moving PWM pin starts from its current setpoint and
+ *  replaces the running move, whose future is cancelled.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public interface ServoPwmPiMotion {
+
+    /**
+     * Move a PWM pin to a target duty-cycle within a given time
+     *
+     * @param pwm PWM pin
+     * @param dutyCycle target duty-cycle (range: 0-100)
+     * @param duration duration of the move
+     * @param unit time unit of the duration
+     * @param profile {@link SERVOPWMPI.MotionProfile}
+     * @return future that completes when the target duty-cycle has been written
+     */
+    CompletableFuture<Void> moveTo(ServoPwmPiPwm pwm, float dutyCycle, long duration, TimeUnit unit, SERVOPWMPI.MotionProfile profile) throws IllegalArgumentException;
+
+    /**
+     * Move a PWM pin to a target duty-cycle as fast as velocity and
+     * acceleration limits permit
+     *
+     * @param pwm PWM pin
+     * @param dutyCycle target duty-cycle (range: 0-100)
+     * @param maxVelocity maximum velocity in duty-cycle percent per second
+     * @param maxAcceleration maximum acceleration in duty-cycle percent per second^2 (ignored by
+     *                        {@link SERVOPWMPI.MotionProfile#LINEAR LINEAR})
+     * @param profile {@link SERVOPWMPI.MotionProfile}
+     * @return future that completes when the target duty-cycle has been written
+     */
+    CompletableFuture<Void> moveTo(ServoPwmPiPwm pwm, float dutyCycle, float maxVelocity, float maxAcceleration, SERVOPWMPI.MotionProfile profile) throws IllegalArgumentException;
+
+    /**
+     * Move several PWM pins, possibly of several Servo PWM Pi boards, to their
+     * target duty-cycles within a given time
+     * <p>
+     *  All PWM pins start and arrive at the same time. The setpoints of each
+     *  board are written with one I2C transaction per frame; boards without
+     *  changed setpoints are not written.
+     *
+     * @param pwms PWM pins connected to the I2C bus of this motion engine
+     * @param dutyCycles target duty-cycles indexed like the PWM pins (range: 0-100)
+     * @param duration duration of the move
+     * @param unit time unit of the duration
+     * @param profile {@link SERVOPWMPI.MotionProfile}
+     * @return future that completes when all target duty-cycles have been written
+     */
+    CompletableFuture<Void> moveTogether(ServoPwmPiPwm[] pwms, float[] dutyCycles, long duration, TimeUnit unit, SERVOPWMPI.MotionProfile profile) throws IllegalArgumentException;
+
+    /**
+     * Move several PWM pins, possibly of several Servo PWM Pi boards, to their
+     * target duty-cycles as fast as velocity and acceleration limits permit
+     * <p>
+     *  The moves of all PWM pins are time-scaled to the slowest one, i. e.
+     *  all PWM pins start and arrive at the same time.
+     *
+     * @param pwms PWM pins connected to the I2C bus of this motion engine
+     * @param dutyCycles target duty-cycles indexed like the PWM pins (range: 0-100)
+     * @param maxVelocity maximum velocity of each PWM pin in duty-cycle percent per second
+     * @param maxAcceleration maximum acceleration of each PWM pin in duty-cycle percent per second^2
+     *                        (ignored by {@link SERVOPWMPI.MotionProfile#LINEAR LINEAR})
+     * @param profile {@link SERVOPWMPI.MotionProfile}
+     * @return future that completes when all target duty-cycles have been written
+     */
+    CompletableFuture<Void> moveTogether(ServoPwmPiPwm[] pwms, float[] dutyCycles, float maxVelocity, float maxAcceleration, SERVOPWMPI.MotionProfile profile) throws IllegalArgumentException;
+
+    /**
+     * Stop a moving PWM pin at its current setpoint, cancel the future of the move
+     *
+     * @param pwm PWM pin
+     */
+    void stop(ServoPwmPiPwm pwm);
+
+    /**
+     * Stop all moving PWM pins of a Servo PWM Pi board
+     *
+     * @param device Servo PWM Pi board
+     */
+    void stop(ServoPwmPiDevice device);
+
+    /**
+     * Stop all moving PWM pins on the I2C bus
+     */
+    void stopAll();
+
+    /**
+     * Check if a PWM pin is moving
+     *
+     * @param pwm PWM pin
+     * @return true if a move of the PWM pin is in progress
+     */
+    boolean isMoving(ServoPwmPiPwm pwm);
+
+    /**
+     * Get the I2C bus number of this motion engine
+     *
+     * @return I2C bus number
+     */
+    int getBus();
+
+    /**
+     * Get the number of written frames (frames without changed setpoints
+     * are not written)
+     *
+     * @return number of frames
+     */
+    long getFrameCount();
+
+    /**
+     * Get the number of frames that started more than half a PWM period late,
+     * e. g. because the I2C bus was busy
+     *
+     * @return number of late frames
+     */
+    long getLateFrameCount();
+}
@@ -0,0 +1,246 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pending LEDn register updates of a Servo PWM Pi board
+ * <p>
+ *  Each PWM pin has one latest-value-wins slot. Posting LEDn counts to a slot
+ *  that has not been written yet replaces the staged counts, i. e. the
+ *  superseded setpoint is dropped. Completion futures of a superseded
+ *  setpoint complete together with the setpoint that replaced it.
+ *  <p>
+ *  Each drain starts a new batch generation. Callers in combining mode get the
+ *  generation of the batch that will carry their LEDn counts as ticket and
+ *  check the outcome of that batch after it has been written.
+ *  All methods are guarded by the slots monitor, which is held only to stage
+ *  or take LEDn counts and never during I2C communication.
+ */
+final class ServoPwmPiChannelSlots implements SERVOPWMPI {
+
+    // staged LEDn_ON (upper 16 bits) and LEDn_OFF (lower 16 bits) counts
+    private final int[] counts = new int[PWM_CHANNEL_COUNT];
+
+    // completion futures of staged LEDn counts (null if nobody waits)
+    private final CompletableFuture<?>[] futures = new CompletableFuture<?>[PWM_CHANNEL_COUNT];
+
+    // PWM pins with staged LEDn counts, one bit per PWM pin
+    private int dirty = 0;
+
+    // number of staged LEDn counts replaced before they were written
+    private long superseded = 0;
+
+    // generation of the last drained batch and of the last written batch
+    private long generation = 0;
+    private long completed = 0;
+
+    // combining callers waiting for the next batch and for the last drained batch
+    private int batch_waiters = 0;
+    private int drained_waiters = 0;
+
+    // failed batches with combining callers that have not taken the failure yet
+    private final Map<Long, Failure> failures = new HashMap<>();
+
+    /**
+     * Failure of a batch and number of combining callers still to be informed
+     */
+    private static final class Failure {
+        private final Throwable error;
+        private int waiters;
+
+        private Failure(Throwable error, int waiters) {
+            this.error = error;
+            this.waiters = waiters;
+        }
+    }
+
+    /**
+     * Stage LEDn counts of a PWM pin
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param on_value LEDn_ON count (including full ON bit)
+     * @param off_value LEDn_OFF count (including full OFF bit)
+     * @param future completion future of the LEDn counts or null
+     * @return true if no LEDn counts were staged before, i. e. the board has to be scheduled for writing
+     */
+    synchronized boolean post(int channel, int on_value, int off_value, CompletableFuture<Void> future) {
+        boolean schedule = (this.dirty == 0);
+        CompletableFuture<?> previous;
+
+        if ((this.dirty & (1 << channel)) != 0) {
+            this.superseded++;
+        }
+        this.counts[channel] = (on_value << 16) | (off_value & 0xFFFF);
+        this.dirty |= (1 << channel);
+        if (future != null) {
+            previous = this.futures[channel];
+            if (previous != null) {
+                chain(future, previous);
+            }
+            this.futures[channel] = future;
+        }
+        return schedule;
+    }
+
+    /**
+     * Stage LEDn counts of a PWM pin for a combining caller
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param on_value LEDn_ON count (including full ON bit)
+     * @param off_value LEDn_OFF count (including full OFF bit)
+     * @param future completion future of the LEDn counts or null
+     * @return ticket: generation of the batch that will write the LEDn counts
+     */
+    synchronized long postCombining(int channel, int on_value, int off_value, CompletableFuture<Void> future) {
+        post(channel, on_value, off_value, future);
+        this.batch_waiters++;
+        return this.generation + 1;
+    }
+
+    /**
+     * Stage LEDn counts of several PWM pins for a combining caller
+     *
+     * @param channelMask PWM pins to stage, one bit per PWM pin (LED0 = bit 0)
+     * @param onCounts LEDn_ON counts indexed by PWM pin address
+     * @param offCounts LEDn_OFF counts indexed by PWM pin address
+     * @return ticket: generation of the batch that will write the LEDn counts
+     */
+    synchronized long postCombining(int channelMask, int[] onCounts, int[] offCounts) {
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((channelMask & (1 << channel)) != 0) {
+                post(channel, onCounts[channel], offCounts[channel], null);
+            }
+        }
+        this.batch_waiters++;
+        return this.generation + 1;
+    }
+
+    /**
+     * Take all staged LEDn counts and clear the slots
+     * <p>
+     *  Starts a new batch generation. The caller must hold the I2C bus lock
+     *  until the batch has been {@link #finish(Throwable) finished}.
+     *
+     * @param onCounts LEDn_ON counts indexed by PWM pin address
+     * @param offCounts LEDn_OFF counts indexed by PWM pin address
+     * @param waiting completion futures indexed by PWM pin address (null if nobody waits)
+     * @return PWM pins with staged LEDn counts, one bit per PWM pin (LED0 = bit 0)
+     */
+    synchronized int drain(int[] onCounts, int[] offCounts, CompletableFuture<?>[] waiting) {
+        int mask = this.dirty;
+
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((mask & (1 << channel)) != 0) {
+                onCounts[channel] = this.counts[channel] >>> 16;
+                offCounts[channel] = this.counts[channel] & 0xFFFF;
+                waiting[channel] = this.futures[channel];
+                this.futures[channel] = null;
+            } else {
+                waiting[channel] = null;
+            }
+        }
+        this.dirty = 0;
+        this.generation++;
+        this.drained_waiters = this.batch_waiters;
+        this.batch_waiters = 0;
+        return mask;
+    }
+
+    /**
+     * Record the outcome of the last drained batch
+     *
+     * @param error write failure or null if the LEDn registers were written
+     */
+    synchronized void finish(Throwable error) {
+        this.completed = this.generation;
+        if (error != null && this.drained_waiters > 0) {
+            this.failures.put(this.generation, new Failure(error, this.drained_waiters));
+        }
+        this.drained_waiters = 0;
+    }
+
+    /**
+     * Check if the batch of a combining caller has been written
+     *
+     * @param ticket ticket of the combining caller
+     * @return true if the batch has been written (or failed)
+     */
+    synchronized boolean isCompleted(long ticket) {
+        return this.completed >= ticket;
+    }
+
+    /**
+     * Take the failure of the batch of a combining caller
+     *
+     * @param ticket ticket of the combining caller
+     * @return write failure or null if the batch has been written successfully
+     */
+    synchronized Throwable takeFailure(long ticket) {
+        Failure failure = this.failures.get(ticket);
+
+        if (failure == null) {
+            return null;
+        }
+        if (--failure.waiters == 0) {
+            this.failures.remove(ticket);
+        }
+        return failure.error;
+    }
+
+    /**
+     * Check if LEDn counts are staged
+     *
+     * @return true if at least one PWM pin has staged LEDn counts
+     */
+    synchronized boolean isDirty() {
+        return this.dirty != 0;
+    }
+
+    /**
+     * Get number of staged LEDn counts that were replaced before being written
+     *
+     * @return number of superseded setpoints
+     */
+    synchronized long getSupersededCount() {
+        return this.superseded;
+    }
+
+    /**
+     * Complete drained futures
+     *
+     * @param channelMask drained PWM pins, one bit per PWM pin (LED0 = bit 0)
+     * @param waiting completion futures indexed by PWM pin address
+     * @param error write failure or null if the LEDn registers were written
+     */
+    static void complete(int channelMask, CompletableFuture<?>[] waiting, Throwable error) {
+        CompletableFuture<?> future;
+
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((channelMask & (1 << channel)) != 0 && waiting[channel] != null) {
+                future = waiting[channel];
+                waiting[channel] = null;
+                if (error == null) {
+                    future.complete(null);
+                } else {
+                    future.completeExceptionally(error);
+                }
+            }
+        }
+    }
+
+    /**
+     * Complete a superseded future together with the future replacing it
+     */
+    private static void chain(CompletableFuture<Void> future, CompletableFuture<?> previous) {
+        future.whenComplete((result, error) -> {
+            if (error == null) {
+                previous.complete(null);
+            } else {
+                previous.completeExceptionally(error);
+            }
+        });
+    }
+}
@@ -5,7 +5,10 @@ import com.pi4j.exception.InitializeException;
 import com.pi4j.exception.ShutdownException;
 import com.pi4j.io.exception.IOException;
 import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiBus;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiFrequencyPlan;
 import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
+import java.util.concurrent.CompletableFuture;
 
 public interface ServoPwmPiDevice  {
 
@@ -17,6 +20,8 @@ public interface ServoPwmPiDevice  {
      *  defaults during power-up. Therefore, this method will also reset the mode
      *  registers to the recommended Servo PWM Pi board defaults
      *  ({@link SERVOPWMPI#MODE_1_DEFAULT}, {@link SERVOPWMPI#MODE_2_DEFAULT}).
+     *  The Mode 1 register auto-increment (AI) bit is set if
+     *  {@link #isAutoIncrement() auto-increment mode} is enabled.
      *
      * @param context PI4J Context
      * @throws InitializeException if initialisation fails
@@ -47,6 +52,58 @@ public interface ServoPwmPiDevice  {
      */
     void on(ServoPwmPiPwm io, float dutyCycle) throws IOException;
 
+    /**
+     * Turn the PWM signal [ON] for a specified number of PWM counter steps
+     * per period at the pre-configured frequency (Hz).
+     * <p>
+     *  The switch-on delay is taken from the phase-shift of the PWM pin.
+     *
+     * @param io PWM pin to turn on
+     * @param onTicks number of PWM counter steps the PWM signal is HIGH per period
+     *                (range: 0-{@value SERVOPWMPI#PWM_STEPS})
+     * @throws IOException if fails to communicate with the PWM pin
+     */
+    void setOnTicks(ServoPwmPiPwm io, int onTicks) throws IOException, IllegalArgumentException;
+
+    /**
+     * Set the PWM counter steps at which the PWM signal of a PWM pin
+     * is switched on (LEDn_ON) and off (LEDn_OFF).
+     *
+     * @param io PWM pin to update
+     * @param onTick PWM counter step of the rising edge (range: 0-4095)
+     * @param offTick PWM counter step of the falling edge (range: 0-4095)
+     * @throws IOException if fails to communicate with the PWM pin
+     */
+    void setTicks(ServoPwmPiPwm io, int onTick, int offTick) throws IOException, IllegalArgumentException;
+
+    /**
+     * Turn the PWM signal [ON] using a specified duty-cycle (%) without
+     * waiting for the I2C transaction.
+     * <p>
+     *  In {@link SERVOPWMPI.WriteMode#WRITE_BEHIND WRITE_BEHIND} mode the LEDn
+     *  counts are staged and written by the timer thread of the I2C bus.
+     *  In {@link SERVOPWMPI.WriteMode#DIRECT DIRECT} mode the LEDn registers
+     *  are written before this method returns.
+     *
+     * @param io PWM pin to turn on
+     * @param dutyCycle duty-cycle value expressed as a percentage (range: 0-100)
+     * @return future that completes when the LEDn registers are written or
+     *         completes exceptionally if I2C communication fails
+     */
+    CompletableFuture<Void> onAsync(ServoPwmPiPwm io, float dutyCycle);
+
+    /**
+     * Set the PWM counter steps at which the PWM signal of a PWM pin is
+     * switched on and off without waiting for the I2C transaction.
+     *
+     * @param io PWM pin to update
+     * @param onTick PWM counter step of the rising edge (range: 0-4095)
+     * @param offTick PWM counter step of the falling edge (range: 0-4095)
+     * @return future that completes when the LEDn registers are written or
+     *         completes exceptionally if I2C communication fails
+     */
+    CompletableFuture<Void> setTicksAsync(ServoPwmPiPwm io, int onTick, int offTick) throws IllegalArgumentException;
+
     /**
      * Turn the PWM signal [OFF] by applying a zero frequency and zero duty-cycle to the PWM pin.
      *
@@ -55,6 +112,288 @@ public interface ServoPwmPiDevice  {
      */
     void off(ServoPwmPiPwm io) throws IOException;
 
+    /**
+     * Set LEDn_ON and LEDn_OFF counts of several PWM pins at once.
+     * <p>
+     *  The selected PWM pins are written as contiguous LEDn register blocks
+     *  starting at {@link SERVOPWMPI#LED0_ON_L}. If all 16 PWM pins are
+     *  selected, the whole board is updated in a single I2C transaction.
+     *  Otherwise one I2C transaction per run of adjacent PWM pins is used.
+     *
+     * @param channelMask PWM pins to update, one bit per PWM pin (LED0 = bit 0)
+     * @param onCounts LEDn_ON counts indexed by PWM pin address (range: 0-4095,
+     *                 {@link SERVOPWMPI#LED_FULL_MASK} for full ON)
+     * @param offCounts LEDn_OFF counts indexed by PWM pin address (range: 0-4095,
+     *                  {@link SERVOPWMPI#LED_FULL_MASK} for full OFF)
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void setChannels(int channelMask, int[] onCounts, int[] offCounts) throws IOException, IllegalArgumentException;
+
+    /**
+     * Turn the PWM signals of several PWM pins [ON] using the specified duty-cycles (%)
+     * <p>
+     *  The phase-shift of initialised PWM pins is applied. The selected PWM pins
+     *  are written as contiguous LEDn register blocks, see
+     *  {@link #setChannels(int, int[], int[])}.
+     *
+     * @param channelMask PWM pins to update, one bit per PWM pin (LED0 = bit 0)
+     * @param dutyCycles duty-cycle values indexed by PWM pin address, expressed
+     *                   as a percentage (range: 0-100)
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void setChannels(int channelMask, float[] dutyCycles) throws IOException, IllegalArgumentException;
+
+    /**
+     * Get the number of PWM pin updates that have been skipped, because the
+     * LEDn registers already held the requested counts.
+     * <p>
+     *  LEDn register writes are checked against the LEDn register shadow of
+     *  the device: unchanged PWM pins are not written at all and changed
+     *  PWM pins are written starting at the first and ending at the last
+     *  changed register.
+     *
+     * @return number of skipped PWM pin updates
+     */
+    long getElidedWriteCount();
+
+    /**
+     * Get the I2C traffic metrics of this board: transactions and bytes,
+     * failed transactions, write latency and I2C bus wait time
+     *
+     * @return {@link ServoPwmPiMetrics} of this board
+     */
+    ServoPwmPiMetrics getMetrics();
+
+    /**
+     * Get the end-to-end command latency tracing of this board: queueing
+     * delay, bus time and total latency of PWM pin commands
+     *
+     * @return {@link ServoPwmPiLatencyTracer} of this board (disabled by default)
+     */
+    ServoPwmPiLatencyTracer getLatencyTracer();
+
+    /**
+     * Get the number of LEDn register bytes that have not been transmitted,
+     * because they already held the requested value.
+     *
+     * @return number of skipped LEDn register bytes
+     */
+    long getElidedByteCount();
+
+    /**
+     * Get I2C group address of this board
+     * <p>
+     * refer to {@link {@value com.pi4j.plugin.addonboard.servopwmpizero.SERVOPWMPIZERO#DATASHEET}
+     *
+     * @param group group address register (SUBADR1 - SUBADR3, ALLCALLADR)
+     * @return 7-bit I2C group address
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    int getGroupAddress(SERVOPWMPI.GroupAddress group) throws IOException;
+
+    /**
+     * Set I2C group address of this board
+     * <p>
+     *  The board responds to the group address only if it has been
+     *  {@link #setGroupAddressEnabled(SERVOPWMPI.GroupAddress, boolean) enabled}.
+     *  Please note that the board does not keep group addresses during power-off.
+     *
+     * @param group group address register (SUBADR1 - SUBADR3, ALLCALLADR)
+     * @param address 7-bit I2C group address
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void setGroupAddress(SERVOPWMPI.GroupAddress group, int address) throws IOException, IllegalArgumentException;
+
+    /**
+     * Check if this board responds to an I2C group address
+     *
+     * @param group group address (SUBADR1 - SUBADR3, ALLCALLADR)
+     * @return true if the Mode 1 register SUBx or ALLCALL bit is set
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    boolean isGroupAddressEnabled(SERVOPWMPI.GroupAddress group) throws IOException;
+
+    /**
+     * Enable or disable response to an I2C group address
+     * <p>
+     *  Enabled group addresses are kept when the Mode 1 register is reset to
+     *  its defaults.
+     *
+     * @param group group address (SUBADR1 - SUBADR3, ALLCALLADR)
+     * @param enable true to set the Mode 1 register SUBx or ALLCALL bit
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void setGroupAddressEnabled(SERVOPWMPI.GroupAddress group, boolean enable) throws IOException;
+
+    /**
+     * Update the LEDn register shadow after a group write
+     * <p>
+     *  Writes to an I2C group address bypass the board's own I2C address.
+     *  Group handles report the written LEDn registers so that subsequent
+     *  writes of this board can skip unchanged registers.
+     *
+     * @param channelMask written PWM pins, one bit per PWM pin (LED0 = bit 0)
+     * @param registers LED0_ON_L ... LED15_OFF_H register values indexed by register offset
+     */
+    void updateLedRegisterShadow(int channelMask, byte[] registers);
+
+    /**
+     * Get allocation of auto-configured phase-shifts
+     *
+     * @return current {@link SERVOPWMPI.PhaseAllocation}
+     */
+    SERVOPWMPI.PhaseAllocation getPhaseAllocation();
+
+    /**
+     * Set allocation of auto-configured phase-shifts
+     * <p>
+     *  With {@link SERVOPWMPI.PhaseAllocation#STAGGERED STAGGERED} allocation
+     *  PWM pins without explicit phase-shift are placed by a board-level
+     *  allocator that spreads HIGH periods and switching edges evenly across
+     *  the 4096-step PWM frame. A PWM pin is placed again whenever its
+     *  duty-cycle changes; other PWM pins keep their phase-shift.
+     *  PWM pins with explicit phase-shift or LEDn counts are taken into
+     *  account as fixed load. The new allocation applies to subsequent
+     *  updates of the PWM pins.
+     *
+     * @param allocation new {@link SERVOPWMPI.PhaseAllocation}
+     */
+    void setPhaseAllocation(SERVOPWMPI.PhaseAllocation allocation);
+
+    /**
+     * Place all PWM pins with auto-configured phase-shift again and write
+     * the LEDn registers of PWM pins whose phase-shift changed
+     * <p>
+     *  Incremental placement may become uneven after many duty-cycle
+     *  changes. Has no effect unless phase allocation is
+     *  {@link SERVOPWMPI.PhaseAllocation#STAGGERED STAGGERED}.
+     *
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void rebalancePhases() throws IOException;
+
+    /**
+     * Get phase-shift assigned to a PWM pin by the phase allocator
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return phase-shift in PWM counter steps or -1 if not assigned by the phase allocator
+     */
+    int getAllocatedPhaseShiftTicks(int channel);
+
+    /**
+     * Get the maximum number of PWM pins that are HIGH at the same time
+     * as tracked by the phase allocator (resolution: 64 PWM counter steps)
+     *
+     * @return peak number of HIGH PWM pins
+     */
+    int getPeakChannelLoad();
+
+    /**
+     * Get the I2C bus arbiter shared by all Servo PWM Pi boards on the I2C bus
+     * of this board
+     *
+     * @return {@link ServoPwmPiBus} arbiter
+     */
+    ServoPwmPiBus getBus();
+
+    /**
+     * Get I2C bus priority of this board
+     *
+     * @return bus priority (higher values are served first)
+     */
+    int getBusPriority();
+
+    /**
+     * Set I2C bus priority of this board
+     * <p>
+     *  The priority is used if the I2C bus arbiter applies
+     *  {@link SERVOPWMPI.BusArbitration#PRIORITY PRIORITY} arbitration.
+     *
+     * @param priority bus priority (higher values are served first)
+     */
+    void setBusPriority(int priority);
+
+    /**
+     * Perform several operations on this board while holding the I2C bus
+     * <p>
+     *  Transactions of other boards on the same I2C bus are not interleaved
+     *  with the transactions of the operations.
+     *
+     * @param operations operations to perform
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void batch(Runnable operations) throws IOException;
+
+    /**
+     * Get LEDn register write mode
+     *
+     * @return current {@link SERVOPWMPI.WriteMode}
+     */
+    SERVOPWMPI.WriteMode getWriteMode();
+
+    /**
+     * Set LEDn register write mode
+     * <p>
+     *  In {@link SERVOPWMPI.WriteMode#WRITE_BEHIND WRITE_BEHIND} mode
+     *  'on()', 'off()', 'setOnTicks()', 'setTicks()' and 'setChannels()'
+     *  stage the LEDn counts in a latest-value-wins slot per PWM pin and return
+     *  immediately. The timer thread of the I2C bus writes the staged LEDn counts
+     *  of a board in one block write; setpoints replaced before being written
+     *  are dropped. I2C communication failures are reported to completion
+     *  futures of the asynchronous methods and logged by the timer thread.
+     *  Leaving write-behind mode writes all staged LEDn counts.
+     *  <p>
+     *  In {@link SERVOPWMPI.WriteMode#COMBINING COMBINING} mode the same methods
+     *  stage the LEDn counts and wait for the I2C bus lock. The thread that
+     *  gets the lock writes the staged LEDn counts of all waiting callers in
+     *  one block write; callers whose LEDn counts have been written meanwhile
+     *  return without I2C communication. Methods return after the LEDn
+     *  registers have been written and throw if that block write failed.
+     *
+     * @param mode new {@link SERVOPWMPI.WriteMode}
+     * @throws IOException if writing staged LEDn counts fails
+     */
+    void setWriteMode(SERVOPWMPI.WriteMode mode) throws IOException;
+
+    /**
+     * Write all LEDn counts staged in write-behind mode in the calling thread
+     *
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void flushPendingUpdates() throws IOException;
+
+    /**
+     * Get number of setpoints dropped in write-behind mode because a newer
+     * setpoint of the same PWM pin replaced them before they were written
+     *
+     * @return number of superseded LEDn register writes
+     */
+    long getSupersededWriteCount();
+
+    /**
+     * Set LEDn_ON and LEDn_OFF counts of all PWM pins at once using the
+     * ALL_LED_ON and ALL_LED_OFF registers (single I2C transaction).
+     *
+     * @param onCount LEDn_ON count (range: 0-4095, {@link SERVOPWMPI#LED_FULL_MASK} for full ON)
+     * @param offCount LEDn_OFF count (range: 0-4095, {@link SERVOPWMPI#LED_FULL_MASK} for full OFF)
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void allSet(int onCount, int offCount) throws IOException, IllegalArgumentException;
+
+    /**
+     * Turn all PWM pins full OFF using the ALL_LED registers (single I2C transaction).
+     *
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void allOff() throws IOException;
+
+    /**
+     * Turn all PWM pins full ON using the ALL_LED registers (single I2C transaction).
+     *
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    void allFullOn() throws IOException;
+
     /**
      *  Set the frequency value in Hertz (number of cycles per second)
      *  that the PWM signal generator should use when the PWM signal is turned 'ON'.
@@ -62,11 +401,108 @@ public interface ServoPwmPiDevice  {
      *  Note: This method will immediately update the live PWM signal of all PWM oins
      *  of the Servo PWM Pi board. PWM frequency change of individual PWM pins'
      *  is not supported by Servo PWM Pi boards.
+     *  The change is performed after running asynchronous frequency changes
+     *  of the board. The I2C bus is not held while the oscillator settles,
+     *  i. e. callers holding the I2C bus, e. g. within {@link #batch(Runnable)},
+     *  have to use {@link #setFrequencyAsync(int)}.
+     *
+     * @param frequency the number of cycles per second (Hertz)
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     * @throws IllegalStateException if the calling thread holds the I2C bus
+     */
+    void setFrequency(int frequency) throws IOException, IllegalArgumentException, IllegalStateException;
+
+    /**
+     *  Set the PWM frequency without blocking the calling thread.
+     *  <p>
+     *  PRE_SCALE is programmed in SLEEP mode by the calling thread. The
+     *  restart of all PWM pins after the oscillator has settled (5 ms) is
+     *  performed on the timer thread of the I2C bus. Synchronous and
+     *  asynchronous frequency changes of a board are performed in call order. Boards reconfigured one after the
+     *  other with this method settle in parallel.
      *
      * @param frequency the number of cycles per second (Hertz)
+     * @return future that completes after the PWM pins have been restarted with the new PWM frequency
+     */
+    CompletableFuture<Void> setFrequencyAsync(int frequency) throws IllegalArgumentException;
+
+    /**
+     *  Check a PWM frequency against the frequency range of the oscillator
+     *  clock of this board without changing the PWM frequency.
+     *
+     * @param frequency the number of cycles per second (Hertz)
+     * @throws IllegalArgumentException if the frequency is not supported by this board
+     */
+    void checkFrequency(int frequency) throws IllegalArgumentException;
+
+    /**
+     *  Set the PRE_SCALE register value directly, e. g. as chosen by a
+     *  {@link ServoPwmPiFrequencyPlan frequency plan}. The requested PWM
+     *  frequency becomes the actual PWM frequency of the PRE_SCALE value.
+     *  Like {@link #setFrequency(int)} not supported while holding the I2C bus.
+     *
+     * @param preScale PRE_SCALE register value (range: 3 - 255)
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     * @throws IllegalStateException if the calling thread holds the I2C bus
+     */
+    void setPreScale(int preScale) throws IOException, IllegalArgumentException, IllegalStateException;
+
+    /**
+     *  Get the oscillator clock used for PWM frequency computation: the
+     *  corrected internal oscillator or the external clock.
+     *
+     * @return oscillator clock in Hz
+     */
+    double getOscillatorClock();
+
+    /**
+     *  Get the lowest PWM frequency supported by the oscillator clock of this
+     *  board (internal oscillator: 40 Hz).
+     *
+     * @return lowest PWM frequency in Hz
+     */
+    int getMinFrequency();
+
+    /**
+     *  Get the highest PWM frequency supported by the oscillator clock of this
+     *  board (internal oscillator: 1 kHz).
+     *
+     * @return highest PWM frequency in Hz
+     */
+    int getMaxFrequency();
+
+    /**
+     *  Switch the PWM controller to the clock at its EXTCLK pin.
+     *  <p>
+     *  The Mode 1 register EXTCLK bit is set while the internal oscillator is
+     *  off (SLEEP mode). EXTCLK is sticky: the PWM controller keeps using the
+     *  external clock until power-off or a software reset. The PRE_SCALE
+     *  register is reprogrammed for the external clock to keep the requested
+     *  PWM frequency, if that frequency is supported by the external clock.
+     *  Boards fed from the same external clock run phase-coherent.
+     *  Calling this method again updates the clock frequency used for
+     *  PRE_SCALE computation. The switch is performed after pending
+     *  {@link #setFrequencyAsync(int) asynchronous frequency changes}.
+     *
+     * @param clockFrequency frequency of the external clock in Hz (range: up to 50 MHz)
      * @throws IOException if fails to communicate with the Servo PWM Pi board
+     * @throws IllegalStateException if the calling thread holds the I2C bus
+     */
+    void enableExternalClock(double clockFrequency) throws IOException, IllegalArgumentException, IllegalStateException;
+
+    /**
+     *  Check if the PWM controller uses the clock at its EXTCLK pin
+     *
+     * @return true if the Mode 1 register EXTCLK bit is set
      */
-    void setFrequency(int frequency) throws IOException, IllegalArgumentException;
+    boolean isExternalClock();
+
+    /**
+     *  Get the frequency of the external clock at the EXTCLK pin
+     *
+     * @return external clock frequency in Hz or 0 if the internal oscillator is used
+     */
+    double getExternalClock();
 
     /**
      *  Get the configured frequency value in Hertz (number of cycles per second)
@@ -100,6 +536,49 @@ public interface ServoPwmPiDevice  {
      */
     int getActualFrequency() throws IOException;
 
+    /**
+     *  Get the number of PWM counter steps per microsecond of the actual PWM
+     *  frequency as 16.16 fixed-point value, i. e. a pulse of n microseconds
+     *  lasts (n * scale + 0x8000) &gt;&gt; 16 PWM counter steps. The value is
+     *  cached and updated whenever the PWM frequency configuration is read
+     *  or changed.
+     *
+     * @return PWM counter steps per microsecond (16.16 fixed-point)
+     */
+    int getPulseScale();
+
+    /**
+     *  Get the oscillator correction factor of this board, i. e. the ratio
+     *  of the actual to the nominal internal oscillator clock (25 MHz).
+     *
+     * @return oscillator correction factor (1.0: nominal oscillator clock)
+     */
+    double getOscillatorCorrection();
+
+    /**
+     *  Set the oscillator correction factor of this board. The internal
+     *  oscillator of the PCA9685 deviates from its nominal clock by several
+     *  percent. The corrected clock is used for the actual PWM frequency, the
+     *  PRE_SCALE value of subsequent frequency changes and the pulse scale.
+     *  The PRE_SCALE register is not changed. The correction is ignored while
+     *  the PWM controller uses an {@link #enableExternalClock(double) external clock}.
+     *
+     * @param correction oscillator correction factor (range: 0.85 - 1.15)
+     */
+    void setOscillatorCorrection(double correction) throws IllegalArgumentException;
+
+    /**
+     *  Derive and set the oscillator correction factor from a measured PWM
+     *  frequency, e. g. measured with an oscilloscope or a frequency counter
+     *  at a PWM pin of this board. Only the internal oscillator can be
+     *  calibrated.
+     *
+     * @param measuredFrequency measured PWM frequency in Hz at the current PRE_SCALE setting
+     * @return new oscillator correction factor
+     * @throws IllegalStateException if the PWM controller uses an {@link #enableExternalClock(double) external clock}
+     */
+    double calibrateOscillator(double measuredFrequency) throws IllegalArgumentException, IllegalStateException;
+
     /**
      * Switch Servo PWM Pi oscillator off (SLEEP mode)
      */
@@ -132,6 +611,75 @@ public interface ServoPwmPiDevice  {
      */
     void setModeRegisterDefaults() throws IOException;
 
+    /**
+     * Check if Servo PWM Pi register auto-increment (AI) mode is enabled
+     * <p>
+     *  In auto-increment mode the four LEDn_ON_L/ON_H/OFF_L/OFF_H registers of
+     *  a PWM pin are written in one I2C transaction instead of four.
+     *
+     * @return true if register auto-increment mode is enabled
+     */
+    boolean isAutoIncrement();
+
+    /**
+     * Enable or disable Servo PWM Pi register auto-increment (AI) mode
+     * <p>
+     *  The AI bit of the Mode 1 register is kept across calls of
+     *  {@link #setModeRegisterDefaults()}. Auto-increment mode is enabled by default.
+     * <p>
+     * refer to {@link {@value com.pi4j.plugin.addonboard.servopwmpizero.SERVOPWMPIZERO#DATASHEET}
+     *
+     * @param enable true to enable register auto-increment mode
+     * @throws IOException
+     */
+    void setAutoIncrement(boolean enable) throws IOException;
+
+    /**
+     * Get the control register (MODE1, MODE2, PRE_SCALE) cache policy
+     *
+     * @return a {@link SERVOPWMPI.RegisterCachePolicy} object
+     */
+    SERVOPWMPI.RegisterCachePolicy getRegisterCachePolicy();
+
+    /**
+     * Set the control register (MODE1, MODE2, PRE_SCALE) cache policy
+     * <p>
+     *  Control registers are cached write-through. Depending on the policy,
+     *  register reads are served from the cache
+     *  ({@link SERVOPWMPI.RegisterCachePolicy#CACHED CACHED}), re-read from
+     *  the Servo PWM Pi board once the {@link #setRegisterRevalidateInterval
+     *  revalidate interval} has expired
+     *  ({@link SERVOPWMPI.RegisterCachePolicy#REVALIDATE REVALIDATE}) or always
+     *  read from the board ({@link SERVOPWMPI.RegisterCachePolicy#UNCACHED UNCACHED}).
+     *  Default policy is {@link SERVOPWMPI.RegisterCachePolicy#CACHED CACHED}.
+     *
+     * @param policy control register cache policy
+     */
+    void setRegisterCachePolicy(SERVOPWMPI.RegisterCachePolicy policy);
+
+    /**
+     * Get the control register cache revalidate interval
+     *
+     * @return revalidate interval in milliseconds
+     */
+    long getRegisterRevalidateInterval();
+
+    /**
+     * Set the control register cache revalidate interval used by cache policy
+     * {@link SERVOPWMPI.RegisterCachePolicy#REVALIDATE REVALIDATE}
+     *
+     * @param millis revalidate interval in milliseconds
+     */
+    void setRegisterRevalidateInterval(long millis) throws IllegalArgumentException;
+
+    /**
+     * Invalidate cached control registers and the LEDn register shadow.
+     * The next read access of each control register is served by the
+     * Servo PWM Pi board and the next update of each PWM pin writes all
+     * of its LEDn registers.
+     */
+    void invalidateRegisterCache();
+
     /**
      * Set Servo PWM Pi output polarity mode (INVRT)
      * <p>
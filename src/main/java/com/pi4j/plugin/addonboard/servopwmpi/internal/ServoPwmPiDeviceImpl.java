@@ -7,12 +7,35 @@ import com.pi4j.exception.ShutdownException;
 import com.pi4j.io.exception.IOException;
 import com.pi4j.io.i2c.I2C;
 import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPi;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiBus;
 import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import jdk.jfr.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
 
+    // JFR transaction event type, checked before allocating an event per I2C transaction
+    private static final EventType I2C_TRANSACTION_EVENT = EventType.getEventType(ServoPwmPiI2CTransactionEvent.class);
+
+    // JFR event types of frequency, mode register and sleep changes, checked before allocating an event
+    private static final EventType FREQUENCY_CHANGE_EVENT = EventType.getEventType(ServoPwmPiFrequencyChangeEvent.class);
+    private static final EventType MODE_REGISTER_EVENT = EventType.getEventType(ServoPwmPiModeRegisterEvent.class);
+    private static final EventType SLEEP_EVENT = EventType.getEventType(ServoPwmPiSleepEvent.class);
+
     // local/internal I2C reference for communication with hardware chip
     protected final I2C i2c;
+
+    // arbiter of the I2C bus shared with all Servo PWM Pi boards on the same bus
+    protected final ServoPwmPiBus bus;
+
+    // I2C bus priority of this board
+    private volatile int bus_priority = DEFAULT_BUS_PRIORITY;
     
     // PWM frequency (same for all PWM outputs)
     private int requested_pwm_frequency = DEFAULT_PWM_FREQUENCY;
@@ -20,6 +43,90 @@ public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
     // PWM frequency (same for all PWM outputs)
     private int actual_pwm_frequency = DEFAULT_PWM_FREQUENCY;
 
+    // oscillator correction and corrected oscillator clock in Hz
+    private volatile double oscillator_correction = 1.0;
+    private volatile double oscillator_clock = FREQ_OSC_CLOCK;
+
+    // external clock at EXTCLK pin in Hz (0: internal oscillator)
+    private volatile double external_clock = 0;
+
+    // last asynchronous PWM frequency change (guarded by frequency lock)
+    private final Object frequency_lock = new Object();
+    private CompletableFuture<Void> frequency_change = null;
+
+    // PWM channels stopped by the running frequency change, restarted after the oscillator settled (guarded by bus lock)
+    private boolean restart_pending = false;
+
+    // last read or written PRE_SCALE register value
+    private volatile byte pre_scale_value = DEFAULT_PRE_SCALE;
+
+    // PWM counter steps per microsecond of the actual PWM frequency (16.16 fixed-point)
+    private volatile int pulse_scale = preScaleToPulseScale(DEFAULT_PRE_SCALE);
+
+    // Register auto-increment (AI) mode: LEDn registers are written in one I2C transaction
+    private volatile boolean auto_increment = true;
+
+    // enabled I2C group addresses: Mode 1 register SUB1, SUB2, SUB3 and ALLCALL bits
+    private volatile byte group_address_bits = 0;
+
+    // ALL_LED_ON_L, ALL_LED_ON_H, ALL_LED_OFF_L, ALL_LED_OFF_H write buffer (guarded by bus lock)
+    private final byte[] led_buffer = new byte[LED_REGISTER_COUNT];
+
+    // LED0_ON_L ... LED15_OFF_H block write buffer (guarded by bus lock)
+    private final byte[] block_buffer = new byte[LED_REGISTER_COUNT * PWM_CHANNEL_COUNT];
+
+    // LEDn_ON and LEDn_OFF counts of setChannels(int, float[]) (guarded by bus lock)
+    private final int[] block_on_counts = new int[PWM_CHANNEL_COUNT];
+    private final int[] block_off_counts = new int[PWM_CHANNEL_COUNT];
+
+    // LED0_ON_L ... LED15_OFF_H register shadow: last values written (guarded by bus lock)
+    private final byte[] led_registers = new byte[LED_REGISTER_COUNT * PWM_CHANNEL_COUNT];
+    // PWM pins with known LEDn register contents, one bit per PWM pin (guarded by bus lock)
+    private int led_counts_valid = 0;
+
+    // LEDn register write elision statistics (updated under bus lock)
+    private volatile long elided_writes = 0;
+    private volatile long elided_bytes = 0;
+
+    // control register (MODE1, MODE2, PRE_SCALE) shadow cache (guarded by bus lock)
+    private static final int CACHE_MODE_1 = 0;
+    private static final int CACHE_MODE_2 = 1;
+    private static final int CACHE_PRE_SCALE = 2;
+    private final byte[] register_cache = new byte[3];
+    private final long[] register_cache_timestamps = new long[3];
+    private int register_cache_valid = 0;
+    private RegisterCachePolicy register_cache_policy = RegisterCachePolicy.CACHED;
+    private long register_revalidate_interval = TimeUnit.MILLISECONDS.toNanos(DEFAULT_REGISTER_REVALIDATE_INTERVAL);
+
+    // initialised PWM pins
+    private final ServoPwmPiPwm[] pwm_pins = new ServoPwmPiPwm[PWM_CHANNEL_COUNT];
+
+    // allocation of auto-configured phase-shifts
+    private volatile PhaseAllocation phase_allocation = PhaseAllocation.DUTY_CYCLE;
+    private final ServoPwmPiPhaseAllocator phase_allocator = new ServoPwmPiPhaseAllocator();
+
+    // LEDn register write mode (changed under device lock)
+    private volatile WriteMode write_mode = WriteMode.DIRECT;
+
+    // staged LEDn counts of write-behind mode
+    private final ServoPwmPiChannelSlots pending = new ServoPwmPiChannelSlots();
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    // I2C traffic metrics
+    private final ServoPwmPiMetrics metrics = new ServoPwmPiMetrics();
+
+    // optional end-to-end command latency tracing
+    private final ServoPwmPiLatencyTracer tracer = new ServoPwmPiLatencyTracer();
+
+    // bus wait time of the last acquisition, reported by the next JFR transaction event (guarded by bus lock)
+    private long lock_wait = 0;
+
+    // drain buffers of combining callers and write-behind timer tasks (guarded by bus lock)
+    private final int[] drain_on_counts = new int[PWM_CHANNEL_COUNT];
+    private final int[] drain_off_counts = new int[PWM_CHANNEL_COUNT];
+    private final CompletableFuture<?>[] drain_waiting = new CompletableFuture<?>[PWM_CHANNEL_COUNT];
+
     /**
      * Constructor
      * @param i2c
@@ -27,315 +134,1967 @@ public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
     public ServoPwmPiDeviceImpl(I2C i2c){
         // set local reference to I2C instance
         this.i2c = i2c;
+        this.bus = ServoPwmPiBus.acquire(i2c.bus());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void initialize(Context context) throws InitializeException {
+        byte pre_scale;
+        
+        // atomic operation to configure chip registers
+        lockBus();
+        try {
+            // Registers may have been changed while not under control of this device
+            invalidateRegisterCache();
+
+            // EXTCLK survives until power-off or software reset, take clock frequency from configuration
+            if ((readControlRegister(REGISTER_MODE_1, "initialize") & EXTCLK_MASK) != 0 && this.external_clock == 0) {
+                this.external_clock = configuredExternalClock(context);
+                updateOscillatorClock();
+            }
+
+            // Detect current ServoPWM Pi PWM frequency settings
+            pre_scale = readControlRegister(REGISTER_PRE_SCALE, "initialize");
+            applyPreScale(pre_scale);
+            if (pre_scale != DEFAULT_PRE_SCALE) {
+                this.requested_pwm_frequency = this.actual_pwm_frequency;
+            } else {
+                this.requested_pwm_frequency = DEFAULT_PWM_FREQUENCY;
+            }
+
+            /**
+             * Servo PWM Pi board does not keep Mpde 1/2 register settings
+             * during power-off. Initialize mode defaults here:
+             */
+            writeControlRegister(REGISTER_MODE_1, modeRegister1Defaults());
+            writeControlRegister(REGISTER_MODE_2, MODE_2_DEFAULT);
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /**
+     * Clock frequency of a latched EXTCLK input from the context properties
+     * <p>
+     *  The frequency for this board
+     *  (<code>servopwmpizero.external-clock.0x40</code>) takes precedence
+     *  over the frequency for all boards
+     *  (<code>servopwmpizero.external-clock</code>). Without configuration
+     *  the EXTCLK input is assumed to run at the internal oscillator frequency.
+     */
+    private double configuredExternalClock(Context context) throws InitializeException {
+        String key = ServoPwmPi.SERVOPWMPIZERO_EXTERNAL_CLOCK_KEY + String.format(".0x%x", this.i2c.device());
+        String value;
+        double frequency;
+
+        if (!context.properties().has(key)) {
+            key = ServoPwmPi.SERVOPWMPIZERO_EXTERNAL_CLOCK_KEY;
+        }
+        value = context.properties().get(key, null);
+        if (value == null) {
+            logger.warn(String.format("initialize(): EXTCLK of Servo PWM Pi board 0x%x already enabled, but %s not configured: assuming %.0f Hz",
+                    this.i2c.device(), ServoPwmPi.SERVOPWMPIZERO_EXTERNAL_CLOCK_KEY, FREQ_OSC_CLOCK));
+            return FREQ_OSC_CLOCK;
+        }
+        try {
+            frequency = Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InitializeException("initialize(): invalid external clock " + key + "=" + value);
+        }
+        if (!(frequency > 0 && frequency <= MAX_EXTERNAL_CLOCK)) {
+            throw new InitializeException("initialize(): external clock " + key + "=" + value + " out of range (up to "
+                    + String.format("%.0f", MAX_EXTERNAL_CLOCK / 1000000.0) + " MHz)");
+        }
+        return frequency;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void initialize(ServoPwmPiPwm io) throws InitializeException {
+        int address = io.getAddress();
+
+        if (address < 0 || address > 15) {
+            throw new InitializeException("initialize(): Configured PWM sddress (LED" + String.format("%d", address) + ") is out of range (LED0 - LED16)");
+        }
+        this.pwm_pins[address] = io;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void shutdown(ServoPwmPiPwm io, Context context) throws ShutdownException {
+        int address = io.getAddress();
+
+        if (address >= 0 && address < PWM_CHANNEL_COUNT && this.pwm_pins[address] == io) {
+            this.pwm_pins[address] = null;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void shutdown(Context context) throws ShutdownException {
+        // write staged LEDn counts of write-behind mode
+        try {
+            setWriteMode(WriteMode.DIRECT);
+        } catch (Pi4JException e) {
+            throw new ShutdownException(e);
+        } finally {
+            this.bus.release();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void on(ServoPwmPiPwm io, float dutyCycle) throws IOException {
+        int counts;
+
+        counts = pinLedCounts(io.address(), dutyCycleToSteps(dutyCycle), io.getPhaseShiftTicks());
+        try {
+            submitLedRegisters(io.address(), counts >>> 16, counts & 0xFFFF, null);
+        } catch (Pi4JException e) {
+            if (this.i2c != null) {
+                throw new InitializeException("ServoPwmPiDeviceImpl::on() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
+            } else {
+                throw new InitializeException("ServoPwmPiDeviceImpl::on() I2C connection to Servo PWM Pi device not configured");
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setOnTicks(ServoPwmPiPwm io, int onTicks) throws IOException, IllegalArgumentException {
+        int counts;
+
+        if (onTicks < 0 || onTicks > PWM_STEPS) {
+            throw new IllegalArgumentException("setOnTicks(): PWM counter steps (" + String.format("%d", onTicks) + ") out of range (0 - " + String.format("%d", PWM_STEPS) + ")");
+        }
+        counts = pinLedCounts(io.address(), onTicks, io.getPhaseShiftTicks());
+        try {
+            submitLedRegisters(io.address(), counts >>> 16, counts & 0xFFFF, null);
+        } catch (Pi4JException e) {
+            if (this.i2c != null) {
+                throw new InitializeException("ServoPwmPiDeviceImpl::setOnTicks() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
+            } else {
+                throw new InitializeException("ServoPwmPiDeviceImpl::setOnTicks() I2C connection to Servo PWM Pi device not configured");
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setTicks(ServoPwmPiPwm io, int onTick, int offTick) throws IOException, IllegalArgumentException {
+        if (onTick < 0 || onTick >= PWM_STEPS || offTick < 0 || offTick >= PWM_STEPS) {
+            throw new IllegalArgumentException("setTicks(): PWM counter steps out of range (0 - " + String.format("%d", PWM_STEPS - 1) + ")");
+        }
+        reserveLedCounts(io.address(), onTick, offTick);
+        try {
+            submitLedRegisters(io.address(), onTick, offTick, null);
+        } catch (Pi4JException e) {
+            if (this.i2c != null) {
+                throw new InitializeException("ServoPwmPiDeviceImpl::setTicks() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
+            } else {
+                throw new InitializeException("ServoPwmPiDeviceImpl::setTicks() I2C connection to Servo PWM Pi device not configured");
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> onAsync(ServoPwmPiPwm io, float dutyCycle) {
+        int counts = pinLedCounts(io.address(), dutyCycleToSteps(dutyCycle), io.getPhaseShiftTicks());
+
+        return submitLedRegistersAsync(io.address(), counts >>> 16, counts & 0xFFFF, "onAsync");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> setTicksAsync(ServoPwmPiPwm io, int onTick, int offTick) throws IllegalArgumentException {
+        if (onTick < 0 || onTick >= PWM_STEPS || offTick < 0 || offTick >= PWM_STEPS) {
+            throw new IllegalArgumentException("setTicksAsync(): PWM counter steps out of range (0 - " + String.format("%d", PWM_STEPS - 1) + ")");
+        }
+        reserveLedCounts(io.address(), onTick, offTick);
+        return submitLedRegistersAsync(io.address(), onTick, offTick, "setTicksAsync");
+    }
+
+    /**
+     * Convert PWM counter steps of a PWM pin into LEDn_ON and LEDn_OFF counts
+     * <p>
+     *  With {@link SERVOPWMPI.PhaseAllocation#STAGGERED STAGGERED} phase
+     *  allocation an auto-configured phase-shift is assigned by the phase
+     *  allocator, an explicit phase-shift is reserved in the allocator's load
+     *  profile.
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param on_steps number of PWM counter steps the PWM signal is HIGH per period
+     * @param phaseTicks switch-on delay in PWM counter steps or a negative value for auto-configuration
+     * @return LEDn_ON count in the upper and LEDn_OFF count in the lower 16 bits
+     */
+    private int pinLedCounts(int channel, int on_steps, int phaseTicks) {
+        if (this.phase_allocation == PhaseAllocation.STAGGERED) {
+            if (phaseTicks < 0) {
+                phaseTicks = this.phase_allocator.allocate(channel, on_steps);
+            } else {
+                this.phase_allocator.reserve(channel, phaseTicks, on_steps);
+            }
+        }
+        return ledCounts(on_steps, phaseTicks);
+    }
+
+    /**
+     * Reserve explicit LEDn_ON and LEDn_OFF counts of a PWM pin in the phase allocator
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param on_value LEDn_ON count (including full ON bit)
+     * @param off_value LEDn_OFF count (including full OFF bit)
+     */
+    private void reserveLedCounts(int channel, int on_value, int off_value) {
+        if (this.phase_allocation != PhaseAllocation.STAGGERED) {
+            return;
+        }
+        if ((off_value & LED_FULL_MASK) != 0) {
+            this.phase_allocator.release(channel);
+        } else if ((on_value & LED_FULL_MASK) != 0) {
+            this.phase_allocator.reserve(channel, 0, PWM_STEPS);
+        } else {
+            this.phase_allocator.reserve(channel, on_value, (off_value - on_value) & (PWM_STEPS - 1));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PhaseAllocation getPhaseAllocation() {
+        return this.phase_allocation;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setPhaseAllocation(PhaseAllocation allocation) {
+        int offset;
+
+        lockBus();
+        try {
+            if (allocation == PhaseAllocation.STAGGERED && this.phase_allocation != allocation) {
+                this.phase_allocation = allocation;
+                // current LEDn register contents are the initial load profile
+                for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                    if ((this.led_counts_valid & (1 << channel)) != 0) {
+                        offset = LED_REGISTER_COUNT * channel;
+                        reserveLedCounts(channel,
+                                (this.led_registers[offset] & 0xFF) | ((this.led_registers[offset + 1] & 0xFF) << 8),
+                                (this.led_registers[offset + 2] & 0xFF) | ((this.led_registers[offset + 3] & 0xFF) << 8));
+                    } else {
+                        this.phase_allocator.release(channel);
+                    }
+                }
+            }
+            this.phase_allocation = allocation;
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void rebalancePhases() throws IOException {
+        int mask;
+
+        if (this.phase_allocation != PhaseAllocation.STAGGERED) {
+            return;
+        }
+        lockBus();
+        try {
+            mask = this.phase_allocator.rebalance(this.block_on_counts, this.block_off_counts);
+            if (mask != 0) {
+                writeChannels(mask, this.block_on_counts, this.block_off_counts);
+            }
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getAllocatedPhaseShiftTicks(int channel) {
+        if (this.phase_allocation != PhaseAllocation.STAGGERED) {
+            return -1;
+        }
+        return this.phase_allocator.getOffset(channel);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getPeakChannelLoad() {
+        return this.phase_allocator.getPeakLoad();
+    }
+
+    /**
+     * Convert duty-cycle into PWM counter steps
+     *
+     * @param dutyCycle duty-cycle value expressed as a percentage (range: 0-100)
+     * @return number of PWM counter steps the PWM signal is HIGH per period
+     */
+    static int dutyCycleToSteps(float dutyCycle) {
+        int on_steps = Math.round(dutyCycle * PWM_STEPS_PER_PERCENT);
+
+        if (on_steps < 0) {
+            return 0;
+        }
+        return Math.min(on_steps, PWM_STEPS);
+    }
+
+    /**
+     * Convert PWM counter steps and phase-shift into LEDn_ON and LEDn_OFF counts
+     *
+     * @param on_steps number of PWM counter steps the PWM signal is HIGH per period
+     * @param phaseTicks switch-on delay in PWM counter steps (range: 0-4095)
+     *                   or a negative value to let the device choose the phase-shift
+     * @return LEDn_ON count in the upper and LEDn_OFF count in the lower 16 bits
+     */
+    static int ledCounts(int on_steps, int phaseTicks) {
+        int on_value;
+        int off_value;
+
+        switch(on_steps) {
+            case PWM_STEPS:
+                on_value = LED_FULL_MASK;
+                off_value = 0;
+                break;
+            case 0:
+                on_value = 0;
+                off_value = LED_FULL_MASK;
+                break;
+            default:
+                /*
+                 * on_value is phase-shift, i. e. switch-on delay
+                 * If phase-shift has not benn defined, we use on time for
+                 * phase-shift to reduce EMI
+                 */
+                if (phaseTicks < 0) {
+                    on_value = on_steps - 1;
+                } else {
+                    on_value = phaseTicks;
+                }
+                if (on_value + on_steps >= PWM_STEPS) {
+                    /*
+                     * LEDn_ON > LEDn_OFF:
+                     * LEDn_OFF count starts in subsequent PWM frame
+                     */
+                    off_value = on_value + on_steps - PWM_STEPS;
+                } else {
+                    /*
+                     * LEDn_ON < LEDn_OFF:
+                     * LEDn_OFF count starts in same PWM frame
+                     */
+                    off_value = on_value + on_steps;
+                }
+                break;
+        }
+        return (on_value << 16) | off_value;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void off(ServoPwmPiPwm io) throws IOException {
+        int on_value = 0;
+        int off_value = 0x1000;
+        
+        reserveLedCounts(io.address(), on_value, off_value);
+        try {
+            submitLedRegisters(io.address(), on_value, off_value, null);
+        } catch (Pi4JException e) {
+            if (this.i2c != null) {
+                throw new InitializeException("ServoPwmPiDeviceImpl::off() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
+            } else {
+                throw new InitializeException("ServoPwmPiDeviceImpl::off() I2C connection to Servo PWM Pi device not configured");
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setChannels(int channelMask, int[] onCounts, int[] offCounts) throws IOException, IllegalArgumentException {
+        int mask = channelMask & ALL_CHANNELS_MASK;
+
+        if (onCounts.length < PWM_CHANNEL_COUNT || offCounts.length < PWM_CHANNEL_COUNT) {
+            throw new IllegalArgumentException("setChannels(): LEDn_ON and LEDn_OFF counts of all " + String.format("%d", PWM_CHANNEL_COUNT) + " PWM pins required");
+        }
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((mask & (1 << channel)) != 0) {
+                if (onCounts[channel] < 0 || onCounts[channel] > LED_COUNT_MAX
+                        || offCounts[channel] < 0 || offCounts[channel] > LED_COUNT_MAX) {
+                    throw new IllegalArgumentException("setChannels(): LEDn_ON/LEDn_OFF counts of PWM pin LED" + String.format("%d", channel) + " out of range");
+                }
+            }
+        }
+        if (mask == 0) {
+            return;
+        }
+        this.tracer.enterChannels(mask);
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((mask & (1 << channel)) != 0) {
+                reserveLedCounts(channel, onCounts[channel], offCounts[channel]);
+            }
+        }
+        writeChannels(mask, onCounts, offCounts);
+    }
+
+    /**
+     * Write or stage LEDn_ON and LEDn_OFF counts of several PWM pins
+     *
+     * @param channelMask PWM pins to update, one bit per PWM pin (LED0 = bit 0)
+     * @param onCounts LEDn_ON counts indexed by PWM pin address
+     * @param offCounts LEDn_OFF counts indexed by PWM pin address
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    private void writeChannels(int channelMask, int[] onCounts, int[] offCounts) throws IOException {
+        try {
+            submitLedBlocks(channelMask, onCounts, offCounts);
+        } catch (Pi4JException e) {
+            if (this.i2c != null) {
+                throw new InitializeException("ServoPwmPiDeviceImpl::setChannels() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
+            } else {
+                throw new InitializeException("ServoPwmPiDeviceImpl::setChannels() I2C connection to Servo PWM Pi device not configured");
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setChannels(int channelMask, float[] dutyCycles) throws IOException, IllegalArgumentException {
+        int mask = channelMask & ALL_CHANNELS_MASK;
+        int counts;
+        ServoPwmPiPwm io;
+
+        if (dutyCycles.length < PWM_CHANNEL_COUNT) {
+            throw new IllegalArgumentException("setChannels(): duty-cycles of all " + String.format("%d", PWM_CHANNEL_COUNT) + " PWM pins required");
+        }
+        this.tracer.enterChannels(mask);
+        // bus lock is reentrant, writeChannels() may acquire it again
+        lockBus();
+        try {
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                if ((mask & (1 << channel)) != 0) {
+                    io = this.pwm_pins[channel];
+                    counts = pinLedCounts(channel, dutyCycleToSteps(dutyCycles[channel]), (io != null) ? io.getPhaseShiftTicks() : -1);
+                    this.block_on_counts[channel] = counts >>> 16;
+                    this.block_off_counts[channel] = counts & 0xFFFF;
+                }
+            }
+            if (mask != 0) {
+                writeChannels(mask, this.block_on_counts, this.block_off_counts);
+            }
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void allSet(int onCount, int offCount) throws IOException, IllegalArgumentException {
+        int[] on_counts = null;
+        int[] off_counts = null;
+        CompletableFuture<?>[] waiting = null;
+        int superseded = 0;
+        InitializeException error = null;
+
+        if (onCount < 0 || onCount > LED_COUNT_MAX || offCount < 0 || offCount > LED_COUNT_MAX) {
+            throw new IllegalArgumentException("allSet(): ALL_LED_ON/ALL_LED_OFF counts out of range");
+        }
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            reserveLedCounts(channel, onCount, offCount);
+        }
+        if (this.pending.isDirty()) {
+            on_counts = new int[PWM_CHANNEL_COUNT];
+            off_counts = new int[PWM_CHANNEL_COUNT];
+            waiting = new CompletableFuture<?>[PWM_CHANNEL_COUNT];
+        }
+        lockBus();
+        try {
+            // ALL_LED registers supersede staged LEDn counts of write-behind and combining mode
+            if (waiting != null) {
+                superseded = this.pending.drain(on_counts, off_counts, waiting);
+            }
+            try {
+                this.led_buffer[0] = (byte) (onCount & 0xFF);
+                this.led_buffer[1] = (byte) (onCount >> 8);
+                this.led_buffer[2] = (byte) (offCount & 0xFF);
+                this.led_buffer[3] = (byte) (offCount >> 8);
+                if (this.auto_increment) {
+                    i2cWrite(ALL_LED_ON_L, this.led_buffer, 0, LED_REGISTER_COUNT);
+                } else {
+                    for (int i = 0; i < LED_REGISTER_COUNT; i++) {
+                        i2cWrite(ALL_LED_ON_L + i, this.led_buffer[i]);
+                    }
+                }
+                /*
+                 * ALL_LED registers load the LEDn registers of all PWM pins
+                 */
+                for (int offset = 0; offset < this.led_registers.length; offset += LED_REGISTER_COUNT) {
+                    System.arraycopy(this.led_buffer, 0, this.led_registers, offset, LED_REGISTER_COUNT);
+                }
+                this.led_counts_valid = ALL_CHANNELS_MASK;
+            } catch (Pi4JException e) {
+                error = i2cFailure("allSet");
+            }
+            if (waiting != null) {
+                this.pending.finish(error);
+            }
+        } finally {
+            this.bus.unlock();
+        }
+        if (superseded != 0) {
+            this.tracer.discard(superseded);
+            ServoPwmPiChannelSlots.complete(superseded, waiting, error);
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void allOff() throws IOException {
+        allSet(0, LED_FULL_MASK);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void allFullOn() throws IOException {
+        allSet(LED_FULL_MASK, 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ServoPwmPiBus getBus() {
+        return this.bus;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getBusPriority() {
+        return this.bus_priority;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setBusPriority(int priority) {
+        this.bus_priority = priority;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void batch(Runnable operations) throws IOException {
+        lockBus();
+        try {
+            operations.run();
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public WriteMode getWriteMode() {
+        return this.write_mode;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setWriteMode(WriteMode mode) throws IOException {
+        WriteMode previous;
+
+        lockBus();
+        try {
+            previous = this.write_mode;
+            this.write_mode = mode;
+            if (previous == WriteMode.WRITE_BEHIND && mode != previous) {
+                // leaving write-behind mode
+                flushPendingUpdates();
+            }
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void flushPendingUpdates() throws IOException {
+        if (this.pending.isDirty()) {
+            writePendingUpdates(new int[PWM_CHANNEL_COUNT], new int[PWM_CHANNEL_COUNT], new CompletableFuture<?>[PWM_CHANNEL_COUNT]);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getSupersededWriteCount() {
+        return this.pending.getSupersededCount();
+    }
+
+    /**
+     * Write or stage LEDn_ON and LEDn_OFF counts of a PWM pin depending on write mode
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param on_value LEDn_ON count (including full ON bit)
+     * @param off_value LEDn_OFF count (including full OFF bit)
+     * @param future completion future of the LEDn counts or null
+     */
+    private void submitLedRegisters(int channel, int on_value, int off_value, CompletableFuture<Void> future) {
+        if (this.write_mode == WriteMode.WRITE_BEHIND) {
+            if (this.pending.post(channel, on_value, off_value, future)) {
+                scheduleWriteBehind();
+            }
+        } else if (this.write_mode == WriteMode.COMBINING) {
+            awaitCombined(this.pending.postCombining(channel, on_value, off_value, future));
+        } else {
+            writeLedRegisters(channel, on_value, off_value);
+            if (future != null) {
+                future.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Write or stage LEDn_ON and LEDn_OFF counts of a PWM pin and return a completion future
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param on_value LEDn_ON count (including full ON bit)
+     * @param off_value LEDn_OFF count (including full OFF bit)
+     * @param method calling method for error reporting
+     * @return future that completes when the LEDn registers are written
+     */
+    private CompletableFuture<Void> submitLedRegistersAsync(int channel, int on_value, int off_value, String method) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        try {
+            submitLedRegisters(channel, on_value, off_value, future);
+        } catch (Pi4JException e) {
+            future.completeExceptionally(i2cFailure(method));
+        }
+        return future;
+    }
+
+    /**
+     * Write or stage LEDn_ON and LEDn_OFF counts of several PWM pins depending on write mode
+     *
+     * @param channelMask PWM pins to write, one bit per PWM pin (LED0 = bit 0)
+     * @param onCounts LEDn_ON counts indexed by PWM pin address
+     * @param offCounts LEDn_OFF counts indexed by PWM pin address
+     */
+    private void submitLedBlocks(int channelMask, int[] onCounts, int[] offCounts) {
+        boolean schedule = false;
+
+        if (this.write_mode == WriteMode.WRITE_BEHIND) {
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                if ((channelMask & (1 << channel)) != 0) {
+                    schedule |= this.pending.post(channel, onCounts[channel], offCounts[channel], null);
+                }
+            }
+            if (schedule) {
+                scheduleWriteBehind();
+            }
+        } else if (this.write_mode == WriteMode.COMBINING) {
+            awaitCombined(this.pending.postCombining(channelMask, onCounts, offCounts));
+        } else {
+            writeLedBlocks(channelMask, onCounts, offCounts);
+        }
+    }
+
+    /**
+     * Write the staged LEDn counts of write-behind mode on the timer thread of the I2C bus
+     * <p>
+     *  The board is scheduled once when its first LEDn counts are staged;
+     *  the timer task writes all LEDn counts staged until then in one block write.
+     */
+    private void scheduleWriteBehind() {
+        this.bus.schedule(() -> {
+            lockBus();
+            try {
+                writePendingUpdates(this.drain_on_counts, this.drain_off_counts, this.drain_waiting);
+            } catch (Pi4JException e) {
+                logger.warn(String.format("[servopwmpi-timer-%d]: write-behind of LEDn registers failed: %s", this.bus.getBus(), e.getMessage()));
+            } finally {
+                this.bus.unlock();
+            }
+        }, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Wait until the staged LEDn counts of a combining caller are written
+     * <p>
+     *  The caller waits for the I2C bus lock. If no other thread has written
+     *  the batch of the caller meanwhile, the caller becomes the combiner and
+     *  writes the staged LEDn counts of all waiting callers in one block write.
+     *
+     * @param ticket ticket of the combining caller
+     * @throws InitializeException if I2C communication of the batch failed
+     */
+    private void awaitCombined(long ticket) throws InitializeException {
+        Throwable error;
+
+        lockBus();
+        try {
+            if (!this.pending.isCompleted(ticket)) {
+                try {
+                    writePendingUpdates(this.drain_on_counts, this.drain_off_counts, this.drain_waiting);
+                } catch (InitializeException e) {
+                    // reported to all callers of the batch by takeFailure()
+                }
+            }
+            error = this.pending.takeFailure(ticket);
+        } finally {
+            this.bus.unlock();
+        }
+        if (error != null) {
+            throw (InitializeException) error;
+        }
+    }
+
+    /**
+     * Write all staged LEDn counts of write-behind and combining mode in one block write
+     * <p>
+     *  Completion futures of the staged LEDn counts are completed after the
+     *  I2C transaction, exceptionally if it failed.
+     *
+     * @param onCounts LEDn_ON count buffer indexed by PWM pin address
+     * @param offCounts LEDn_OFF count buffer indexed by PWM pin address
+     * @param waiting completion future buffer indexed by PWM pin address
+     * @throws InitializeException if I2C communication with the Servo PWM Pi board fails
+     */
+    private void writePendingUpdates(int[] onCounts, int[] offCounts, CompletableFuture<?>[] waiting) throws InitializeException {
+        int mask;
+        InitializeException error = null;
+
+        lockBus();
+        try {
+            mask = this.pending.drain(onCounts, offCounts, waiting);
+            if (mask != 0) {
+                try {
+                    writeLedBlocks(mask, onCounts, offCounts);
+                } catch (Pi4JException e) {
+                    error = i2cFailure("writePendingUpdates");
+                }
+            }
+            this.pending.finish(error);
+        } finally {
+            this.bus.unlock();
+        }
+        ServoPwmPiChannelSlots.complete(mask, waiting, error);
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Create exception for failed I2C communication
+     *
+     * @param method failed method
+     * @return a {@link InitializeException} object
+     */
+    private InitializeException i2cFailure(String method) {
+        if (this.i2c != null) {
+            return new InitializeException("ServoPwmPiDeviceImpl::" + method + "() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
+        } else {
+            return new InitializeException("ServoPwmPiDeviceImpl::" + method + "() I2C connection to Servo PWM Pi device not configured");
+        }
+    }
+
+    /**
+     * Acquire the I2C bus and record the wait time of non-reentrant acquisitions
+     */
+    private void lockBus() {
+        if (this.bus.isHeldByCurrentThread()) {
+            this.bus.lock(this.bus_priority);
+        } else {
+            this.lock_wait = this.bus.lock(this.bus_priority);
+            this.metrics.recordLockWait(this.lock_wait);
+        }
+    }
+
+    /**
+     * Begin a JFR transaction event, null if the event type is disabled
+     */
+    private static ServoPwmPiI2CTransactionEvent beginTransaction() {
+        ServoPwmPiI2CTransactionEvent event;
+
+        if (!I2C_TRANSACTION_EVENT.isEnabled()) {
+            return null;
+        }
+        event = new ServoPwmPiI2CTransactionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit a JFR transaction event if enabled (caller must hold bus lock)
+     */
+    private void commitTransaction(ServoPwmPiI2CTransactionEvent event, boolean write, int register, int length, boolean failed) {
+        if (event != null && event.shouldCommit()) {
+            event.bus = this.bus.getBus();
+            event.address = this.i2c.device();
+            event.write = write;
+            event.firstRegister = register;
+            event.lastRegister = register + length - 1;
+            event.bytes = length;
+            event.lockWait = this.lock_wait;
+            event.failed = failed;
+            event.commit();
+            this.lock_wait = 0;
+        }
+    }
+
+    /**
+     * Write consecutive registers in one I2C transaction (caller must hold bus lock)
+     */
+    private void i2cWrite(int register, byte[] data, int offset, int length) {
+        ServoPwmPiI2CTransactionEvent event = beginTransaction();
+        long start;
+
+        start = System.nanoTime();
+        try {
+            this.i2c.writeRegister(register, data, offset, length);
+        } catch (RuntimeException e) {
+            this.metrics.recordFailure();
+            commitTransaction(event, true, register, length, true);
+            throw e;
+        }
+        this.metrics.recordWrite(length, System.nanoTime() - start);
+        commitTransaction(event, true, register, length, false);
+    }
+
+    /**
+     * Write a register in one I2C transaction (caller must hold bus lock)
+     */
+    private void i2cWrite(int register, byte value) {
+        ServoPwmPiI2CTransactionEvent event = beginTransaction();
+        long start;
+
+        start = System.nanoTime();
+        try {
+            this.i2c.writeRegister(register, value);
+        } catch (RuntimeException e) {
+            this.metrics.recordFailure();
+            commitTransaction(event, true, register, 1, true);
+            throw e;
+        }
+        this.metrics.recordWrite(1, System.nanoTime() - start);
+        commitTransaction(event, true, register, 1, false);
+    }
+
+    /**
+     * Read a register in one I2C transaction (caller must hold bus lock)
+     */
+    private int i2cRead(int register) {
+        ServoPwmPiI2CTransactionEvent event = beginTransaction();
+        int value;
+
+        try {
+            value = this.i2c.readRegister(register);
+        } catch (RuntimeException e) {
+            this.metrics.recordFailure();
+            commitTransaction(event, false, register, 1, true);
+            throw e;
+        }
+        this.metrics.recordRead(1);
+        commitTransaction(event, false, register, 1, false);
+        return value;
+    }
+
+    /**
+     * Write LEDn_ON and LEDn_OFF registers of several PWM pins
+     *
+     * @param channelMask PWM pins to write, one bit per PWM pin (LED0 = bit 0)
+     * @param onCounts LEDn_ON counts indexed by PWM pin address
+     * @param offCounts LEDn_OFF counts indexed by PWM pin address
+     */
+    private void writeLedBlocks(int channelMask, int[] onCounts, int[] offCounts) {
+        long acquired;
+
+        lockBus();
+        try {
+            acquired = this.tracer.acquired();
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                if ((channelMask & (1 << channel)) != 0) {
+                    putLedCounts(channel, onCounts[channel], offCounts[channel]);
+                }
+            }
+            flushTracedLedRegisters(channelMask, acquired);
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /**
+     * Write LEDn_ON and LEDn_OFF registers of a PWM pin
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param on_value LEDn_ON count (including full ON bit)
+     * @param off_value LEDn_OFF count (including full OFF bit)
+     */
+    private void writeLedRegisters(int channel, int on_value, int off_value) {
+        long acquired;
+
+        lockBus();
+        try {
+            acquired = this.tracer.acquired();
+            putLedCounts(channel, on_value, off_value);
+            flushTracedLedRegisters(1 << channel, acquired);
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /**
+     * Write staged LEDn registers of several PWM pins and record the latency
+     * of their traced commands (caller must hold bus lock)
+     *
+     * @param channelMask PWM pins to write, one bit per PWM pin (LED0 = bit 0)
+     * @param acquired I2C bus acquisition time, 0 if tracing is disabled
+     */
+    private void flushTracedLedRegisters(int channelMask, long acquired) {
+        try {
+            flushLedRegisters(channelMask);
+        } catch (RuntimeException e) {
+            this.tracer.discard(channelMask);
+            throw e;
+        }
+        this.tracer.complete(channelMask, acquired);
+    }
+
+    /**
+     * Stage LEDn_ON and LEDn_OFF counts of a PWM pin in the block write buffer
+     * (caller must hold bus lock)
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param on_value LEDn_ON count (including full ON bit)
+     * @param off_value LEDn_OFF count (including full OFF bit)
+     */
+    private void putLedCounts(int channel, int on_value, int off_value) {
+        int offset = LED_REGISTER_COUNT * channel;
+
+        this.block_buffer[offset] = (byte) (on_value & 0xFF);
+        this.block_buffer[offset + 1] = (byte) (on_value >> 8);
+        this.block_buffer[offset + 2] = (byte) (off_value & 0xFF);
+        this.block_buffer[offset + 3] = (byte) (off_value >> 8);
+    }
+
+    /**
+     * Write staged LEDn registers of several PWM pins (caller must hold bus lock)
+     * <p>
+     *  PWM pins whose LEDn registers already hold the staged values are
+     *  skipped. In auto-increment mode each remaining run of adjacent PWM pins
+     *  is written as one block in a single I2C transaction, trimmed to the
+     *  first and last changed register; runs separated by a few unchanged PWM
+     *  pins are joined into one block. Otherwise only changed registers are
+     *  written, one at a time.
+     *  The LEDn register shadow is not trusted with register cache policy
+     *  {@link SERVOPWMPI.RegisterCachePolicy#UNCACHED UNCACHED}.
+     *
+     * @param channelMask PWM pins to write, one bit per PWM pin (LED0 = bit 0)
+     */
+    private void flushLedRegisters(int channelMask) {
+        int known;
+        int first;
+        int last;
+        int start;
+        int end;
+
+        known = (this.register_cache_policy != RegisterCachePolicy.UNCACHED) ? this.led_counts_valid : 0;
+        // drop PWM pins without any change
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((channelMask & known & (1 << channel)) != 0 && ledRegistersUnchanged(channel)) {
+                channelMask &= ~(1 << channel);
+                this.elided_writes++;
+                this.elided_bytes += LED_REGISTER_COUNT;
+            }
+        }
+        if (this.auto_increment) {
+            channelMask = bridgeLedBlocks(channelMask, known);
+        }
+        first = 0;
+        while (first < PWM_CHANNEL_COUNT) {
+            if ((channelMask & (1 << first)) == 0) {
+                first++;
+                continue;
+            }
+            // find end of run of adjacent PWM pins
+            last = first;
+            while (last + 1 < PWM_CHANNEL_COUNT && (channelMask & (1 << (last + 1))) != 0) {
+                last++;
+            }
+            start = LED_REGISTER_COUNT * first;
+            end = LED_REGISTER_COUNT * (last + 1);
+            if (this.auto_increment) {
+                // trim unchanged registers at both ends of the block
+                if ((known & (1 << first)) != 0) {
+                    while (this.block_buffer[start] == this.led_registers[start]) {
+                        start++;
+                    }
+                }
+                if ((known & (1 << last)) != 0) {
+                    while (this.block_buffer[end - 1] == this.led_registers[end - 1]) {
+                        end--;
+                    }
+                }
+                this.elided_bytes += (LED_REGISTER_COUNT * (last - first + 1)) - (end - start);
+                i2cWrite(LED0_ON_L + start, this.block_buffer, start, end - start);
+            } else {
+                for (int i = start; i < end; i++) {
+                    if ((known & (1 << (i / LED_REGISTER_COUNT))) != 0 && this.block_buffer[i] == this.led_registers[i]) {
+                        this.elided_bytes++;
+                    } else {
+                        i2cWrite(LED0_ON_L + i, this.block_buffer[i]);
+                    }
+                }
+            }
+            System.arraycopy(this.block_buffer, LED_REGISTER_COUNT * first, this.led_registers, LED_REGISTER_COUNT * first, LED_REGISTER_COUNT * (last - first + 1));
+            for (int channel = first; channel <= last; channel++) {
+                this.led_counts_valid |= (1 << channel);
+            }
+            first = last + 1;
+        }
+    }
+
+    /**
+     * Join runs of PWM pins separated by a few unchanged PWM pins into one
+     * block (caller must hold bus lock)
+     * <p>
+     *  An I2C transaction costs more than rewriting up to
+     *  {@link SERVOPWMPI#LED_BLOCK_BRIDGE_CHANNELS} unchanged PWM pins. The
+     *  LEDn registers of bridged PWM pins are staged from the LEDn register
+     *  shadow, i. e. only PWM pins with known LEDn registers are bridged.
+     *
+     * @param channelMask PWM pins to write, one bit per PWM pin (LED0 = bit 0)
+     * @param known PWM pins with valid LEDn register shadow
+     * @return PWM pins to write including bridged PWM pins
+     */
+    private int bridgeLedBlocks(int channelMask, int known) {
+        int last = -1;
+        int gap;
+        int bridge;
+
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((channelMask & (1 << channel)) == 0) {
+                continue;
+            }
+            gap = channel - last - 1;
+            if (last >= 0 && gap > 0 && gap <= LED_BLOCK_BRIDGE_CHANNELS) {
+                bridge = ((1 << channel) - 1) & ~((1 << (last + 1)) - 1);
+                if ((bridge & known) == bridge) {
+                    System.arraycopy(this.led_registers, LED_REGISTER_COUNT * (last + 1), this.block_buffer, LED_REGISTER_COUNT * (last + 1), LED_REGISTER_COUNT * gap);
+                    channelMask |= bridge;
+                }
+            }
+            last = channel;
+        }
+        return channelMask;
+    }
+
+    /**
+     * Check if staged LEDn registers of a PWM pin match the LEDn register shadow
+     * (caller must hold bus lock)
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return true if the staged LEDn registers are already written
+     */
+    private boolean ledRegistersUnchanged(int channel) {
+        int offset = LED_REGISTER_COUNT * channel;
+
+        for (int i = offset; i < offset + LED_REGISTER_COUNT; i++) {
+            if (this.block_buffer[i] != this.led_registers[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ServoPwmPiMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ServoPwmPiLatencyTracer getLatencyTracer() {
+        return this.tracer;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getElidedWriteCount() {
+        return this.elided_writes;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getElidedByteCount() {
+        return this.elided_bytes;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getActualFrequency() throws IOException {
+        refreshPwmFrequencyConfiguration();
+        return this.actual_pwm_frequency;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getFrequency() throws IOException {
+        refreshPwmFrequencyConfiguration();
+        return this.requested_pwm_frequency;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setFrequency(int frequency) throws IOException, IllegalArgumentException, IllegalStateException {
+        checkFrequency(frequency, "setFrequency");
+        checkBusNotHeld("setFrequency");
+        awaitFrequencyChange(requestFrequencyChange(() -> startFrequencyChange(frequency, -1, false)), "setFrequency");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setPreScale(int preScale) throws IOException, IllegalArgumentException, IllegalStateException {
+        if (preScale < MIN_PRE_SCALE || preScale > MAX_PRE_SCALE) {
+            throw new IllegalArgumentException("setPreScale(): PRE_SCALE value (" + String.format("%d", preScale) + ") out of range ("
+                    + String.format("%d - %d", MIN_PRE_SCALE, MAX_PRE_SCALE) + ")");
+        }
+        checkBusNotHeld("setPreScale");
+        awaitFrequencyChange(requestFrequencyChange(() -> startFrequencyChange(preScaleToFrequency((byte) preScale), preScale, false)), "setPreScale");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getOscillatorClock() {
+        return this.oscillator_clock;
+    }
+
+    /**
+     * Reject synchronous PWM frequency changes of callers holding the I2C bus
+     * <p>
+     *  The oscillator settle time would block all boards on the I2C bus and a
+     *  running asynchronous change could not be completed by the timer thread.
+     */
+    private void checkBusNotHeld(String method) throws IllegalStateException {
+        if (this.bus.isHeldByCurrentThread()) {
+            throw new IllegalStateException(method + "(): PWM frequency change not supported while holding I2C bus "
+                    + String.format("%d", this.bus.getBus()) + ", use setFrequencyAsync()");
+        }
+    }
+
+    /**
+     * Wait for a PWM frequency change of a synchronous caller
+     *
+     * @param change future of the PWM frequency change
+     * @param method calling method
+     */
+    private void awaitFrequencyChange(CompletableFuture<Void> change, String method) throws IOException {
+        try {
+            change.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw i2cFailure(method);
+        }
+    }
+
+    /**
+     * Begin a JFR frequency change event, null if the event type is disabled
+     */
+    private static ServoPwmPiFrequencyChangeEvent beginFrequencyChangeEvent() {
+        ServoPwmPiFrequencyChangeEvent event;
+
+        if (!FREQUENCY_CHANGE_EVENT.isEnabled()) {
+            return null;
+        }
+        event = new ServoPwmPiFrequencyChangeEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit a JFR frequency change event if enabled
+     */
+    private void commitFrequencyChange(ServoPwmPiFrequencyChangeEvent event, int frequency, boolean asynchronous) {
+        if (event != null && event.shouldCommit()) {
+            event.bus = this.bus.getBus();
+            event.address = this.i2c.device();
+            event.requestedFrequency = frequency;
+            event.actualFrequency = this.actual_pwm_frequency;
+            event.preScale = this.pre_scale_value & 0xFF;
+            event.asynchronous = asynchronous;
+            event.commit();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> setFrequencyAsync(int frequency) throws IllegalArgumentException {
+        checkFrequency(frequency, "setFrequencyAsync");
+        return requestFrequencyChange(() -> startFrequencyChange(frequency, -1, true));
+    }
+
+    /**
+     * Queue a PWM frequency or oscillator clock change behind running changes
+     * of this board
+     * <p>
+     *  Synchronous and asynchronous frequency changes and the switch to an
+     *  external clock are performed in call order. The oscillator settles on
+     *  the timer thread of the I2C bus, i. e. the I2C bus is not held while
+     *  waiting.
+     *
+     * @param change starts the change and returns its future
+     * @return future that completes after the PWM channels have been restarted
+     */
+    private CompletableFuture<Void> requestFrequencyChange(Supplier<CompletableFuture<Void>> change) {
+        CompletableFuture<Void> previous;
+
+        synchronized (this.frequency_lock) {
+            previous = this.frequency_change;
+            if (previous == null || previous.isDone()) {
+                this.frequency_change = change.get();
+            } else {
+                this.frequency_change = previous.handle((v, e) -> (Void) null).thenCompose((v) -> change.get());
+            }
+            return this.frequency_change;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void checkFrequency(int frequency) throws IllegalArgumentException {
+        checkFrequency(frequency, "setFrequencyAsync");
+    }
+
+    /**
+     * Check requested PWM frequency against the range of the oscillator clock
+     */
+    private void checkFrequency(int frequency, String method) throws IllegalArgumentException {
+        if (frequency < getMinFrequency() || frequency > getMaxFrequency()) {
+            throw new IllegalArgumentException(method + "(): Requested frequency (" + String.format("%d", frequency) + " Hz) out of range ("
+                    + String.format("%d Hz - %d Hz", getMinFrequency(), getMaxFrequency()) + ")");
+        }
+    }
+
+    /**
+     * Start a PWM frequency change, restart the PWM channels on the timer
+     * thread of the I2C bus after the oscillator has settled
+     * @param frequency requested PWM frequency
+     * @param preScale PRE_SCALE value or a negative value to derive it from the frequency
+     * @param asynchronous true if the caller does not wait for the change
+     * @return future that completes after the PWM channels have been restarted
+     */
+    private CompletableFuture<Void> startFrequencyChange(int frequency, int preScale, boolean asynchronous) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        ServoPwmPiFrequencyChangeEvent event;
+        String method = asynchronous ? "setFrequencyAsync" : (preScale < 0) ? "setFrequency" : "setPreScale";
+        byte pre_scale;
+
+        /*
+         * Oscillator clock may have changed since the last frequency change,
+         * e. g. by oscillator calibration: compare PRE_SCALE values
+         */
+        pre_scale = (preScale < 0) ? frequencyToPreScale(frequency) : (byte) preScale;
+        if (pre_scale == this.pre_scale_value) {
+            this.requested_pwm_frequency = frequency;
+            future.complete(null);
+            return future;
+        }
+        event = beginFrequencyChangeEvent();
+        try {
+            beginFrequencyChange(pre_scale, method);
+        } catch (Pi4JException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        this.bus.schedule(() -> {
+            try {
+                completeFrequencyChange(frequency, method);
+                commitFrequencyChange(event, frequency, asynchronous);
+                future.complete(null);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, OSCILLATOR_SETTLE_TIME, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    /**
+     * Program new PRE_SCALE value in SLEEP mode and wake-up the PWM controller
+     * @param pre_scale new PRE_SCALE value
+     * @param method calling method
+     */
+    private void beginFrequencyChange(byte pre_scale, String method) throws IOException {
+        byte currentMode1State;
+
+        lockBus();
+        try {
+            currentMode1State = readControlRegister(REGISTER_MODE_1, method);
+            this.restart_pending = (currentMode1State & SLEEP_MASK) == 0;
+            /*
+             * Switch oscillator off (SLEEP mode)
+             */
+            this.sleep();
+            /*
+             * Set new PWM frequency and wake-up PWM controller
+             */
+            writeControlRegister(REGISTER_PRE_SCALE, pre_scale);
+            writeControlRegister(REGISTER_MODE_1, currentMode1State);
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /**
+     * Restart all PWM channels after the oscillator has settled
+     * <p>
+     *  Mode 1 may have been changed while the I2C bus was released: the
+     *  current Mode 1 value is used and the PWM channels are only restarted
+     *  if the PWM controller has not been put to sleep meanwhile.
+     * @param frequency requested PWM frequency
+     * @param method calling method
+     */
+    private void completeFrequencyChange(int frequency, String method) throws IOException {
+        byte currentMode1State;
+
+        lockBus();
+        try {
+            currentMode1State = readControlRegister(REGISTER_MODE_1, method);
+            if (this.restart_pending && (currentMode1State & SLEEP_MASK) == 0) {
+                /*
+                 * Restart all PWM channels with new frequency:
+                 * PWM controller will automatically clear RESTART bit after restart
+                 */
+                writeControlRegister(REGISTER_MODE_1, (byte) (currentMode1State | RESTART_ENABLE_MASK));
+            }
+            this.restart_pending = false;
+            this.requested_pwm_frequency = frequency;
+            applyPreScale(readControlRegister(REGISTER_PRE_SCALE, method));
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getMinFrequency() {
+        if (this.external_clock == 0) {
+            return MIN_PWM_FREQUENCY;
+        }
+        return (int) Math.ceil(this.external_clock / 4096.0 / (MAX_PRE_SCALE + 1));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getMaxFrequency() {
+        if (this.external_clock == 0) {
+            return MAX_PWM_FREQUENCY;
+        }
+        return (int) Math.floor(this.external_clock / 4096.0 / (MIN_PRE_SCALE + 1));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void enableExternalClock(double clockFrequency) throws IOException, IllegalArgumentException, IllegalStateException {
+        if (!(clockFrequency > 0 && clockFrequency <= MAX_EXTERNAL_CLOCK)) {
+            throw new IllegalArgumentException("enableExternalClock(): external clock (" + String.format("%.0f", clockFrequency) + " Hz) out of range (up to "
+                    + String.format("%.0f", MAX_EXTERNAL_CLOCK / 1000000.0) + " MHz)");
+        }
+        checkBusNotHeld("enableExternalClock");
+        awaitFrequencyChange(requestFrequencyChange(() -> startExternalClock(clockFrequency)), "enableExternalClock");
+    }
+
+    /**
+     * Switch the PWM controller to an external clock, restart the PWM channels
+     * on the timer thread of the I2C bus after the oscillator has settled
+     * @param clockFrequency external clock frequency
+     * @return future that completes after the PWM channels have been restarted
+     */
+    private CompletableFuture<Void> startExternalClock(double clockFrequency) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        int frequency;
+
+        try {
+            frequency = beginExternalClock(clockFrequency);
+        } catch (Pi4JException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        this.bus.schedule(() -> {
+            try {
+                completeFrequencyChange(frequency, "enableExternalClock");
+                future.complete(null);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, OSCILLATOR_SETTLE_TIME, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    /**
+     * Set EXTCLK and program the PRE_SCALE value for the external clock in
+     * SLEEP mode, then wake-up the PWM controller
+     * @param clockFrequency external clock frequency
+     * @return PWM frequency kept with the external clock
+     */
+    private int beginExternalClock(double clockFrequency) throws IOException {
+        byte currentMode1State;
+        int frequency;
+
+        lockBus();
+        try {
+            currentMode1State = (byte) (readControlRegister(REGISTER_MODE_1, "enableExternalClock") & RESTART_DISABLE_MASK);
+            this.restart_pending = (currentMode1State & SLEEP_MASK) == 0;
+            /*
+             * EXTCLK can only be set in SLEEP mode: switch internal oscillator
+             * off first, then write SLEEP and EXTCLK bits together
+             */
+            writeControlRegister(REGISTER_MODE_1, (byte) (currentMode1State | SLEEP_MASK));
+            writeControlRegister(REGISTER_MODE_1, (byte) (currentMode1State | SLEEP_MASK | EXTCLK_MASK));
+            this.external_clock = clockFrequency;
+            updateOscillatorClock();
+            /*
+             * PRE_SCALE can only be written in SLEEP mode: keep requested PWM
+             * frequency if supported by the external clock
+             */
+            frequency = Math.max(getMinFrequency(), Math.min(getMaxFrequency(), this.requested_pwm_frequency));
+            writeControlRegister(REGISTER_PRE_SCALE, frequencyToPreScale(frequency));
+            writeControlRegister(REGISTER_MODE_1, (byte) (currentMode1State | EXTCLK_MASK));
+        } finally {
+            this.bus.unlock();
+        }
+        return frequency;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isExternalClock() {
+        return this.external_clock != 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getExternalClock() {
+        return this.external_clock;
+    }
+
+    /**
+     * Fetch current PWM frequency settings from the PWM controller
+     */
+    private void refreshPwmFrequencyConfiguration () throws IOException {
+        byte pre_scale;
+        
+        pre_scale = readControlRegister(REGISTER_PRE_SCALE, "refreshPwmFrequencyConfiguration");
+        applyPreScale(pre_scale);
+        if (pre_scale == DEFAULT_PRE_SCALE) {
+            this.requested_pwm_frequency = DEFAULT_PWM_FREQUENCY;
+        } else {
+            this.requested_pwm_frequency = this.actual_pwm_frequency;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getPulseScale() {
+        return this.pulse_scale;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getOscillatorCorrection() {
+        return this.oscillator_correction;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setOscillatorCorrection(double correction) throws IllegalArgumentException {
+        if (!(correction >= MIN_OSCILLATOR_CORRECTION && correction <= MAX_OSCILLATOR_CORRECTION)) {
+            throw new IllegalArgumentException("setOscillatorCorrection(): oscillator correction (" + String.format("%.4f", correction) + ") out of range ("
+                    + String.format("%.2f", MIN_OSCILLATOR_CORRECTION) + " - " + String.format("%.2f", MAX_OSCILLATOR_CORRECTION) + ")");
+        }
+        lockBus();
+        try {
+            this.oscillator_correction = correction;
+            updateOscillatorClock();
+            // PRE_SCALE register is unchanged, derived values follow the corrected clock
+            applyPreScale(this.pre_scale_value);
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double calibrateOscillator(double measuredFrequency) throws IllegalArgumentException, IllegalStateException {
+        double correction;
+
+        if (!(measuredFrequency > 0)) {
+            throw new IllegalArgumentException("calibrateOscillator(): measured PWM frequency must be positive");
+        }
+        if (this.external_clock != 0) {
+            throw new IllegalStateException("calibrateOscillator(): PWM controller uses external clock ("
+                    + String.format("%.0f", this.external_clock) + " Hz), internal oscillator cannot be calibrated");
+        }
+        correction = measuredFrequency * 4096.0 * ((this.pre_scale_value & 0xFF) + 1) / FREQ_OSC_CLOCK;
+        setOscillatorCorrection(correction);
+        return correction;
+    }
+
+    /**
+     * Select the clock used for PRE_SCALE computation: external clock or
+     * corrected internal oscillator
+     */
+    private void updateOscillatorClock () {
+        if (this.external_clock != 0) {
+            this.oscillator_clock = this.external_clock;
+        } else {
+            this.oscillator_clock = FREQ_OSC_CLOCK * this.oscillator_correction;
+        }
+    }
+
+    /**
+     * Update actual PWM frequency and pulse scale from a PRE_SCALE register value
+     * @param pre_scale
+     */
+    private void applyPreScale (byte pre_scale) {
+        this.pre_scale_value = pre_scale;
+        this.actual_pwm_frequency = preScaleToFrequency(pre_scale);
+        this.pulse_scale = preScaleToPulseScale(pre_scale);
+    }
+
+    /**
+     * Convert PWM frequency into ServoPWMPi PRE_SCALE register value
+     * @param frequency
+     * @return PRE_SCALE value
+     */
+    private byte frequencyToPreScale (int frequency) {
+        double freqeval;
+        
+        freqeval = this.oscillator_clock;
+        freqeval /= 4096.0;
+        freqeval /= (double) frequency;
+        freqeval -= 1.0;
+        return (byte) Math.max(MIN_PRE_SCALE, Math.min(MAX_PRE_SCALE, (int) Math.floor(freqeval + 0.5)));
+    }
+
+    /**
+     * Convert ServoPWMPi PRE_SCALE register value into PWM frequency
+     * @param pre_scale
+     * @return PWM frequency
+     */
+    private int preScaleToFrequency (byte pre_scale) {
+        double freqeval;
+        
+        freqeval = this.oscillator_clock;
+        freqeval /= 4096.0;
+        freqeval /= (double) ((pre_scale & 0xFF) + 1);
+        return (int) Math.floor(freqeval + 0.5);
+    }
+
+    /**
+     * Convert ServoPWMPi PRE_SCALE register value into PWM counter steps per
+     * microsecond
+     * @param pre_scale
+     * @return PWM counter steps per microsecond (16.16 fixed-point)
+     */
+    private int preScaleToPulseScale (byte pre_scale) {
+        double scale;
+
+        scale = this.oscillator_clock;
+        scale /= 1000000.0;
+        scale /= (double) ((pre_scale & 0xFF) + 1);
+        return (int) Math.round(scale * 65536.0);
+    }
+
+    /**
+     * Map control register address to shadow cache index
+     * @param register control register address
+     * @return shadow cache index
+     */
+    private static int registerCacheIndex(int register) {
+        switch (register) {
+            case REGISTER_MODE_1:
+                return CACHE_MODE_1;
+            case REGISTER_MODE_2:
+                return CACHE_MODE_2;
+            case REGISTER_PRE_SCALE:
+                return CACHE_PRE_SCALE;
+            default:
+                throw new IllegalArgumentException("Register " + String.format("0x%02x", register) + " is not a cached control register");
+        }
+    }
+
+    /**
+     * Read control register (MODE1, MODE2, PRE_SCALE)
+     * <p>
+     *  The register is read from the PWM controller only if the shadow cache
+     *  policy requires it. Otherwise the cached value is returned without
+     *  any I2C communication.
+     *
+     * @param register control register address
+     * @param method calling method name for error reporting
+     * @return control register value
+     * @throws IOException if fails to communicate with the Servo PWM Pi board
+     */
+    private byte readControlRegister(int register, String method) throws IOException {
+        int index = registerCacheIndex(register);
+        byte value;
+        long now;
+
+        lockBus();
+        try {
+            if ((this.register_cache_valid & (1 << index)) != 0) {
+                switch (this.register_cache_policy) {
+                    case CACHED:
+                        return this.register_cache[index];
+                    case REVALIDATE:
+                        if (System.nanoTime() - this.register_cache_timestamps[index] < this.register_revalidate_interval) {
+                            return this.register_cache[index];
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            try {
+                value = (byte) i2cRead(register);
+            } catch (Pi4JException e) {
+                if (this.i2c != null) {
+                    throw new InitializeException("ServoPwmPiDeviceImpl::" + method + "() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
+                } else {
+                    throw new InitializeException("ServoPwmPiDeviceImpl::" + method + "() I2C connection to Servo PWM Pi device not configured");
+                }
+            }
+            now = System.nanoTime();
+            this.register_cache[index] = value;
+            this.register_cache_timestamps[index] = now;
+            this.register_cache_valid |= (1 << index);
+            return value;
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /**
+     * Write control register (MODE1, MODE2, PRE_SCALE) and update the shadow cache
+     *
+     * @param register control register address
+     * @param value control register value
+     */
+    private void writeControlRegister(int register, byte value) {
+        int index = registerCacheIndex(register);
+        int oldValue;
+
+        lockBus();
+        try {
+            oldValue = ((this.register_cache_valid & (1 << index)) != 0) ? (this.register_cache[index] & 0xFF) : -1;
+            i2cWrite(register, value);
+            if (register != REGISTER_PRE_SCALE && (value & 0xFF) != oldValue) {
+                commitModeRegister(register, oldValue, value);
+            }
+            if (register == REGISTER_MODE_1) {
+                /*
+                 * PWM controller clears RESTART bit after restart
+                 */
+                value &= RESTART_DISABLE_MASK;
+            }
+            this.register_cache[index] = value;
+            this.register_cache_timestamps[index] = System.nanoTime();
+            this.register_cache_valid |= (1 << index);
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /**
+     * Emit a JFR mode register event if enabled
+     */
+    private void commitModeRegister(int register, int oldValue, byte value) {
+        ServoPwmPiModeRegisterEvent event;
+
+        if (!MODE_REGISTER_EVENT.isEnabled()) {
+            return;
+        }
+        event = new ServoPwmPiModeRegisterEvent();
+        if (event.shouldCommit()) {
+            event.bus = this.bus.getBus();
+            event.address = this.i2c.device();
+            event.register = (register == REGISTER_MODE_1) ? "MODE1" : "MODE2";
+            event.oldValue = oldValue;
+            event.newValue = value & 0xFF;
+            event.commit();
+        }
+    }
+
+    /**
+     * Begin a JFR sleep event, null if the event type is disabled
+     */
+    private static ServoPwmPiSleepEvent beginSleepEvent() {
+        ServoPwmPiSleepEvent event;
+
+        if (!SLEEP_EVENT.isEnabled()) {
+            return null;
+        }
+        event = new ServoPwmPiSleepEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Emit a JFR sleep event if enabled
+     */
+    private void commitSleep(ServoPwmPiSleepEvent event, boolean sleeping) {
+        if (event != null && event.shouldCommit()) {
+            event.bus = this.bus.getBus();
+            event.address = this.i2c.device();
+            event.sleeping = sleeping;
+            event.commit();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RegisterCachePolicy getRegisterCachePolicy() {
+        return this.register_cache_policy;
     }
 
     /** {@inheritDoc} */
     @Override
-    public void initialize(Context context) throws InitializeException {
-        byte pre_scale;
-        
-        // atomic operation to configure chip registers
+    public void setRegisterCachePolicy(RegisterCachePolicy policy) {
+        lockBus();
         try {
-            // Detect current ServoPWM Pi PWM frequency settings
-            pre_scale = (byte) this.i2c.readRegister(REGISTER_PRE_SCALE);
-            this.actual_pwm_frequency = preScaleToFrequency(pre_scale);
-            if (pre_scale != DEFAULT_PRE_SCALE) {
-                this.requested_pwm_frequency = this.actual_pwm_frequency;
-            } else {
-                this.requested_pwm_frequency = DEFAULT_PWM_FREQUENCY;
-            }
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::initialize() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::initialize() I2C connection to Servo PWM Pi device not configured");
-            }
-        }
-
-        /**
-         * Servo PWM Pi board does not keep Mpde 1/2 register settings
-         * during power-off. Initialize mode defaults here:
-         */
-        synchronized (this.i2c) {
-            this.i2c.writeRegister(REGISTER_MODE_1, MODE_1_DEFAULT);
-            this.i2c.writeRegister(REGISTER_MODE_2, MODE_2_DEFAULT);
+            this.register_cache_policy = policy;
+        } finally {
+            this.bus.unlock();
         }
     }
 
     /** {@inheritDoc} */
     @Override
-    public void initialize(ServoPwmPiPwm io) throws InitializeException {
-        int address = io.getAddress();
-
-        if (address < 0 || address > 15) {
-            throw new InitializeException("initialize(): Configured PWM sddress (LED" + String.format("%d", address) + ") is out of range (LED0 - LED16)");
-        }
-        
+    public long getRegisterRevalidateInterval() {
+        return TimeUnit.NANOSECONDS.toMillis(this.register_revalidate_interval);
     }
 
     /** {@inheritDoc} */
     @Override
-    public void shutdown(ServoPwmPiPwm io, Context context) throws ShutdownException {
-        // TODO :: Implement any needed GPIO OUTPUT pin shutdown logic here
+    public void setRegisterRevalidateInterval(long millis) throws IllegalArgumentException {
+        if (millis < 0) {
+            throw new IllegalArgumentException("setRegisterRevalidateInterval(): Revalidate interval (" + String.format("%d", millis) + " ms) must not be negative");
+        }
+        lockBus();
+        try {
+            this.register_revalidate_interval = TimeUnit.MILLISECONDS.toNanos(millis);
+        } finally {
+            this.bus.unlock();
+        }
     }
 
     /** {@inheritDoc} */
     @Override
-    public void shutdown(Context context) throws ShutdownException {
-        // TODO :: Implement any needed GPIO OUTPUT pin shutdown logic here
+    public void invalidateRegisterCache() {
+        lockBus();
+        try {
+            this.register_cache_valid = 0;
+            this.led_counts_valid = 0;
+        } finally {
+            this.bus.unlock();
+        }
     }
 
     /** {@inheritDoc} */
     @Override
-    public void on(ServoPwmPiPwm io, float dutyCycle) throws IOException {
-        int on_value;
-        int off_value;
-        int on_steps;
+    public void sleep() throws IOException {
+        ServoPwmPiSleepEvent event = beginSleepEvent();
+        byte currentMode1State;
+        byte sleepMode;
         
-        on_steps = Math.round(4096 / 100 * dutyCycle);
-        switch(on_steps) {
-            case 4096:
-                on_value = 0x1000;
-                off_value = 0;
-                break;
-            case 0:
-                on_value = 0;
-                off_value = 0x1000;
-                break;
-            default:
-                /*
-                 * on_value is phase-shift, i. e. switch-on delay
-                 * If phase-shift has not benn defined, we use on time for
-                 * phase-shift to reduce EMI
-                 */
-                if (io.phaseShift() < 0) {
-                    on_value = on_steps - 1;
-                } else {
-                    on_value = Math.round(4096 / 100 * io.phaseShift()) - 1;
-                }
-                if (on_value + on_steps > 4096) {
-                    /*
-                     * LEDn_ON > LEDn_OFF:
-                     * LEDn_OFF count starts in subsequent PWM frame
-                     */
-                    off_value = on_value + on_steps - 4096;
-                } else {
-                    /*
-                     * LEDn_ON < LEDn_OFF:
-                     * LEDn_OFF count starts in same PWM frame
-                     */
-                    off_value = on_value + on_steps;
-                }
-                break;
-        }
+        lockBus();
         try {
-            synchronized (this.i2c) {
-                this.i2c.writeRegister(LED0_ON_L + 4 * io.address(), (byte) (on_value & 0xFF));
-                this.i2c.writeRegister(LED0_ON_H + 4 * io.address(), (byte) (on_value >> 8));
-                this.i2c.writeRegister(LED0_OFF_L + 4 * io.address(), (byte) (off_value & 0xFF));
-                this.i2c.writeRegister(LED0_OFF_H + 4 * io.address(), (byte) (off_value >> 8));
-            }
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::on() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::on() I2C connection to Servo PWM Pi device not configured");
+            currentMode1State = readControlRegister(REGISTER_MODE_1, "sleep");
+            if ((currentMode1State & SLEEP_MASK) == 0) {
+                sleepMode = (byte) (currentMode1State | SLEEP_MASK);
+                writeControlRegister(REGISTER_MODE_1, sleepMode);
+                commitSleep(event, true);
             }
+        } finally {
+            this.bus.unlock();
         }
     }
 
     /** {@inheritDoc} */
     @Override
-    public void off(ServoPwmPiPwm io) throws IOException {
-        int on_value = 0;
-        int off_value = 0x1000;
+    public void wake() throws IOException {
+        ServoPwmPiSleepEvent event = beginSleepEvent();
+        byte currentMode1State;
+        byte wakeUpMode;
         
+        lockBus();
         try {
-            synchronized (this.i2c) {
-                this.i2c.writeRegister(LED0_ON_L + 4 * io.address(), (byte) on_value);
-                this.i2c.writeRegister(LED0_ON_H + 4 * io.address(), (byte) on_value);
-                this.i2c.writeRegister(LED0_OFF_L + 4 * io.address(), (byte) (off_value & 0xFF));
-                this.i2c.writeRegister(LED0_OFF_H + 4 * io.address(), (byte) (off_value >> 8));
-            }
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::off() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::off() I2C connection to Servo PWM Pi device not configured");
+            currentMode1State = readControlRegister(REGISTER_MODE_1, "wake");
+            if ((currentMode1State & SLEEP_MASK) != 0) {
+                wakeUpMode = (byte) (currentMode1State & ~SLEEP_MASK);
+                writeControlRegister(REGISTER_MODE_1, wakeUpMode);
+                commitSleep(event, false);
             }
+        } finally {
+            this.bus.unlock();
         }
     }
 
     /** {@inheritDoc} */
     @Override
-    public int getActualFrequency() throws IOException {
-        refreshPwmFrequencyConfiguration();
-        return this.actual_pwm_frequency;
+    public boolean isSleeping() throws IOException {
+        byte currentMode1State;
+        byte sleepStatus;
+        
+        currentMode1State = readControlRegister(REGISTER_MODE_1, "isSleeping");
+        sleepStatus = (byte) (currentMode1State & SLEEP_MASK);
+        
+        return (sleepStatus != 0);
     }
 
     /** {@inheritDoc} */
     @Override
-    public int getFrequency() throws IOException {
-        refreshPwmFrequencyConfiguration();
-        return this.requested_pwm_frequency;
+    public void setModeRegisterDefaults() throws IOException {
+        lockBus();
+        try {
+            writeControlRegister(REGISTER_MODE_1, modeRegister1Defaults());
+            writeControlRegister(REGISTER_MODE_2, MODE_2_DEFAULT);
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /**
+     * Servo PWM Pi Mode 1 register defaults including the plugin's
+     * register access features (auto-increment, enabled group addresses)
+     * @return Mode 1 register value
+     */
+    private byte modeRegister1Defaults() {
+        byte mode1 = (byte) ((MODE_1_DEFAULT & ~GROUP_ADDRESS_MASK) | this.group_address_bits);
+
+        if (this.auto_increment) {
+            mode1 |= AI_MASK;
+        }
+        if (this.external_clock != 0) {
+            // sticky bit: keep Mode 1 register shadow consistent
+            mode1 |= EXTCLK_MASK;
+        }
+        return mode1;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isAutoIncrement() {
+        return this.auto_increment;
     }
 
     /** {@inheritDoc} */
     @Override
-    public void setFrequency(int frequency) throws IOException, IllegalArgumentException {
+    public void setAutoIncrement(boolean enable) throws IOException {
         byte currentMode1State;
-        byte restartMode;
+        byte aiMode;
 
-        if (frequency < 40 || frequency > 1000) {
-            throw new IllegalArgumentException("setFrequency(): Requested frequency (" + String.format("%d", frequency) + " Hz) out of range (40 Hz - 1 kHz)");
-        }
-        if (frequency != this.requested_pwm_frequency) {
-            try {
-                currentMode1State = (byte) this.i2c.readRegister(REGISTER_MODE_1);
-            } catch (Pi4JException e) {
-                if (this.i2c != null) {
-                    throw new InitializeException("ServoPwmPiDeviceImpl::setFrequency() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-                } else {
-                    throw new InitializeException("ServoPwmPiDeviceImpl::setFrequency() I2C connection to Servo PWM Pi device not configured");
-                }
-            }
-            /*
-             * Switch oscillator off (SLEEP mode)
-             */
-            this.sleep();
+        lockBus();
+        try {
+            currentMode1State = readControlRegister(REGISTER_MODE_1, "setAutoIncrement");
             /*
-             * Set new PWM frequency and wake-up PWM controller
+             * Do not write back the RESTART bit: writing a logic 1 would
+             * restart all PWM channels
              */
-            synchronized (this.i2c) {
-                this.i2c.writeRegister(REGISTER_PRE_SCALE, frequencyToPreScale(frequency));
-                this.i2c.writeRegister(REGISTER_MODE_1, currentMode1State);
-            }
-            try {
-                Thread.sleep(5);
-            } catch (InterruptedException e) {
-                throw new RuntimeException("Wait for PWM controller reset thread interrupted.", e);
+            aiMode = (byte) (currentMode1State & RESTART_DISABLE_MASK & ~AI_MASK);
+            if (enable) {
+                aiMode |= AI_MASK;
             }
-            /*
-             * Restart all PWM channels with new frequency:
-             * PWM controller will automatically clear RESTART bit after restart
-             */
-            restartMode = (byte) (currentMode1State | RESTART_ENABLE_MASK);
-            synchronized (this.i2c) {
-                this.i2c.writeRegister(REGISTER_MODE_1, restartMode);
+            if (aiMode != (byte) (currentMode1State & RESTART_DISABLE_MASK)) {
+                writeControlRegister(REGISTER_MODE_1, aiMode);
             }
-            this.requested_pwm_frequency = frequency;
-            this.actual_pwm_frequency = preScaleToFrequency((byte) this.i2c.readRegister(REGISTER_PRE_SCALE));
+            this.auto_increment = enable;
+        } finally {
+            this.bus.unlock();
         }
     }
 
-    /**
-     * Fetch current PWM frequency settings from the PWM controller
-     */
-    private void refreshPwmFrequencyConfiguration () throws IOException {
-        byte pre_scale;
-        
+    /** {@inheritDoc} */
+    @Override
+    public int getGroupAddress(GroupAddress group) throws IOException {
+        int address;
+
+        lockBus();
         try {
-            pre_scale = (byte) this.i2c.readRegister(REGISTER_PRE_SCALE);
+            address = i2cRead(group.getRegister());
         } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::refreshPwmFrequencyConfiguration() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::refreshPwmFrequencyConfiguration() I2C connection to Servo PWM Pi device not configured");
-            }
-        }
-        this.actual_pwm_frequency = preScaleToFrequency(pre_scale);
-        if (pre_scale == DEFAULT_PRE_SCALE) {
-            this.requested_pwm_frequency = DEFAULT_PWM_FREQUENCY;
-        } else {
-            this.requested_pwm_frequency = this.actual_pwm_frequency;
+            throw i2cFailure("getGroupAddress");
+        } finally {
+            this.bus.unlock();
         }
-    }
-
-    /**
-     * Convert PWM frequency into ServoPWMPi PRE_SCALE register value
-     * @param frequency
-     * @return PRE_SCALE value
-     */
-    private byte frequencyToPreScale (int frequency) {
-        double freqeval;
-        
-        freqeval = FREQ_OSC_CLOCK;
-        freqeval /= 4096.0;
-        freqeval /= (double) frequency;
-        freqeval -= 1.0;
-        return (byte) Math.floor(freqeval + 0.5);
-    }
-
-    /**
-     * Convert ServoPWMPi PRE_SCALE register value into PWM frequency
-     * @param pre_scale
-     * @return PWM frequency
-     */
-    private int preScaleToFrequency (byte pre_scale) {
-        double freqeval;
-        
-        freqeval = FREQ_OSC_CLOCK;
-        freqeval /= 4096.0;
-        freqeval /= (double) (pre_scale + 1);
-        return (int) Math.floor(freqeval + 0.5);
+        // bit 0 of SUBADRx and ALLCALLADR is reserved
+        return (address & 0xFF) >> 1;
     }
 
     /** {@inheritDoc} */
     @Override
-    public void sleep() throws IOException {
-        byte currentMode1State;
-        byte sleepMode;
-        
-        if (!this.isSleeping()) {
-            currentMode1State = (byte) this.i2c.readRegister(REGISTER_MODE_1);
-            sleepMode = (byte) (currentMode1State | SLEEP_MASK);
-            synchronized (this.i2c) {
-                this.i2c.writeRegister(REGISTER_MODE_1, sleepMode);
-            }
+    public void setGroupAddress(GroupAddress group, int address) throws IOException, IllegalArgumentException {
+        if (address < ADDRESS_000000 || address > ADDRESS_111111) {
+            throw new IllegalArgumentException("setGroupAddress(): I2C address (" + String.format("0x%02x", address) + ") out of range");
+        }
+        lockBus();
+        try {
+            i2cWrite(group.getRegister(), (byte) (address << 1));
+        } catch (Pi4JException e) {
+            throw i2cFailure("setGroupAddress");
+        } finally {
+            this.bus.unlock();
         }
     }
 
     /** {@inheritDoc} */
     @Override
-    public void wake() throws IOException {
-        byte currentMode1State;
-        byte wakeUpMode;
-        
-        if (this.isSleeping()) {
-            currentMode1State = (byte) this.i2c.readRegister(REGISTER_MODE_1);
-            wakeUpMode = (byte) (currentMode1State & ~SLEEP_MASK);
-            synchronized (this.i2c) {
-                this.i2c.writeRegister(REGISTER_MODE_1, wakeUpMode);
-            }
-        }
+    public boolean isGroupAddressEnabled(GroupAddress group) throws IOException {
+        return (readControlRegister(REGISTER_MODE_1, "isGroupAddressEnabled") & group.getValue()) != 0;
     }
 
     /** {@inheritDoc} */
     @Override
-    public boolean isSleeping() throws IOException {
+    public void setGroupAddressEnabled(GroupAddress group, boolean enable) throws IOException {
         byte currentMode1State;
-        byte sleepStatus;
-        
+        byte groupMode;
+
+        lockBus();
         try {
-            currentMode1State = (byte) this.i2c.readRegister(REGISTER_MODE_1);
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::isSleeping() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::isSleeping() I2C connection to Servo PWM Pi device not configured");
+            currentMode1State = readControlRegister(REGISTER_MODE_1, "setGroupAddressEnabled");
+            /*
+             * Do not write back the RESTART bit: writing a logic 1 would
+             * restart all PWM channels
+             */
+            groupMode = (byte) (currentMode1State & RESTART_DISABLE_MASK & ~group.getValue());
+            if (enable) {
+                groupMode |= group.getValue();
             }
+            if (groupMode != (byte) (currentMode1State & RESTART_DISABLE_MASK)) {
+                writeControlRegister(REGISTER_MODE_1, groupMode);
+            }
+            this.group_address_bits = (byte) (groupMode & GROUP_ADDRESS_MASK);
+        } finally {
+            this.bus.unlock();
         }
-        sleepStatus = (byte) (currentMode1State & SLEEP_MASK);
-        
-        return (sleepStatus != 0);
     }
 
     /** {@inheritDoc} */
     @Override
-    public void setModeRegisterDefaults() throws IOException {
-        synchronized (this.i2c) {
-            this.i2c.writeRegister(REGISTER_MODE_1, MODE_1_DEFAULT);
-            this.i2c.writeRegister(REGISTER_MODE_2, MODE_2_DEFAULT);
+    public void updateLedRegisterShadow(int channelMask, byte[] registers) {
+        lockBus();
+        try {
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                if ((channelMask & (1 << channel)) != 0) {
+                    System.arraycopy(registers, LED_REGISTER_COUNT * channel, this.led_registers, LED_REGISTER_COUNT * channel, LED_REGISTER_COUNT);
+                    this.led_counts_valid |= (1 << channel);
+                }
+            }
+        } finally {
+            this.bus.unlock();
         }
     }
 
@@ -345,15 +2104,7 @@ public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
         byte currentMode2State;
         byte outputMode;
         
-        try {
-            currentMode2State = (byte) this.i2c.readRegister(REGISTER_MODE_2);
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::getOutputPolarity() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::getOutputPolarity() I2C connection to Servo PWM Pi device not configured");
-            }
-        }
+        currentMode2State = readControlRegister(REGISTER_MODE_2, "getOutputPolarity");
         outputMode = (byte) (currentMode2State & INVRT_MASK);
         return OutputPolarity.parse(String.format("0x%02x", outputMode));
     }
@@ -364,21 +2115,16 @@ public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
         byte currentMode2State;
         byte outputMode;
         
+        lockBus();
         try {
-            currentMode2State = (byte) this.i2c.readRegister(REGISTER_MODE_2);
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::setOutputPolarity() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::setOutputPolarity() I2C connection to Servo PWM Pi device not configured");
-            }
-        }
-        outputMode = (byte) (currentMode2State & INVRT_MASK);
-        if (OutputPolarity.parse(String.format("0x%02x", outputMode)) != mode) {
-            synchronized (this.i2c) {
+            currentMode2State = readControlRegister(REGISTER_MODE_2, "setOutputPolarity");
+            outputMode = (byte) (currentMode2State & INVRT_MASK);
+            if (OutputPolarity.parse(String.format("0x%02x", outputMode)) != mode) {
                 outputMode = (byte) (INVRT_MASK & mode.getValue());
-                this.i2c.writeRegister(REGISTER_MODE_2, (byte) (currentMode2State & ~INVRT_MASK | outputMode));
+                writeControlRegister(REGISTER_MODE_2, (byte) (currentMode2State & ~INVRT_MASK | outputMode));
             }
+        } finally {
+            this.bus.unlock();
         }
     }
 
@@ -388,15 +2134,7 @@ public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
         byte currentMode2State;
         byte outputType;
         
-        try {
-            currentMode2State = (byte) this.i2c.readRegister(REGISTER_MODE_2);
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::getOutputDriverType() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::getOutputDriverType() I2C connection to Servo PWM Pi device not configured");
-            }
-        }
+        currentMode2State = readControlRegister(REGISTER_MODE_2, "getOutputDriverType");
         outputType = (byte) (currentMode2State & OUTDRV_MASK);
         return OutputDriver.parse(String.format("0x%02x", outputType));
     }
@@ -407,21 +2145,16 @@ public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
         byte currentMode2State;
         byte outputType;
         
+        lockBus();
         try {
-            currentMode2State = (byte) this.i2c.readRegister(REGISTER_MODE_2);
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::setOutputDriverType() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::setOutputDriverType() I2C connection to Servo PWM Pi device not configured");
-            }
-        }
-        outputType = (byte) (currentMode2State & OUTDRV_MASK);
-        if (OutputDriver.parse(String.format("0x%02x", outputType)) != type) {
-            synchronized (this.i2c) {
+            currentMode2State = readControlRegister(REGISTER_MODE_2, "setOutputDriverType");
+            outputType = (byte) (currentMode2State & OUTDRV_MASK);
+            if (OutputDriver.parse(String.format("0x%02x", outputType)) != type) {
                 outputType = (byte) (OUTDRV_MASK & type.getValue());
-                this.i2c.writeRegister(REGISTER_MODE_2, (byte) (currentMode2State & ~OUTDRV_MASK | outputType));
+                writeControlRegister(REGISTER_MODE_2, (byte) (currentMode2State & ~OUTDRV_MASK | outputType));
             }
+        } finally {
+            this.bus.unlock();
         }
     }
 
@@ -431,21 +2164,13 @@ public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
         byte currentMode2State;
         byte oePinMode;
         
-        try {
-            currentMode2State = (byte) this.i2c.readRegister(REGISTER_MODE_2);
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::getOutNEMode() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::getOutNEMode() I2C connection to Servo PWM Pi device not configured");
-            }
-        }
+        currentMode2State = readControlRegister(REGISTER_MODE_2, "getOutNEMode");
         oePinMode = (byte) (currentMode2State & OUTNE_MASK);
         if (oePinMode == OEMode.HIGH.getValue()) {
             /*
              * PWM pins are set to high-impedance, if pin output type is open-drain  
              */
-            if (getOutputDriverType() == OutputDriver.OPEN_DRAIN) {
+            if ((currentMode2State & OUTDRV_MASK) == OutputDriver.OPEN_DRAIN.getValue()) {
                 return OEMode.HIGH_IMPEDANCE;
             }
         } else if (oePinMode > OEMode.HIGH_IMPEDANCE.getValue()) {
@@ -459,15 +2184,7 @@ public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
     public String getOutNEModeBitstring() throws IOException {
         byte currentMode2State;
         
-        try {
-            currentMode2State = (byte) this.i2c.readRegister(REGISTER_MODE_2);
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::getOutNEMode() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::getOutNEMode() I2C connection to Servo PWM Pi device not configured");
-            }
-        }
+        currentMode2State = readControlRegister(REGISTER_MODE_2, "getOutNEMode");
         String b = String.format("%16s", Integer.toBinaryString(currentMode2State & OUTNE_MASK)).replace(' ', '0');
         return b.substring(b.length() - 2);
     }
@@ -478,21 +2195,16 @@ public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
         byte currentMode2State;
         byte oePinMode;
         
+        lockBus();
         try {
-            currentMode2State = (byte) this.i2c.readRegister(REGISTER_MODE_2);
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::setOutNEMode() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::setOutNEMode() I2C connection to Servo PWM Pi device not configured");
-            }
-        }
-        oePinMode = (byte) (currentMode2State & OUTNE_MASK);
-        if (OEMode.parse(String.format("0x%02x", oePinMode)) != mode) {
-            synchronized (this.i2c) {
+            currentMode2State = readControlRegister(REGISTER_MODE_2, "setOutNEMode");
+            oePinMode = (byte) (currentMode2State & OUTNE_MASK);
+            if (OEMode.parse(String.format("0x%02x", oePinMode)) != mode) {
                 oePinMode = (byte) (OUTNE_MASK & mode.getValue());
-                this.i2c.writeRegister(REGISTER_MODE_2, (byte) (currentMode2State & ~OUTNE_MASK | oePinMode));
+                writeControlRegister(REGISTER_MODE_2, (byte) (currentMode2State & ~OUTNE_MASK | oePinMode));
             }
+        } finally {
+            this.bus.unlock();
         }
     }
 
@@ -502,15 +2214,7 @@ public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
         byte currentMode2State;
         byte ochMode;
         
-        try {
-            currentMode2State = (byte) this.i2c.readRegister(REGISTER_MODE_2);
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::getOutputsChangeMode() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::getOutputsChangeMode() I2C connection to Servo PWM Pi device not configured");
-            }
-        }
+        currentMode2State = readControlRegister(REGISTER_MODE_2, "getOutputsChangeMode");
         ochMode = (byte) (currentMode2State & OCH_MASK);
         return OutputsChangeMode.parse(String.format("0x%02x", ochMode));
     }
@@ -521,21 +2225,16 @@ public class ServoPwmPiDeviceImpl implements SERVOPWMPI, ServoPwmPiDevice {
         byte currentMode2State;
         byte ochMode;
         
+        lockBus();
         try {
-            currentMode2State = (byte) this.i2c.readRegister(REGISTER_MODE_2);
-        } catch (Pi4JException e) {
-            if (this.i2c != null) {
-                throw new InitializeException("ServoPwmPiDeviceImpl::setOutputsChangeMode() I2C connection to Servo PWM Pi device (" + String.format("0x%x", this.i2c.device()) + ") failed");
-            } else {
-                throw new InitializeException("ServoPwmPiDeviceImpl::setOutputsChangeMode() I2C connection to Servo PWM Pi device not configured");
-            }
-        }
-        ochMode = (byte) (currentMode2State & OCH_MASK);
-        if (OutputsChangeMode.parse(String.format("0x%02x", ochMode)) != mode) {
-            synchronized (this.i2c) {
+            currentMode2State = readControlRegister(REGISTER_MODE_2, "setOutputsChangeMode");
+            ochMode = (byte) (currentMode2State & OCH_MASK);
+            if (OutputsChangeMode.parse(String.format("0x%02x", ochMode)) != mode) {
                 ochMode = (byte) (OCH_MASK & mode.getValue());
-                this.i2c.writeRegister(REGISTER_MODE_2, (byte) (currentMode2State & ~OCH_MASK | ochMode));
+                writeControlRegister(REGISTER_MODE_2, (byte) (currentMode2State & ~OCH_MASK | ochMode));
             }
+        } finally {
+            this.bus.unlock();
         }
     }
 }
@@ -0,0 +1,42 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Frequency;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event of a PWM frequency change of a Servo PWM Pi board
+ * <p>
+ *  The event duration spans from SLEEP mode to the restart of the PWM
+ *  channels, including the oscillator settle time. Disabled by default.
+ */
+@Name("com.pi4j.plugin.addonboard.servopwmpi.FrequencyChange")
+@Label("PWM Frequency Change")
+@Category({"Pi4J", "Servo PWM Pi"})
+@Description("PRE_SCALE change and PWM channel restart of a Servo PWM Pi board")
+@Enabled(false)
+final class ServoPwmPiFrequencyChangeEvent extends jdk.jfr.Event {
+
+    @Label("I2C Bus")
+    int bus;
+
+    @Label("I2C Address")
+    int address;
+
+    @Label("Requested Frequency")
+    @Frequency
+    int requestedFrequency;
+
+    @Label("Actual Frequency")
+    @Frequency
+    int actualFrequency;
+
+    @Label("PRE_SCALE")
+    int preScale;
+
+    @Label("Asynchronous")
+    boolean asynchronous;
+}
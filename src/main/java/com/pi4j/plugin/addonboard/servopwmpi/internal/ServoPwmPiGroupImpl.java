@@ -0,0 +1,302 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import com.pi4j.context.Context;
+import com.pi4j.exception.InitializeException;
+import com.pi4j.exception.Pi4JException;
+import com.pi4j.exception.ShutdownException;
+import com.pi4j.io.exception.IOException;
+import com.pi4j.io.i2c.I2C;
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiBus;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiGroup;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ServoPwmPiGroupImpl implements SERVOPWMPI, ServoPwmPiGroup {
+
+    // local/internal I2C reference of the group address
+    protected final I2C i2c;
+
+    // arbiter of the I2C bus shared with the member boards
+    protected final ServoPwmPiBus bus;
+
+    private final GroupAddress group;
+
+    // member boards (guarded by bus lock)
+    private final List<ServoPwmPiDevice> members = new ArrayList<>();
+
+    // ALL_LED_ON_L, ALL_LED_ON_H, ALL_LED_OFF_L, ALL_LED_OFF_H write buffer (guarded by bus lock)
+    private final byte[] led_buffer = new byte[LED_REGISTER_COUNT * PWM_CHANNEL_COUNT];
+
+    // LED0_ON_L ... LED15_OFF_H block write buffer (guarded by bus lock)
+    private final byte[] block_buffer = new byte[LED_REGISTER_COUNT * PWM_CHANNEL_COUNT];
+
+    // LEDn_ON and LEDn_OFF counts of setChannels(int, float[]) (guarded by bus lock)
+    private final int[] block_on_counts = new int[PWM_CHANNEL_COUNT];
+    private final int[] block_off_counts = new int[PWM_CHANNEL_COUNT];
+
+    /**
+     * Constructor
+     * @param i2c I2C instance of the group address
+     * @param group group address register used by this group
+     */
+    public ServoPwmPiGroupImpl(I2C i2c, GroupAddress group) {
+        // set local reference to I2C instance
+        this.i2c = i2c;
+        this.group = group;
+        this.bus = ServoPwmPiBus.acquire(i2c.bus());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public GroupAddress getGroupAddress() {
+        return this.group;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getAddress() {
+        return this.i2c.device();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addMember(ServoPwmPiDevice member) throws IOException, IllegalArgumentException {
+        if (member.getBus() != this.bus) {
+            throw new IllegalArgumentException("addMember(): Servo PWM Pi board is not connected to I2C bus " + String.format("%d", this.bus.getBus()));
+        }
+        this.bus.lock();
+        try {
+            if (this.members.contains(member)) {
+                return;
+            }
+            member.setGroupAddress(this.group, this.i2c.device());
+            member.setGroupAddressEnabled(this.group, true);
+            this.members.add(member);
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeMember(ServoPwmPiDevice member) throws IOException {
+        this.bus.lock();
+        try {
+            if (this.members.remove(member)) {
+                member.setGroupAddressEnabled(this.group, false);
+            }
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<ServoPwmPiDevice> getMembers() {
+        this.bus.lock();
+        try {
+            return Collections.unmodifiableList(new ArrayList<>(this.members));
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setChannels(int channelMask, int[] onCounts, int[] offCounts) throws IOException, IllegalArgumentException {
+        int mask = channelMask & ALL_CHANNELS_MASK;
+
+        if (onCounts.length < PWM_CHANNEL_COUNT || offCounts.length < PWM_CHANNEL_COUNT) {
+            throw new IllegalArgumentException("setChannels(): LEDn_ON and LEDn_OFF counts of all " + String.format("%d", PWM_CHANNEL_COUNT) + " PWM pins required");
+        }
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((mask & (1 << channel)) != 0) {
+                if (onCounts[channel] < 0 || onCounts[channel] > LED_COUNT_MAX
+                        || offCounts[channel] < 0 || offCounts[channel] > LED_COUNT_MAX) {
+                    throw new IllegalArgumentException("setChannels(): LEDn_ON/LEDn_OFF counts of PWM pin LED" + String.format("%d", channel) + " out of range");
+                }
+            }
+        }
+        if (mask == 0) {
+            return;
+        }
+        this.bus.lock();
+        try {
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                if ((mask & (1 << channel)) != 0) {
+                    putLedCounts(this.block_buffer, LED_REGISTER_COUNT * channel, onCounts[channel], offCounts[channel]);
+                }
+            }
+            writeLedBlocks(mask);
+            for (ServoPwmPiDevice member : this.members) {
+                member.updateLedRegisterShadow(mask, this.block_buffer);
+            }
+        } catch (Pi4JException e) {
+            throw i2cFailure("setChannels");
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setChannels(int channelMask, float[] dutyCycles) throws IOException, IllegalArgumentException {
+        int mask = channelMask & ALL_CHANNELS_MASK;
+        int counts;
+
+        if (dutyCycles.length < PWM_CHANNEL_COUNT) {
+            throw new IllegalArgumentException("setChannels(): duty-cycles of all " + String.format("%d", PWM_CHANNEL_COUNT) + " PWM pins required");
+        }
+        // bus lock is reentrant, setChannels() may acquire it again
+        this.bus.lock();
+        try {
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                if ((mask & (1 << channel)) != 0) {
+                    counts = ServoPwmPiDeviceImpl.ledCounts(ServoPwmPiDeviceImpl.dutyCycleToSteps(dutyCycles[channel]), -1);
+                    this.block_on_counts[channel] = counts >>> 16;
+                    this.block_off_counts[channel] = counts & 0xFFFF;
+                }
+            }
+            setChannels(mask, this.block_on_counts, this.block_off_counts);
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void allSet(int onCount, int offCount) throws IOException, IllegalArgumentException {
+        if (onCount < 0 || onCount > LED_COUNT_MAX || offCount < 0 || offCount > LED_COUNT_MAX) {
+            throw new IllegalArgumentException("allSet(): ALL_LED_ON/ALL_LED_OFF counts out of range");
+        }
+        this.bus.lock();
+        try {
+            putLedCounts(this.led_buffer, 0, onCount, offCount);
+            if (autoIncrement()) {
+                this.i2c.writeRegister(ALL_LED_ON_L, this.led_buffer, 0, LED_REGISTER_COUNT);
+            } else {
+                for (int i = 0; i < LED_REGISTER_COUNT; i++) {
+                    this.i2c.writeRegister(ALL_LED_ON_L + i, this.led_buffer[i]);
+                }
+            }
+            /*
+             * ALL_LED registers load the LEDn registers of all PWM pins
+             */
+            for (int offset = LED_REGISTER_COUNT; offset < this.led_buffer.length; offset += LED_REGISTER_COUNT) {
+                System.arraycopy(this.led_buffer, 0, this.led_buffer, offset, LED_REGISTER_COUNT);
+            }
+            for (ServoPwmPiDevice member : this.members) {
+                member.updateLedRegisterShadow(ALL_CHANNELS_MASK, this.led_buffer);
+            }
+        } catch (Pi4JException e) {
+            throw i2cFailure("allSet");
+        } finally {
+            this.bus.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void allOff() throws IOException {
+        allSet(0, LED_FULL_MASK);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void allFullOn() throws IOException {
+        allSet(LED_FULL_MASK, 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void shutdown(Context context) throws ShutdownException {
+        this.bus.lock();
+        try {
+            while (!this.members.isEmpty()) {
+                removeMember(this.members.get(this.members.size() - 1));
+            }
+        } catch (Pi4JException e) {
+            throw new ShutdownException(e);
+        } finally {
+            this.bus.unlock();
+            this.bus.release();
+        }
+    }
+
+    /**
+     * Write staged LEDn registers of several PWM pins to the group address
+     * (caller must hold bus lock)
+     * <p>
+     *  Member boards may hold different LEDn register contents, i. e. all
+     *  staged registers are written. With auto-increment mode enabled on all
+     *  member boards each run of adjacent PWM pins is written as one block.
+     *
+     * @param channelMask PWM pins to write, one bit per PWM pin (LED0 = bit 0)
+     */
+    private void writeLedBlocks(int channelMask) {
+        boolean auto_increment = autoIncrement();
+        int first = 0;
+        int last;
+
+        while (first < PWM_CHANNEL_COUNT) {
+            if ((channelMask & (1 << first)) == 0) {
+                first++;
+                continue;
+            }
+            // find end of run of adjacent PWM pins
+            last = first;
+            while (last + 1 < PWM_CHANNEL_COUNT && (channelMask & (1 << (last + 1))) != 0) {
+                last++;
+            }
+            if (auto_increment) {
+                this.i2c.writeRegister(LED0_ON_L + LED_REGISTER_COUNT * first, this.block_buffer, LED_REGISTER_COUNT * first, LED_REGISTER_COUNT * (last - first + 1));
+            } else {
+                for (int i = LED_REGISTER_COUNT * first; i < LED_REGISTER_COUNT * (last + 1); i++) {
+                    this.i2c.writeRegister(LED0_ON_L + i, this.block_buffer[i]);
+                }
+            }
+            first = last + 1;
+        }
+    }
+
+    /**
+     * Check if all member boards are in auto-increment mode (caller must hold bus lock)
+     *
+     * @return true if block writes can be used
+     */
+    private boolean autoIncrement() {
+        for (ServoPwmPiDevice member : this.members) {
+            if (!member.isAutoIncrement()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stage LEDn_ON and LEDn_OFF counts in a register buffer
+     *
+     * @param buffer register buffer
+     * @param offset buffer offset of LEDn_ON_L
+     * @param on_value LEDn_ON count (including full ON bit)
+     * @param off_value LEDn_OFF count (including full OFF bit)
+     */
+    private static void putLedCounts(byte[] buffer, int offset, int on_value, int off_value) {
+        buffer[offset] = (byte) (on_value & 0xFF);
+        buffer[offset + 1] = (byte) (on_value >> 8);
+        buffer[offset + 2] = (byte) (off_value & 0xFF);
+        buffer[offset + 3] = (byte) (off_value >> 8);
+    }
+
+    /**
+     * Create exception for failed I2C communication
+     *
+     * @param method failed method
+     * @return a {@link InitializeException} object
+     */
+    private InitializeException i2cFailure(String method) {
+        return new InitializeException("ServoPwmPiGroupImpl::" + method + "() I2C connection to Servo PWM Pi group (" + String.format("0x%x", this.i2c.device()) + ") failed");
+    }
+}
@@ -0,0 +1,56 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event of an I2C transaction of a Servo PWM Pi board
+ * <p>
+ *  The event duration is the duration of the I2C transaction. The time
+ *  spent waiting for the I2C bus is reported with the first transaction
+ *  after the bus has been acquired.
+ *  Disabled by default like all events of this plugin; enable it in a JFR
+ *  settings file or with <code>Recording.enable(</code>{@link #NAME}<code>)</code>.
+ */
+@Name(ServoPwmPiI2CTransactionEvent.NAME)
+@Label("I2C Transaction")
+@Category({"Pi4J", "Servo PWM Pi"})
+@Description("I2C read or write transaction of a Servo PWM Pi board")
+@Enabled(false)
+@StackTrace(false)
+final class ServoPwmPiI2CTransactionEvent extends jdk.jfr.Event {
+
+    static final String NAME = "com.pi4j.plugin.addonboard.servopwmpi.I2CTransaction";
+
+    @Label("I2C Bus")
+    int bus;
+
+    @Label("I2C Address")
+    int address;
+
+    @Label("Write")
+    boolean write;
+
+    @Label("First Register")
+    int firstRegister;
+
+    @Label("Last Register")
+    int lastRegister;
+
+    @Label("Data Bytes")
+    @DataAmount(DataAmount.BYTES)
+    int bytes;
+
+    @Label("Bus Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long lockWait;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,189 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiChannelLatency;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Optional end-to-end command latency tracing of a Servo PWM Pi board
+ * <p>
+ *  When enabled, a command is timestamped when it enters a PWM pin, when the
+ *  I2C bus is acquired to write it and when the I2C write completes, and
+ *  recorded in the {@link ServoPwmPiChannelLatency histograms} of its PWM
+ *  pin. Each PWM pin traces one command at a time: commands entering while
+ *  an earlier command of the PWM pin is not yet written are not timestamped,
+ *  i. e. latencies of superseded write-behind and combining setpoints are
+ *  measured from the oldest unwritten command. Commands whose LEDn registers
+ *  are unchanged are recorded like written commands.
+ *  <p>
+ *  Histograms are allocated when tracing is first enabled. Disabled tracing
+ *  costs a volatile read per command.
+ */
+public final class ServoPwmPiLatencyTracer implements SERVOPWMPI {
+
+    private volatile boolean enabled = false;
+
+    // entry timestamps of traced commands not yet written (0: no traced command)
+    private final AtomicLongArray entered = new AtomicLongArray(PWM_CHANNEL_COUNT);
+
+    // command latency histograms by PWM pin (null until tracing is enabled)
+    private volatile ServoPwmPiChannelLatency[] channels = null;
+
+    /**
+     * <p>Getter for the field <code>enabled</code>.</p>
+     *
+     * @return true if command latency tracing is enabled
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Enable or disable command latency tracing
+     * <p>
+     *  Recorded latencies are kept when tracing is disabled.
+     *
+     * @param enable true to enable tracing
+     */
+    public synchronized void setEnabled(boolean enable) {
+        if (enable && this.channels == null) {
+            this.channels = createChannels();
+        }
+        if (!enable) {
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                this.entered.set(channel, 0);
+            }
+        }
+        this.enabled = enable;
+    }
+
+    /**
+     * Timestamp a command entering a PWM pin
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return true if the command has been timestamped, false if tracing is disabled or an earlier command is traced
+     */
+    public boolean enter(int channel) {
+        return this.enabled && this.entered.compareAndSet(channel, 0, System.nanoTime());
+    }
+
+    /**
+     * Drop the timestamp of a command rejected before it was submitted,
+     * e. g. because of invalid arguments
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param traced return value of {@link #enter(int)} for the command
+     */
+    public void reject(int channel, boolean traced) {
+        if (traced) {
+            this.entered.set(channel, 0);
+        }
+    }
+
+    /**
+     * Timestamp a command entering several PWM pins
+     *
+     * @param channelMask PWM pins, one bit per PWM pin (LED0 = bit 0)
+     */
+    public void enterChannels(int channelMask) {
+        long now;
+
+        if (this.enabled) {
+            now = System.nanoTime();
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                if ((channelMask & (1 << channel)) != 0) {
+                    this.entered.compareAndSet(channel, 0, now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Timestamp the acquisition of the I2C bus for writing LEDn registers
+     *
+     * @return current time or 0 if tracing is disabled
+     */
+    long acquired() {
+        return this.enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record the traced commands of written PWM pins
+     *
+     * @param channelMask written PWM pins, one bit per PWM pin (LED0 = bit 0)
+     * @param acquired I2C bus acquisition time returned by {@link #acquired()}
+     */
+    void complete(int channelMask, long acquired) {
+        ServoPwmPiChannelLatency[] latencies = this.channels;
+        long completed;
+        long entry;
+
+        if (acquired == 0 || latencies == null) {
+            return;
+        }
+        completed = System.nanoTime();
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((channelMask & (1 << channel)) != 0 && (entry = this.entered.getAndSet(channel, 0)) != 0) {
+                // commands entering after the bus was acquired are written by this transaction, too
+                latencies[channel].record(entry, Math.max(entry, acquired), completed);
+            }
+        }
+    }
+
+    /**
+     * Drop the traced commands of PWM pins that have not been written
+     *
+     * @param channelMask PWM pins, one bit per PWM pin (LED0 = bit 0)
+     */
+    void discard(int channelMask) {
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((channelMask & (1 << channel)) != 0) {
+                this.entered.set(channel, 0);
+            }
+        }
+    }
+
+    /**
+     * Get the command latency histograms of a PWM pin
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return {@link ServoPwmPiChannelLatency} of the PWM pin, empty if tracing has never been enabled
+     */
+    public ServoPwmPiChannelLatency getChannel(int channel) throws IllegalArgumentException {
+        ServoPwmPiChannelLatency[] latencies;
+
+        if (channel < 0 || channel >= PWM_CHANNEL_COUNT) {
+            throw new IllegalArgumentException("getChannel(): PWM pin address (" + String.format("%d", channel) + ") out of range (0 - "
+                    + String.format("%d", PWM_CHANNEL_COUNT - 1) + ")");
+        }
+        synchronized (this) {
+            if (this.channels == null) {
+                this.channels = createChannels();
+            }
+            latencies = this.channels;
+        }
+        return latencies[channel];
+    }
+
+    /**
+     * Reset the command latency histograms of all PWM pins
+     */
+    public void reset() {
+        ServoPwmPiChannelLatency[] latencies = this.channels;
+
+        if (latencies != null) {
+            for (ServoPwmPiChannelLatency latency : latencies) {
+                latency.reset();
+            }
+        }
+    }
+
+    private static ServoPwmPiChannelLatency[] createChannels() {
+        ServoPwmPiChannelLatency[] latencies = new ServoPwmPiChannelLatency[PWM_CHANNEL_COUNT];
+
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            latencies[channel] = new ServoPwmPiChannelLatency(channel);
+        }
+        return latencies;
+    }
+}
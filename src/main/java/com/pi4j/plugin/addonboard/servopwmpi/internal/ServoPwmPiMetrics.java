@@ -0,0 +1,140 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiHistogram;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * I2C traffic metrics of a Servo PWM Pi board
+ * <p>
+ *  Counts the I2C transactions and bytes of the board, split into reads and
+ *  writes, and failed transactions. Records the duration of write
+ *  transactions and the time spent waiting for the I2C bus arbiter in
+ *  {@link ServoPwmPiHistogram histograms}. Reentrant bus acquisitions do not
+ *  wait and are not recorded.
+ *  <p>
+ *  Recording is lock-free and allocation-free, i. e. metrics are always on.
+ */
+public final class ServoPwmPiMetrics {
+
+    private final LongAdder read_transactions = new LongAdder();
+    private final LongAdder write_transactions = new LongAdder();
+    private final LongAdder read_bytes = new LongAdder();
+    private final LongAdder written_bytes = new LongAdder();
+    private final LongAdder failed_transactions = new LongAdder();
+    private final ServoPwmPiHistogram write_latency = new ServoPwmPiHistogram();
+    private final ServoPwmPiHistogram lock_wait = new ServoPwmPiHistogram();
+
+    /**
+     * Record a completed read transaction
+     *
+     * @param bytes number of read data bytes
+     */
+    void recordRead(int bytes) {
+        this.read_transactions.increment();
+        this.read_bytes.add(bytes);
+    }
+
+    /**
+     * Record a completed write transaction
+     *
+     * @param bytes number of written data bytes
+     * @param nanos duration of the transaction in nanoseconds
+     */
+    void recordWrite(int bytes, long nanos) {
+        this.write_transactions.increment();
+        this.written_bytes.add(bytes);
+        this.write_latency.record(nanos);
+    }
+
+    /**
+     * Record a failed read or write transaction
+     */
+    void recordFailure() {
+        this.failed_transactions.increment();
+    }
+
+    /**
+     * Record the time spent waiting for the I2C bus arbiter
+     *
+     * @param nanos wait time in nanoseconds
+     */
+    void recordLockWait(long nanos) {
+        this.lock_wait.record(nanos);
+    }
+
+    /**
+     * <p>Getter for the field <code>read_transactions</code>.</p>
+     *
+     * @return number of completed read transactions
+     */
+    public long getReadTransactionCount() {
+        return this.read_transactions.sum();
+    }
+
+    /**
+     * <p>Getter for the field <code>write_transactions</code>.</p>
+     *
+     * @return number of completed write transactions
+     */
+    public long getWriteTransactionCount() {
+        return this.write_transactions.sum();
+    }
+
+    /**
+     * <p>Getter for the field <code>read_bytes</code>.</p>
+     *
+     * @return number of read data bytes
+     */
+    public long getReadByteCount() {
+        return this.read_bytes.sum();
+    }
+
+    /**
+     * <p>Getter for the field <code>written_bytes</code>.</p>
+     *
+     * @return number of written data bytes, register addresses excluded
+     */
+    public long getWrittenByteCount() {
+        return this.written_bytes.sum();
+    }
+
+    /**
+     * <p>Getter for the field <code>failed_transactions</code>.</p>
+     *
+     * @return number of failed read and write transactions
+     */
+    public long getFailedTransactionCount() {
+        return this.failed_transactions.sum();
+    }
+
+    /**
+     * <p>Getter for the field <code>write_latency</code>.</p>
+     *
+     * @return durations of completed write transactions
+     */
+    public ServoPwmPiHistogram getWriteLatency() {
+        return this.write_latency;
+    }
+
+    /**
+     * <p>Getter for the field <code>lock_wait</code>.</p>
+     *
+     * @return wait times for the I2C bus arbiter
+     */
+    public ServoPwmPiHistogram getLockWait() {
+        return this.lock_wait;
+    }
+
+    /**
+     * Reset all counters and histograms
+     */
+    public void reset() {
+        this.read_transactions.reset();
+        this.write_transactions.reset();
+        this.read_bytes.reset();
+        this.written_bytes.reset();
+        this.failed_transactions.reset();
+        this.write_latency.reset();
+        this.lock_wait.reset();
+    }
+}
@@ -0,0 +1,35 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event of a changed Mode 1 or Mode 2 register of a
+ * Servo PWM Pi board. Disabled by default.
+ */
+@Name("com.pi4j.plugin.addonboard.servopwmpi.ModeRegister")
+@Label("Mode Register Change")
+@Category({"Pi4J", "Servo PWM Pi"})
+@Description("Write of a Servo PWM Pi board's MODE1 or MODE2 register that changes its value")
+@Enabled(false)
+final class ServoPwmPiModeRegisterEvent extends jdk.jfr.Event {
+
+    @Label("I2C Bus")
+    int bus;
+
+    @Label("I2C Address")
+    int address;
+
+    @Label("Register")
+    String register;
+
+    @Label("Old Value")
+    @Description("Register value before the write, -1 if unknown")
+    int oldValue;
+
+    @Label("New Value")
+    int newValue;
+}
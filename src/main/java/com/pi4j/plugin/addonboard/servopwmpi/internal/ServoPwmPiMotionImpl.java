@@ -0,0 +1,421 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiBus;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiMotion;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ServoPwmPiMotionImpl implements SERVOPWMPI, ServoPwmPiMotion {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    // I2C bus arbiter, its timer thread writes the frames of all boards on the I2C bus
+    private final ServoPwmPiBus bus;
+
+    // boards with moving PWM pins (guarded by engine lock)
+    private final Map<ServoPwmPiDevice, Board> boards = new HashMap<>();
+
+    // frame statistics (timer thread only)
+    private volatile long frames = 0;
+    private volatile long late_frames = 0;
+
+    /**
+     * Moving PWM pins of a Servo PWM Pi board and its frame task
+     */
+    private final class Board implements Runnable {
+        private final ServoPwmPiDevice device;
+
+        // trajectories, PWM pins and futures of moving PWM pins (guarded by engine lock)
+        private final ServoPwmPiTrajectory[] trajectories = new ServoPwmPiTrajectory[PWM_CHANNEL_COUNT];
+        private final ServoPwmPiPwm[] pins = new ServoPwmPiPwm[PWM_CHANNEL_COUNT];
+        private final CompletableFuture<?>[] futures = new CompletableFuture<?>[PWM_CHANNEL_COUNT];
+        private int moving = 0;
+        private ScheduledFuture<?> task = null;
+
+        // PWM counter steps of the last written setpoints, valid for PWM pins in written (guarded by engine lock)
+        private final int[] steps = new int[PWM_CHANNEL_COUNT];
+        private int written = 0;
+        private long period = 0;
+
+        // frame buffers (timer thread only)
+        private final float[] duty_cycles = new float[PWM_CHANNEL_COUNT];
+        private final ServoPwmPiPwm[] frame_pins = new ServoPwmPiPwm[PWM_CHANNEL_COUNT];
+        private final CompletableFuture<?>[] finished = new CompletableFuture<?>[PWM_CHANNEL_COUNT];
+        private long last_frame = 0;
+
+        private Board(ServoPwmPiDevice device) {
+            this.device = device;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            int mask;
+            int changed = 0;
+            int done = 0;
+            int on_steps;
+            Throwable error = null;
+
+            synchronized (ServoPwmPiMotionImpl.this) {
+                mask = this.moving;
+                for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                    if ((mask & (1 << channel)) != 0) {
+                        this.duty_cycles[channel] = this.trajectories[channel].position(now);
+                        this.frame_pins[channel] = this.pins[channel];
+                        // setpoints that do not change the PWM counter steps are not written
+                        on_steps = ServoPwmPiDeviceImpl.dutyCycleToSteps(this.duty_cycles[channel]);
+                        if ((this.written & (1 << channel)) == 0 || this.steps[channel] != on_steps) {
+                            this.steps[channel] = on_steps;
+                            this.written |= (1 << channel);
+                            changed |= (1 << channel);
+                        }
+                        if (this.trajectories[channel].isFinished(now)) {
+                            done |= (1 << channel);
+                            this.finished[channel] = this.futures[channel];
+                            release(channel);
+                        }
+                    }
+                }
+                if (this.moving == 0) {
+                    cancel();
+                }
+            }
+            if (this.last_frame != 0 && now - this.last_frame > this.period + this.period / 2) {
+                late_frames++;
+            }
+            this.last_frame = now;
+            if (mask != 0) {
+                try {
+                    if (changed != 0) {
+                        this.device.setChannels(changed, this.duty_cycles);
+                        frames++;
+                    }
+                    for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                        if ((mask & (1 << channel)) != 0) {
+                            this.frame_pins[channel].setDutyCycle(this.duty_cycles[channel]);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn(String.format("[servopwmpi-timer-%d]: frame write failed, moves stopped: %s", bus.getBus(), e.getMessage()));
+                    error = e;
+                    // stop all moves of the board
+                    synchronized (ServoPwmPiMotionImpl.this) {
+                        this.written = 0;
+                        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                            if ((this.moving & (1 << channel)) != 0) {
+                                done |= (1 << channel);
+                                this.finished[channel] = this.futures[channel];
+                                release(channel);
+                            }
+                        }
+                        cancel();
+                    }
+                }
+            }
+            complete(done, error);
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                this.frame_pins[channel] = null;
+            }
+        }
+
+        /**
+         * Complete the futures of finished moves
+         *
+         * @param channelMask finished PWM pins, one bit per PWM pin (LED0 = bit 0)
+         * @param error frame write failure or null if the target duty-cycles have been written
+         */
+        private void complete(int channelMask, Throwable error) {
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                if ((channelMask & (1 << channel)) != 0 && this.finished[channel] != null) {
+                    if (error == null) {
+                        this.finished[channel].complete(null);
+                    } else {
+                        this.finished[channel].completeExceptionally(error);
+                    }
+                    this.finished[channel] = null;
+                }
+            }
+        }
+
+        /**
+         * Remove a PWM pin from the moving PWM pins (caller must hold engine lock)
+         */
+        private void release(int channel) {
+            this.trajectories[channel] = null;
+            this.pins[channel] = null;
+            this.futures[channel] = null;
+            this.moving &= ~(1 << channel);
+        }
+
+        /**
+         * Stop the frame task of an idle board (caller must hold engine lock)
+         */
+        private void cancel() {
+            if (this.task != null) {
+                this.task.cancel(false);
+                this.task = null;
+            }
+            boards.remove(this.device);
+        }
+    }
+
+    /**
+     * Constructor
+     * <p>
+     *  Motion engines are created by the arbiter of their I2C bus, see
+     *  {@link ServoPwmPiBus#getMotion()}.
+     *
+     * @param bus I2C bus arbiter
+     */
+    public ServoPwmPiMotionImpl(ServoPwmPiBus bus) {
+        this.bus = bus;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> moveTo(ServoPwmPiPwm pwm, float dutyCycle, long duration, TimeUnit unit, MotionProfile profile) throws IllegalArgumentException {
+        if (duration < 0) {
+            throw new IllegalArgumentException("moveTo(): duration of move must not be negative");
+        }
+        return start("moveTo", new ServoPwmPiPwm[] {pwm}, new float[] {dutyCycle}, profile, unit.toNanos(duration), 0, 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> moveTo(ServoPwmPiPwm pwm, float dutyCycle, float maxVelocity, float maxAcceleration, MotionProfile profile) throws IllegalArgumentException {
+        if (!(maxVelocity > 0)) {
+            throw new IllegalArgumentException("moveTo(): maximum velocity must be positive");
+        }
+        if (profile != MotionProfile.LINEAR && !(maxAcceleration > 0)) {
+            throw new IllegalArgumentException("moveTo(): maximum acceleration must be positive");
+        }
+        return start("moveTo", new ServoPwmPiPwm[] {pwm}, new float[] {dutyCycle}, profile, -1, maxVelocity, maxAcceleration);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> moveTogether(ServoPwmPiPwm[] pwms, float[] dutyCycles, long duration, TimeUnit unit, MotionProfile profile) throws IllegalArgumentException {
+        if (duration < 0) {
+            throw new IllegalArgumentException("moveTogether(): duration of move must not be negative");
+        }
+        return start("moveTogether", pwms, dutyCycles, profile, unit.toNanos(duration), 0, 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> moveTogether(ServoPwmPiPwm[] pwms, float[] dutyCycles, float maxVelocity, float maxAcceleration, MotionProfile profile) throws IllegalArgumentException {
+        if (!(maxVelocity > 0)) {
+            throw new IllegalArgumentException("moveTogether(): maximum velocity must be positive");
+        }
+        if (profile != MotionProfile.LINEAR && !(maxAcceleration > 0)) {
+            throw new IllegalArgumentException("moveTogether(): maximum acceleration must be positive");
+        }
+        return start("moveTogether", pwms, dutyCycles, profile, -1, maxVelocity, maxAcceleration);
+    }
+
+    /**
+     * Start a coordinated move of one or several PWM pins
+     * <p>
+     *  All moves start at the same time. Moves derived from limits are
+     *  stretched to the duration of the longest move, i. e. all PWM pins
+     *  arrive at the same time without exceeding their limits.
+     *
+     * @param method calling method for error reporting
+     * @param pwms PWM pins
+     * @param dutyCycles target duty-cycles indexed like the PWM pins (range: 0-100)
+     * @param profile {@link SERVOPWMPI.MotionProfile}
+     * @param duration duration of the move in nanoseconds or a negative value to derive it from the limits
+     * @param maxVelocity maximum velocity in duty-cycle percent per second
+     * @param maxAcceleration maximum acceleration in duty-cycle percent per second^2
+     * @return future that completes when all target duty-cycles have been written
+     */
+    private CompletableFuture<Void> start(String method, ServoPwmPiPwm[] pwms, float[] dutyCycles, MotionProfile profile, long duration, float maxVelocity, float maxAcceleration) {
+        ServoPwmPiTrajectory[] trajectories = new ServoPwmPiTrajectory[pwms.length];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[pwms.length];
+        CompletableFuture<Void> future = null;
+        List<CompletableFuture<?>> replaced = new ArrayList<>();
+        Set<ServoPwmPiPwm> distinct = new HashSet<>();
+        long[] periods = new long[pwms.length];
+        long longest = 0;
+        ServoPwmPiDevice device;
+        int channel;
+        float current;
+        float target;
+        long now;
+        Board board;
+
+        if (dutyCycles.length != pwms.length) {
+            throw new IllegalArgumentException(method + "(): one target duty-cycle per PWM pin required");
+        }
+        for (int i = 0; i < pwms.length; i++) {
+            device = pwms[i].getPwmDevice();
+            if (device.getBus() != this.bus) {
+                throw new IllegalArgumentException(method + "(): PWM pin " + pwms[i].id() + " is not connected to I2C bus " + String.format("%d", this.bus.getBus()));
+            }
+            if (!distinct.add(pwms[i])) {
+                throw new IllegalArgumentException(method + "(): PWM pin " + pwms[i].id() + " must not be moved twice");
+            }
+            // one frame per PWM period
+            periods[i] = TimeUnit.SECONDS.toNanos(1) / Math.max(device.getActualFrequency(), 1);
+        }
+        synchronized (this) {
+            now = System.nanoTime();
+            for (int i = 0; i < pwms.length; i++) {
+                board = this.boards.get(pwms[i].getPwmDevice());
+                channel = pwms[i].address();
+                target = Math.max(0f, Math.min(100f, dutyCycles[i]));
+                if (board != null && board.trajectories[channel] != null) {
+                    // continue from the current setpoint of the running move
+                    current = board.trajectories[channel].position(now);
+                } else {
+                    current = pwms[i].getDutyCycle();
+                }
+                if (duration >= 0) {
+                    trajectories[i] = ServoPwmPiTrajectory.ofDuration(profile, current, target, now, duration);
+                } else {
+                    trajectories[i] = ServoPwmPiTrajectory.ofLimits(profile, current, target, now, maxVelocity, maxAcceleration);
+                }
+                longest = Math.max(longest, trajectories[i].getDuration());
+            }
+            for (int i = 0; i < pwms.length; i++) {
+                device = pwms[i].getPwmDevice();
+                channel = pwms[i].address();
+                board = this.boards.get(device);
+                if (board == null) {
+                    board = new Board(device);
+                    this.boards.put(device, board);
+                }
+                if (board.futures[channel] != null) {
+                    replaced.add(board.futures[channel]);
+                }
+                future = new CompletableFuture<>();
+                futures[i] = future;
+                board.trajectories[channel] = (trajectories[i].getDuration() == longest) ? trajectories[i] : trajectories[i].withDuration(longest);
+                board.pins[channel] = pwms[i];
+                board.futures[channel] = futures[i];
+                board.moving |= (1 << channel);
+                board.written &= ~(1 << channel);
+                if (board.task == null || board.period != periods[i]) {
+                    if (board.task != null) {
+                        board.task.cancel(false);
+                    }
+                    board.period = periods[i];
+                    board.task = this.bus.scheduleAtFixedRate(board, 0, periods[i], TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        for (CompletableFuture<?> previous : replaced) {
+            previous.cancel(false);
+        }
+        // a single move returns its own future to keep it cancellable
+        return (futures.length == 1) ? future : CompletableFuture.allOf(futures);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void stop(ServoPwmPiPwm pwm) {
+        CompletableFuture<?> stopped = null;
+        int channel = pwm.address();
+        Board board;
+
+        synchronized (this) {
+            board = this.boards.get(pwm.getPwmDevice());
+            if (board != null && board.pins[channel] == pwm) {
+                stopped = board.futures[channel];
+                board.release(channel);
+                if (board.moving == 0) {
+                    board.cancel();
+                }
+            }
+        }
+        if (stopped != null) {
+            stopped.cancel(false);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void stop(ServoPwmPiDevice device) {
+        List<CompletableFuture<?>> stopped = new ArrayList<>();
+        Board board;
+
+        synchronized (this) {
+            board = this.boards.get(device);
+            if (board != null) {
+                stopBoard(board, stopped);
+            }
+        }
+        for (CompletableFuture<?> future : stopped) {
+            future.cancel(false);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void stopAll() {
+        List<CompletableFuture<?>> stopped = new ArrayList<>();
+
+        synchronized (this) {
+            for (Board board : new ArrayList<>(this.boards.values())) {
+                stopBoard(board, stopped);
+            }
+        }
+        for (CompletableFuture<?> future : stopped) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Stop all moving PWM pins of a board (caller must hold engine lock)
+     *
+     * @param board board with moving PWM pins
+     * @param stopped futures of the stopped moves
+     */
+    private void stopBoard(Board board, List<CompletableFuture<?>> stopped) {
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((board.moving & (1 << channel)) != 0) {
+                stopped.add(board.futures[channel]);
+                board.release(channel);
+            }
+        }
+        board.cancel();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized boolean isMoving(ServoPwmPiPwm pwm) {
+        Board board = this.boards.get(pwm.getPwmDevice());
+
+        return board != null && board.pins[pwm.address()] == pwm;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getBus() {
+        return this.bus.getBus();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getFrameCount() {
+        return this.frames;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getLateFrameCount() {
+        return this.late_frames;
+    }
+}
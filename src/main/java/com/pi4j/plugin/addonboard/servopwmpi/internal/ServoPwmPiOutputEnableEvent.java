@@ -0,0 +1,44 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event of the shared output enable (OE) control of all
+ * Servo PWM Pi boards. Disabled by default.
+ */
+@Name("com.pi4j.plugin.addonboard.servopwmpi.OutputEnable")
+@Label("Output Enable")
+@Category({"Pi4J", "Servo PWM Pi"})
+@Description("PWM outputs of all Servo PWM Pi boards enabled or disabled via the OE control GPIO pin")
+@Enabled(false)
+public final class ServoPwmPiOutputEnableEvent extends jdk.jfr.Event {
+
+    // JFR event type, checked before allocating an event
+    private static final EventType EVENT_TYPE = EventType.getEventType(ServoPwmPiOutputEnableEvent.class);
+
+    @Label("Enabled")
+    boolean enabled;
+
+    /**
+     * Emit an output enable event
+     *
+     * @param enabled true if the outputs have been enabled
+     */
+    public static void emit(boolean enabled) {
+        ServoPwmPiOutputEnableEvent event;
+
+        if (!EVENT_TYPE.isEnabled()) {
+            return;
+        }
+        event = new ServoPwmPiOutputEnableEvent();
+        if (event.shouldCommit()) {
+            event.enabled = enabled;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+
+/**
+ * Phase-shift allocator of a Servo PWM Pi board
+ * <p>
+ *  Spreads the HIGH periods of the PWM pins across the 4096-step PWM frame to
+ *  bound the number of simultaneously switched-on outputs and to avoid
+ *  coinciding switching edges. The frame is divided into {@link #BIN_COUNT}
+ *  bins. For each bin the allocator tracks how many PWM pins are HIGH
+ *  (load) and how many rising and falling edges fall into it.
+ *  <p>
+ *  PWM pins are placed incrementally: a PWM pin whose duty-cycle changes is
+ *  placed at the offset with the lowest peak load, then the lowest number of
+ *  coinciding edges, then the lowest accumulated load. A PWM pin keeps its
+ *  current offset if that offset is as good as the best one, so phase-shifts
+ *  do not move without need. {@link #rebalance(int[], int[]) Rebalancing}
+ *  places all allocated PWM pins again, widest first.
+ *  PWM pins with explicit phase-shift or LEDn counts are reserved and
+ *  considered as fixed load. Fully on PWM pins are HIGH in every bin
+ *  without switching edges, i. e. they count as constant load.
+ *  All methods are guarded by the allocator monitor.
+ */
+final class ServoPwmPiPhaseAllocator implements SERVOPWMPI {
+
+    // load profile resolution
+    static final int BIN_COUNT = 64;
+    static final int BIN_STEPS = PWM_STEPS / BIN_COUNT;
+
+    // number of HIGH PWM pins, rising and falling edges per bin
+    private final int[] load = new int[BIN_COUNT];
+    private final int[] rising = new int[BIN_COUNT];
+    private final int[] falling = new int[BIN_COUNT];
+
+    // LEDn_ON count and number of HIGH steps per PWM pin (width 0: not placed)
+    private final int[] offsets = new int[PWM_CHANNEL_COUNT];
+    private final int[] widths = new int[PWM_CHANNEL_COUNT];
+
+    // PWM pins placed by the allocator, one bit per PWM pin
+    private int allocated = 0;
+
+    /**
+     * Place a PWM pin with auto-configured phase-shift
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param width number of PWM counter steps the PWM signal is HIGH per period
+     * @return phase-shift (LEDn_ON count) of the PWM pin
+     */
+    synchronized int allocate(int channel, int width) {
+        int current = -1;
+        long current_cost = Long.MAX_VALUE;
+        long best_cost = Long.MAX_VALUE;
+        int best = 0;
+        long cost;
+
+        if (this.widths[channel] > 0 && (this.allocated & (1 << channel)) != 0) {
+            current = this.offsets[channel];
+        }
+        remove(channel);
+        if (width <= 0) {
+            // fully off: no load, no switching edges
+            return 0;
+        }
+        if (width >= PWM_STEPS) {
+            // fully on: constant load without switching edges
+            add(channel, 0, PWM_STEPS);
+            return 0;
+        }
+        for (int bin = 0; bin < BIN_COUNT; bin++) {
+            cost = cost(bin * BIN_STEPS, width);
+            if (cost < best_cost) {
+                best_cost = cost;
+                best = bin * BIN_STEPS;
+            }
+        }
+        if (current >= 0) {
+            current_cost = cost(current, width);
+        }
+        if (current_cost <= best_cost) {
+            best = current;
+        }
+        add(channel, best, width);
+        this.allocated |= (1 << channel);
+        return best;
+    }
+
+    /**
+     * Reserve PWM pin with explicit phase-shift or LEDn counts
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param offset phase-shift (LEDn_ON count) of the PWM pin
+     * @param width number of PWM counter steps the PWM signal is HIGH per period
+     */
+    synchronized void reserve(int channel, int offset, int width) {
+        remove(channel);
+        this.allocated &= ~(1 << channel);
+        if (width > 0) {
+            add(channel, offset & (PWM_STEPS - 1), Math.min(width, PWM_STEPS));
+        }
+    }
+
+    /**
+     * Release a PWM pin, e. g. after it has been turned off
+     *
+     * @param channel PWM pin (LEDn) address
+     */
+    synchronized void release(int channel) {
+        remove(channel);
+        this.allocated &= ~(1 << channel);
+    }
+
+    /**
+     * Place all allocated PWM pins again, widest first
+     *
+     * @param onCounts LEDn_ON counts of moved PWM pins indexed by PWM pin address
+     * @param offCounts LEDn_OFF counts of moved PWM pins indexed by PWM pin address
+     * @return moved PWM pins, one bit per PWM pin (LED0 = bit 0)
+     */
+    synchronized int rebalance(int[] onCounts, int[] offCounts) {
+        int[] previous = new int[PWM_CHANNEL_COUNT];
+        int[] width = new int[PWM_CHANNEL_COUNT];
+        int pending = this.allocated;
+        int moved = 0;
+        int widest;
+
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            if ((pending & (1 << channel)) != 0) {
+                previous[channel] = this.offsets[channel];
+                width[channel] = this.widths[channel];
+                remove(channel);
+            }
+        }
+        while (pending != 0) {
+            widest = -1;
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                if ((pending & (1 << channel)) != 0 && (widest < 0 || width[channel] > width[widest])) {
+                    widest = channel;
+                }
+            }
+            pending &= ~(1 << widest);
+            // placed from scratch, i. e. without preference for the previous offset
+            this.allocated &= ~(1 << widest);
+            allocate(widest, width[widest]);
+            if (this.offsets[widest] != previous[widest]) {
+                onCounts[widest] = this.offsets[widest];
+                offCounts[widest] = (this.offsets[widest] + width[widest]) & (PWM_STEPS - 1);
+                moved |= (1 << widest);
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Get allocated phase-shift of a PWM pin
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return phase-shift (LEDn_ON count) or -1 if the PWM pin has not been placed by the allocator
+     */
+    synchronized int getOffset(int channel) {
+        if ((this.allocated & (1 << channel)) == 0) {
+            return -1;
+        }
+        return this.offsets[channel];
+    }
+
+    /**
+     * Get the maximum number of PWM pins that are HIGH at the same time
+     * (at load profile resolution)
+     *
+     * @return peak load
+     */
+    synchronized int getPeakLoad() {
+        int peak = 0;
+
+        for (int bin = 0; bin < BIN_COUNT; bin++) {
+            peak = Math.max(peak, this.load[bin]);
+        }
+        return peak;
+    }
+
+    /**
+     * Cost of placing a HIGH period: peak load, coinciding edges, accumulated load
+     */
+    private long cost(int offset, int width) {
+        int first = offset / BIN_STEPS;
+        int bins = binCount(offset, width);
+        int peak = 0;
+        int sum = 0;
+        int edges;
+        int bin;
+
+        for (int i = 0; i < bins; i++) {
+            bin = (first + i) % BIN_COUNT;
+            peak = Math.max(peak, this.load[bin]);
+            sum += this.load[bin];
+        }
+        edges = this.rising[first] + this.falling[((offset + width) & (PWM_STEPS - 1)) / BIN_STEPS];
+        return ((long) peak << 32) | ((long) edges << 16) | sum;
+    }
+
+    /**
+     * Add a HIGH period to the load profile
+     */
+    private void add(int channel, int offset, int width) {
+        int first = offset / BIN_STEPS;
+        int bins = binCount(offset, width);
+
+        for (int i = 0; i < bins; i++) {
+            this.load[(first + i) % BIN_COUNT]++;
+        }
+        if (width < PWM_STEPS) {
+            this.rising[first]++;
+            this.falling[((offset + width) & (PWM_STEPS - 1)) / BIN_STEPS]++;
+        }
+        this.offsets[channel] = offset;
+        this.widths[channel] = width;
+    }
+
+    /**
+     * Remove the HIGH period of a PWM pin from the load profile
+     */
+    private void remove(int channel) {
+        int offset = this.offsets[channel];
+        int width = this.widths[channel];
+        int first = offset / BIN_STEPS;
+        int bins;
+
+        if (width == 0) {
+            return;
+        }
+        bins = binCount(offset, width);
+        for (int i = 0; i < bins; i++) {
+            this.load[(first + i) % BIN_COUNT]--;
+        }
+        if (width < PWM_STEPS) {
+            this.rising[first]--;
+            this.falling[((offset + width) & (PWM_STEPS - 1)) / BIN_STEPS]--;
+        }
+        this.widths[channel] = 0;
+    }
+
+    /**
+     * Number of bins touched by a HIGH period
+     */
+    private static int binCount(int offset, int width) {
+        return Math.min((offset % BIN_STEPS + width + BIN_STEPS - 1) / BIN_STEPS, BIN_COUNT);
+    }
+}
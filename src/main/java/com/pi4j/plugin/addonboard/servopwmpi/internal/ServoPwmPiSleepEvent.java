@@ -0,0 +1,28 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event of a Servo PWM Pi board entering or leaving
+ * SLEEP mode. Disabled by default.
+ */
+@Name("com.pi4j.plugin.addonboard.servopwmpi.Sleep")
+@Label("Sleep/Wake")
+@Category({"Pi4J", "Servo PWM Pi"})
+@Description("Oscillator of a Servo PWM Pi board switched off (SLEEP mode) or on")
+@Enabled(false)
+final class ServoPwmPiSleepEvent extends jdk.jfr.Event {
+
+    @Label("I2C Bus")
+    int bus;
+
+    @Label("I2C Address")
+    int address;
+
+    @Label("Sleeping")
+    boolean sleeping;
+}
@@ -0,0 +1,187 @@
+package com.pi4j.plugin.addonboard.servopwmpi.internal;
+
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+
+/**
+ * Trajectory of a single PWM pin from a start to a target duty-cycle
+ * <p>
+ *  The trajectory is a normalised profile s(u) scaled to the distance and
+ *  the duration of the move, u being the elapsed share of the duration:
+ *  <ul>
+ *  <li>{@link SERVOPWMPI.MotionProfile#LINEAR LINEAR}: constant velocity, s(u) = u</li>
+ *  <li>{@link SERVOPWMPI.MotionProfile#TRAPEZOIDAL TRAPEZOIDAL}: constant
+ *      acceleration for the ramp share of the duration, constant velocity,
+ *      constant deceleration for the ramp share of the duration</li>
+ *  <li>{@link SERVOPWMPI.MotionProfile#S_CURVE S_CURVE}: quintic
+ *      s(u) = 10u^3 - 15u^4 + 6u^5 with zero velocity and acceleration at
+ *      both ends, i. e. jerk-limited</li>
+ *  </ul>
+ *  Trajectories are immutable.
+ */
+final class ServoPwmPiTrajectory implements SERVOPWMPI {
+
+    // S_CURVE peak velocity and peak acceleration relative to distance/duration and distance/duration^2
+    private static final double S_CURVE_PEAK_VELOCITY = 15.0 / 8.0;
+    private static final double S_CURVE_PEAK_ACCELERATION = 10.0 / Math.sqrt(3.0);
+
+    private final MotionProfile profile;
+    private final float start;
+    private final float distance;
+    private final long start_time;
+    private final long duration;
+
+    // TRAPEZOIDAL: share of the duration spent accelerating and normalised peak velocity
+    private final double ramp;
+    private final double peak;
+
+    private ServoPwmPiTrajectory(MotionProfile profile, float start, float target, long startTime, long duration, double ramp) {
+        this.profile = profile;
+        this.start = start;
+        this.distance = target - start;
+        this.start_time = startTime;
+        this.duration = duration;
+        this.ramp = ramp;
+        this.peak = 1.0 / (1.0 - ramp);
+    }
+
+    /**
+     * Create a trajectory of a given duration
+     *
+     * @param profile {@link SERVOPWMPI.MotionProfile}
+     * @param start start duty-cycle (range: 0-100)
+     * @param target target duty-cycle (range: 0-100)
+     * @param startTime start time in nanoseconds ({@link System#nanoTime()})
+     * @param duration duration in nanoseconds
+     * @return a {@link ServoPwmPiTrajectory} object.
+     */
+    static ServoPwmPiTrajectory ofDuration(MotionProfile profile, float start, float target, long startTime, long duration) {
+        return new ServoPwmPiTrajectory(profile, start, target, startTime, Math.max(duration, 0), MOTION_RAMP_FRACTION);
+    }
+
+    /**
+     * Create the fastest trajectory within velocity and acceleration limits
+     * <p>
+     *  {@link SERVOPWMPI.MotionProfile#LINEAR LINEAR} moves at maximum
+     *  velocity and ignores the acceleration limit.
+     *
+     * @param profile {@link SERVOPWMPI.MotionProfile}
+     * @param start start duty-cycle (range: 0-100)
+     * @param target target duty-cycle (range: 0-100)
+     * @param startTime start time in nanoseconds ({@link System#nanoTime()})
+     * @param maxVelocity maximum velocity in duty-cycle percent per second
+     * @param maxAcceleration maximum acceleration in duty-cycle percent per second^2
+     * @return a {@link ServoPwmPiTrajectory} object.
+     */
+    static ServoPwmPiTrajectory ofLimits(MotionProfile profile, float start, float target, long startTime, float maxVelocity, float maxAcceleration) {
+        double distance = Math.abs(target - start);
+        double seconds;
+        double ramp = MOTION_RAMP_FRACTION;
+        double accelerate;
+
+        switch (profile) {
+            case TRAPEZOIDAL:
+                accelerate = maxVelocity / maxAcceleration;
+                if (maxVelocity * accelerate > distance) {
+                    // maximum velocity is not reached: triangular profile
+                    accelerate = Math.sqrt(distance / maxAcceleration);
+                    seconds = 2.0 * accelerate;
+                } else {
+                    seconds = distance / maxVelocity + accelerate;
+                }
+                if (seconds > 0) {
+                    ramp = accelerate / seconds;
+                }
+                break;
+            case S_CURVE:
+                seconds = Math.max(S_CURVE_PEAK_VELOCITY * distance / maxVelocity,
+                                   Math.sqrt(S_CURVE_PEAK_ACCELERATION * distance / maxAcceleration));
+                break;
+            case LINEAR:
+            default:
+                seconds = distance / maxVelocity;
+                break;
+        }
+        return new ServoPwmPiTrajectory(profile, start, target, startTime, Math.round(seconds * 1e9), ramp);
+    }
+
+    /**
+     * Create a copy of this trajectory stretched to another duration
+     * <p>
+     *  The profile keeps its shape, i. e. velocity and acceleration scale
+     *  down when the trajectory is stretched.
+     *
+     * @param duration new duration in nanoseconds
+     * @return a {@link ServoPwmPiTrajectory} object.
+     */
+    ServoPwmPiTrajectory withDuration(long duration) {
+        return new ServoPwmPiTrajectory(this.profile, this.start, this.start + this.distance, this.start_time, duration, this.ramp);
+    }
+
+    /**
+     * Get the duty-cycle setpoint at a given time
+     *
+     * @param now time in nanoseconds ({@link System#nanoTime()})
+     * @return duty-cycle setpoint (range: 0-100)
+     */
+    float position(long now) {
+        if (isFinished(now)) {
+            return this.start + this.distance;
+        }
+        if (now <= this.start_time) {
+            return this.start;
+        }
+        return this.start + (float) (this.distance * shape((double) (now - this.start_time) / this.duration));
+    }
+
+    /**
+     * Check if the trajectory has reached its target
+     *
+     * @param now time in nanoseconds ({@link System#nanoTime()})
+     * @return true if the target duty-cycle is reached
+     */
+    boolean isFinished(long now) {
+        return now - this.start_time >= this.duration;
+    }
+
+    /**
+     * <p>Getter for the field <code>duration</code>.</p>
+     *
+     * @return duration in nanoseconds
+     */
+    long getDuration() {
+        return this.duration;
+    }
+
+    /**
+     * <p>Getter for the target duty-cycle.</p>
+     *
+     * @return target duty-cycle (range: 0-100)
+     */
+    float getTarget() {
+        return this.start + this.distance;
+    }
+
+    /**
+     * Normalised profile
+     *
+     * @param u elapsed share of the duration (range: 0-1)
+     * @return covered share of the distance (range: 0-1)
+     */
+    private double shape(double u) {
+        switch (this.profile) {
+            case TRAPEZOIDAL:
+                if (u < this.ramp) {
+                    return 0.5 * this.peak * u * u / this.ramp;
+                }
+                if (u <= 1.0 - this.ramp) {
+                    return this.peak * (u - 0.5 * this.ramp);
+                }
+                return 1.0 - 0.5 * this.peak * (1.0 - u) * (1.0 - u) / this.ramp;
+            case S_CURVE:
+                return u * u * u * (10.0 + u * (6.0 * u - 15.0));
+            case LINEAR:
+            default:
+                return u;
+        }
+    }
+}
@@ -37,18 +37,36 @@ import com.pi4j.io.gpio.digital.DigitalState;
 import com.pi4j.io.gpio.digital.DigitalStateChangeEvent;
 import com.pi4j.io.i2c.I2C;
 import com.pi4j.platform.Platform;
+import com.pi4j.platform.exception.PlatformNotFoundException;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiChannelLatency;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiFrequencyPlan;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiGroup;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiMotion;
 import com.pi4j.provider.exception.ProviderException;
 import com.pi4j.provider.exception.ProviderNotFoundException;
 
 import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiBus;
 import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPi;
 import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiDevice;
 import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiDeviceImpl;
+import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiGroupImpl;
+import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiOutputEnableEvent;
 import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiProvider;
 import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
 import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwmConfig;
 import com.pi4j.plugin.linuxfs.provider.gpio.digital.LinuxFsDigitalOutputProvider;
 
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,9 +80,14 @@ public class ServoPwmPiPlatform extends AddOnBoardPlatform implements Platform {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private static final int SERVO_PWM_PI_DEFAULT_I2C_ADDRESS = SERVOPWMPI.DEFAULT_ADDRESS;
     private static final int SERVO_PWM_PI_I2C_BUS = 1;
+    private final int i2cBus;
     private int i2cAddress = -1;
 
     protected ServoPwmPiDevice device = null;
+    // motion engine of the I2C bus, acquired on first use
+    protected ServoPwmPiMotion motion = null;
+    // JMX name of the registered metrics MBean (null if not registered)
+    private ObjectName mbeanName = null;
     // local/internal GPIO reference for output enable/disable of the hardware chip
     protected static DigitalOutput invOE = null;
     
@@ -76,12 +99,31 @@ public class ServoPwmPiPlatform extends AddOnBoardPlatform implements Platform {
     }
 
     public ServoPwmPiPlatform(int i2c_address) {
-        super(ServoPwmPi.SERVOPWMPIZERO_PLATFORM_ID + String.format("_%d", i2c_address),
-              ServoPwmPi.SERVOPWMPIZERO_PLATFORM_NAME + String.format(" (i2c: 0x%x)", i2c_address),
+        this(SERVO_PWM_PI_I2C_BUS, i2c_address);
+    }
+
+    /**
+     * <p>Constructor for a Servo PWM Pi board on another I2C bus than the
+     * Raspberry Pi's default I2C bus 1.</p>
+     * <p>
+     *  Platform and I2C ids of boards on the default I2C bus do not contain
+     *  the bus number.
+     *
+     * @param i2c_bus I2C bus number
+     * @param i2c_address 7-bit I2C address
+     */
+    public ServoPwmPiPlatform(int i2c_bus, int i2c_address) {
+        super(ServoPwmPi.SERVOPWMPIZERO_PLATFORM_ID + busSuffix(i2c_bus, "_%d") + String.format("_%d", i2c_address),
+              ServoPwmPi.SERVOPWMPIZERO_PLATFORM_NAME + String.format(" (i2c: %s0x%x)", busSuffix(i2c_bus, "bus %d, "), i2c_address),
               ServoPwmPi.SERVOPWMPIZERO_PLATFORM_DESCRIPTION);
+        this.i2cBus = i2c_bus;
         this.i2cAddress = i2c_address;
     }
 
+    private static String busSuffix(int i2c_bus, String format) {
+        return (i2c_bus == SERVO_PWM_PI_I2C_BUS) ? "" : String.format(format, i2c_bus);
+    }
+
     /** {@inheritDoc} */
     @Override
     public int priority() {
@@ -161,9 +203,9 @@ public class ServoPwmPiPlatform extends AddOnBoardPlatform implements Platform {
         this.context = context;
         if (context.hasProvider(IOType.I2C)) {
             var i2cConfig = I2C.newConfigBuilder(context)
-                    .bus(SERVO_PWM_PI_I2C_BUS)
+                    .bus(this.i2cBus)
                     .device(this.i2cAddress)
-                    .id("servopwmpizero-i2c" + String.format("-0x%x", this.i2cAddress))
+                    .id("servopwmpizero-i2c" + busSuffix(this.i2cBus, "-%d") + String.format("-0x%x", this.i2cAddress))
                     .name("Servo PWM Pi I2C device")
                     .build();
             i2c = context.i2c().create(i2cConfig);
@@ -188,10 +230,30 @@ public class ServoPwmPiPlatform extends AddOnBoardPlatform implements Platform {
             logger.info(String.format("output polarity mode (INVRT): %s (%d)", this.device.getOutputPolarity().toString(), this.device.getOutputPolarity().getBit()));
             logger.info(String.format("outputs change mode (OCH): %s (%d)", this.device.getOutputsChangeMode().toString(), this.device.getOutputsChangeMode().getBit()));
             logger.info(String.format("O\u0305E\u0305 pin not enabled mode (OUTNE): %s (%s)", this.device.getOutNEMode().toString(), this.device.getOutNEModeBitstring()));
+            try {
+                configureExternalClock(context);
+                configureOscillatorCorrection(context);
+            } catch (InitializeException e) {
+                this.device.shutdown(context);
+                this.device = null;
+                throw e;
+            }
+            if (this.device.isExternalClock()) {
+                logger.info(String.format("external clock (EXTCLK): %.0f Hz", this.device.getExternalClock()));
+            }
+            if (this.device.getOscillatorCorrection() != 1.0) {
+                logger.info(String.format("oscillator correction: %.5f", this.device.getOscillatorCorrection()));
+            }
             logger.info(String.format("PWM frequency: %d Hz", this.device.getFrequency()));
+            logger.info(String.format("register auto-increment (AI): %s", this.device.isAutoIncrement() ? "enabled" : "disabled"));
             if (this.device.isSleeping()) {
                 logger.info("oscillator off (SLEEP mode)");
             }
+            if (Boolean.parseBoolean(context.properties().get(ServoPwmPi.SERVOPWMPIZERO_LATENCY_TRACING_KEY, "false").trim())) {
+                this.device.getLatencyTracer().setEnabled(true);
+                logger.info("command latency tracing enabled");
+            }
+            registerMBean(context);
         } else {
             logger.error("i2c provider not in context");
             throw new InitializeException("");
@@ -208,11 +270,309 @@ public class ServoPwmPiPlatform extends AddOnBoardPlatform implements Platform {
         return this.getPwmDevice();
     }
 
+    /**
+     * Create a group of Servo PWM Pi boards sharing an I2C group address
+     * <p>
+     *  Configures the group address on every member board and enables the
+     *  board's response to it. Writes of the returned group update all member
+     *  boards in one I2C transaction.
+     *
+     * @param context PI4J Context
+     * @param group group address register (SUBADR1 - SUBADR3, ALLCALLADR)
+     * @param address 7-bit I2C group address, e. g. {@link SERVOPWMPI#DEFAULT_ALLCALLADR}
+     * @param members initialised Servo PWM Pi platforms of the member boards, all on the same I2C bus
+     * @return a {@link ServoPwmPiGroup} object.
+     */
+    public static ServoPwmPiGroup createGroup(Context context, SERVOPWMPI.GroupAddress group, int address, ServoPwmPiPlatform... members) {
+        ServoPwmPiGroup pwmGroup;
+        I2C i2c;
+        int bus = (members.length > 0) ? members[0].i2cBus : SERVO_PWM_PI_I2C_BUS;
+
+        for (ServoPwmPiPlatform member : members) {
+            if (member.device == null) {
+                throw new ProviderException("ServoPwmPiPlatform::createGroup(...) member platform " + member.id + " has not been initialised.");
+            }
+            if (member.i2cBus != bus) {
+                throw new IllegalArgumentException("ServoPwmPiPlatform::createGroup(...) member platform " + member.id + " is not on I2C bus " + bus);
+            }
+            if (member.i2cAddress == address) {
+                throw new IllegalArgumentException("ServoPwmPiPlatform::createGroup(...) group address " + String.format("0x%x", address) + " is used by member platform " + member.id);
+            }
+        }
+        var i2cConfig = I2C.newConfigBuilder(context)
+                .bus(bus)
+                .device(address)
+                .id("servopwmpizero-i2c-group" + busSuffix(bus, "-%d") + String.format("-0x%x", address))
+                .name("Servo PWM Pi I2C group " + group.toString())
+                .build();
+        i2c = context.i2c().create(i2cConfig);
+        pwmGroup = new ServoPwmPiGroupImpl(i2c, group);
+        for (ServoPwmPiPlatform member : members) {
+            pwmGroup.addMember(member.device);
+        }
+        LoggerFactory.getLogger(ServoPwmPiPlatform.class).info(String.format("created I2C group %s (0x%x) with %d Servo PWM Pi boards", group.toString(), address, members.length));
+        return pwmGroup;
+    }
+
+    /**
+     * Get the motion engine of the I2C bus of this board
+     * <p>
+     *  All boards on the same I2C bus share one motion engine, see {@link ServoPwmPiBus#getMotion()}.
+     *
+     * @return a {@link ServoPwmPiMotion} object.
+     */
+    public synchronized ServoPwmPiMotion getMotion() {
+        if (this.device == null) {
+            throw new ProviderException("ServoPwmPiPlatform::getMotion() has not been initialised.");
+        }
+        if (this.motion == null) {
+            this.motion = this.device.getBus().getMotion();
+        }
+        return this.motion;
+    }
+
+    /**
+     * Register the I2C traffic metrics of this board as JMX MBean unless
+     * disabled in the context properties (<code>servopwmpizero.jmx=false</code>)
+     * <p>
+     *  A failed registration, e. g. a platform ID already registered by another
+     *  Pi4J context, is logged and does not fail the initialization.
+     */
+    private void registerMBean(Context context) {
+        ObjectName name;
+
+        if (!Boolean.parseBoolean(context.properties().get(ServoPwmPi.SERVOPWMPIZERO_JMX_KEY, "true").trim())) {
+            return;
+        }
+        try {
+            name = new ObjectName(ServoPwmPi.SERVOPWMPIZERO_JMX_DOMAIN + ":type=ServoPwmPiPlatform,id=" + this.id);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new ServoPwmPiPlatformMetrics(this.id, this.i2cBus, this.i2cAddress, this.device), name);
+            this.mbeanName = name;
+        } catch (JMException e) {
+            logger.warn(String.format("[%s]: JMX registration of I2C metrics failed: %s", this.id, e.getMessage()));
+        }
+    }
+
+    /**
+     * Unregister the metrics MBean of this board
+     */
+    private void unregisterMBean() {
+        if (this.mbeanName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.mbeanName);
+        } catch (JMException e) {
+            logger.warn(String.format("[%s]: JMX unregistration of I2C metrics failed: %s", this.id, e.getMessage()));
+        }
+        this.mbeanName = null;
+    }
+
+    /**
+     * Switch this board to its external clock if configured in the context properties
+     * <p>
+     *  An external clock for this board
+     *  (<code>servopwmpizero.external-clock.0x40</code>) takes precedence
+     *  over an external clock for all boards
+     *  (<code>servopwmpizero.external-clock</code>).
+     */
+    private void configureExternalClock(Context context) throws InitializeException {
+        String key = ServoPwmPi.SERVOPWMPIZERO_EXTERNAL_CLOCK_KEY + String.format(".0x%x", this.i2cAddress);
+        String value;
+
+        if (!context.properties().has(key)) {
+            key = ServoPwmPi.SERVOPWMPIZERO_EXTERNAL_CLOCK_KEY;
+        }
+        value = context.properties().get(key, null);
+        if (value != null) {
+            try {
+                this.device.enableExternalClock(Double.parseDouble(value.trim()));
+            } catch (IllegalArgumentException e) {
+                logger.error(String.format("[%s]: invalid external clock %s=%s: %s", this.id, key, value, e.getMessage()));
+                throw new InitializeException("invalid external clock " + key + "=" + value);
+            }
+        }
+    }
+
+    /**
+     * Apply the oscillator correction of this board from the context properties
+     * <p>
+     *  A correction factor for this board
+     *  (<code>servopwmpizero.oscillator-correction.0x40</code>) takes
+     *  precedence over a calibration file
+     *  (<code>servopwmpizero.oscillator-calibration-file</code>), which takes
+     *  precedence over a correction factor for all boards
+     *  (<code>servopwmpizero.oscillator-correction</code>).
+     */
+    private void configureOscillatorCorrection(Context context) throws InitializeException {
+        String key = ServoPwmPi.SERVOPWMPIZERO_OSCILLATOR_CORRECTION_KEY + String.format(".0x%x", this.i2cAddress);
+        String value = null;
+
+        if (context.properties().has(key)) {
+            value = context.properties().get(key);
+        } else if (context.properties().has(ServoPwmPi.SERVOPWMPIZERO_OSCILLATOR_CALIBRATION_FILE_KEY)) {
+            key = ServoPwmPi.SERVOPWMPIZERO_OSCILLATOR_CALIBRATION_FILE_KEY;
+            if (loadOscillatorCalibration(Paths.get(context.properties().get(key)))) {
+                return;
+            }
+            key = ServoPwmPi.SERVOPWMPIZERO_OSCILLATOR_CORRECTION_KEY;
+            value = context.properties().get(key, null);
+        } else if (context.properties().has(ServoPwmPi.SERVOPWMPIZERO_OSCILLATOR_CORRECTION_KEY)) {
+            key = ServoPwmPi.SERVOPWMPIZERO_OSCILLATOR_CORRECTION_KEY;
+            value = context.properties().get(key);
+        }
+        if (value != null) {
+            try {
+                this.device.setOscillatorCorrection(Double.parseDouble(value.trim()));
+            } catch (IllegalArgumentException e) {
+                logger.error(String.format("[%s]: invalid oscillator correction %s=%s: %s", this.id, key, value, e.getMessage()));
+                throw new InitializeException("invalid oscillator correction " + key + "=" + value);
+            }
+        }
+    }
+
+    /**
+     * Load the oscillator correction of this board from a calibration file
+     * <p>
+     *  The calibration file is a properties file that maps I2C addresses of
+     *  Servo PWM Pi boards to oscillator correction factors, e. g.
+     *  <code>0x40=1.0213</code>.
+     *
+     * @param file calibration file
+     * @return true if the calibration file contains an oscillator correction for this board
+     * @throws com.pi4j.exception.InitializeException if any.
+     */
+    public boolean loadOscillatorCalibration(Path file) throws InitializeException {
+        Properties calibration = new Properties();
+        String value;
+
+        try (InputStream in = Files.newInputStream(file)) {
+            calibration.load(in);
+        } catch (java.io.IOException e) {
+            logger.error(String.format("[%s]: cannot read oscillator calibration file %s: %s", this.id, file, e.getMessage()));
+            throw new InitializeException("cannot read oscillator calibration file " + file);
+        }
+        value = calibration.getProperty(String.format("0x%x", this.i2cAddress));
+        if (value == null) {
+            value = calibration.getProperty(String.format("0x%02X", this.i2cAddress));
+        }
+        if (value == null) {
+            return false;
+        }
+        try {
+            this.device.setOscillatorCorrection(Double.parseDouble(value.trim()));
+        } catch (IllegalArgumentException e) {
+            logger.error(String.format("[%s]: invalid oscillator correction in %s: %s", this.id, file, e.getMessage()));
+            throw new InitializeException("invalid oscillator correction in " + file);
+        }
+        logger.info(String.format("[%s]: loaded oscillator correction %.5f from %s", this.id, this.device.getOscillatorCorrection(), file));
+        return true;
+    }
+
+    /**
+     * Switch this board to the clock at its EXTCLK pin
+     * <p>
+     *  EXTCLK is sticky: the board uses the external clock until power-off.
+     *  Boards fed from the same external clock run phase-coherent.
+     *
+     * @param clockFrequency frequency of the external clock in Hz (range: up to 50 MHz)
+     */
+    public void enableExternalClock(double clockFrequency) {
+        this.device.enableExternalClock(clockFrequency);
+        logger.info(String.format("[%s]: enabled external clock: %.0f Hz (PWM frequency range: %d Hz - %d Hz, PWM frequency: %d Hz)", this.id, clockFrequency,
+                this.device.getMinFrequency(), this.device.getMaxFrequency(), this.device.getActualFrequency()));
+    }
+
+    public boolean isExternalClock() {
+        return this.device.isExternalClock();
+    }
+
+    public double getExternalClock() {
+        return this.device.getExternalClock();
+    }
+
+    public double getOscillatorCorrection() {
+        return this.device.getOscillatorCorrection();
+    }
+
+    public void setOscillatorCorrection(double correction) {
+        this.device.setOscillatorCorrection(correction);
+        logger.info(String.format("[%s]: changed oscillator correction to: %.5f (actual PWM frequency: %d Hz)", this.id, correction, this.device.getActualFrequency()));
+    }
+
+    public double calibrateOscillator(double measuredFrequency) {
+        double correction = this.device.calibrateOscillator(measuredFrequency);
+        logger.info(String.format("[%s]: calibrated oscillator correction to: %.5f (measured PWM frequency: %.2f Hz)", this.id, correction, measuredFrequency));
+        return correction;
+    }
+
     public void setPwmFrequency(int frequency) {
         this.device.setFrequency(frequency);
         logger.info(String.format("[%s]: changed PWM frequency to: %d Hz", this.id, this.device.getFrequency()));
     }
 
+    /**
+     * Set the PWM frequency without blocking the calling thread
+     *
+     * @param frequency PWM frequency in Hz
+     * @return future that completes after the PWM pins have been restarted with the new PWM frequency
+     */
+    public CompletableFuture<Void> setPwmFrequencyAsync(int frequency) {
+        return this.device.setFrequencyAsync(frequency).thenRun(() -> {
+            logger.info(String.format("[%s]: changed PWM frequency to: %d Hz", this.id, this.device.getFrequency()));
+        });
+    }
+
+    /**
+     * Set the PWM frequency of several Servo PWM Pi boards in parallel
+     * <p>
+     *  PRE_SCALE is programmed on all boards first; the boards' oscillators
+     *  then settle at the same time, i. e. the reconfiguration takes one
+     *  settle period instead of one per board. The frequency is checked on
+     *  all boards before any board is reconfigured.
+     *
+     * @param frequency PWM frequency in Hz
+     * @param platforms initialised Servo PWM Pi platforms
+     * @return future that completes after the PWM pins of all boards have been restarted
+     * @throws IllegalArgumentException if the frequency is not supported by one of the boards
+     */
+    public static CompletableFuture<Void> setPwmFrequencyAsync(int frequency, ServoPwmPiPlatform... platforms) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[platforms.length];
+
+        for (ServoPwmPiPlatform platform : platforms) {
+            if (platform.device == null) {
+                throw new ProviderException("ServoPwmPiPlatform::setPwmFrequencyAsync(...) platform " + platform.id + " has not been initialised.");
+            }
+            platform.device.checkFrequency(frequency);
+        }
+        for (int i = 0; i < platforms.length; i++) {
+            futures[i] = platforms[i].setPwmFrequencyAsync(frequency);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Rank the PRE_SCALE values of this board for a servo pulse-width range
+     * <p>
+     *  Uses the oscillator clock of this board, i. e. the corrected internal
+     *  oscillator or the external clock.
+     *
+     * @param minPulse shortest pulse width in microseconds
+     * @param maxPulse longest pulse width in microseconds
+     * @param targetFrequency preferred PWM frequency in Hz
+     * @param minFrequency lowest tolerated PWM frequency in Hz
+     * @param maxFrequency highest tolerated PWM frequency in Hz
+     * @return plans ranked best first
+     */
+    public List<ServoPwmPiFrequencyPlan> planPwmFrequency(int minPulse, int maxPulse, double targetFrequency, double minFrequency, double maxFrequency) {
+        return ServoPwmPiFrequencyPlan.plan(this.device.getOscillatorClock(), minPulse, maxPulse, targetFrequency, minFrequency, maxFrequency);
+    }
+
+    public void applyPwmFrequencyPlan(ServoPwmPiFrequencyPlan plan) {
+        this.device.setPreScale(plan.getPreScale());
+        logger.info(String.format("[%s]: applied PWM frequency plan: %s", this.id, plan.toString()));
+    }
+
     public int getActualPwmFrequency() {
         return this.device.getActualFrequency();
     }
@@ -225,6 +585,28 @@ public class ServoPwmPiPlatform extends AddOnBoardPlatform implements Platform {
         return this.getPwmFrequency();
     }
     
+    public void setChannels(int channelMask, int[] onCounts, int[] offCounts) {
+        this.device.setChannels(channelMask, onCounts, offCounts);
+    }
+
+    public void setChannels(int channelMask, float[] dutyCycles) {
+        this.device.setChannels(channelMask, dutyCycles);
+    }
+
+    public void allSet(int onCount, int offCount) {
+        this.device.allSet(onCount, offCount);
+    }
+
+    public void allOff() {
+        this.device.allOff();
+        logger.info(String.format("[%s]: all PWM pins switched off", this.id));
+    }
+
+    public void allFullOn() {
+        this.device.allFullOn();
+        logger.info(String.format("[%s]: all PWM pins switched full on", this.id));
+    }
+
     public boolean isSleeping() {
         return this.device.isSleeping();
     }
@@ -249,12 +631,14 @@ public class ServoPwmPiPlatform extends AddOnBoardPlatform implements Platform {
     public static void outputEnable() {
         if (invOE != null) {
             invOE.low();
+            ServoPwmPiOutputEnableEvent.emit(true);
         }
     }
     
     public static void outputDisable() {
         if (invOE != null) {
             invOE.high();
+            ServoPwmPiOutputEnableEvent.emit(false);
         }
     }
     
@@ -278,6 +662,115 @@ public class ServoPwmPiPlatform extends AddOnBoardPlatform implements Platform {
         logger.info(String.format("[%s]: changed outputs change mode (OCH) mode to: %s", this.id, mode.toString()));
     }
 
+    public boolean isAutoIncrement() {
+        return this.device.isAutoIncrement();
+    }
+
+    public void setAutoIncrement(boolean enable) {
+        this.device.setAutoIncrement(enable);
+        logger.info(String.format("[%s]: register auto-increment (AI) %s", this.id, enable ? "enabled" : "disabled"));
+    }
+
+    public SERVOPWMPI.RegisterCachePolicy getRegisterCachePolicy() {
+        return this.device.getRegisterCachePolicy();
+    }
+
+    public void setRegisterCachePolicy(SERVOPWMPI.RegisterCachePolicy policy) {
+        this.device.setRegisterCachePolicy(policy);
+        logger.info(String.format("[%s]: changed control register cache policy to: %s", this.id, policy.toString()));
+    }
+
+    public void setRegisterCachePolicy(SERVOPWMPI.RegisterCachePolicy policy, long revalidateMillis) {
+        this.device.setRegisterRevalidateInterval(revalidateMillis);
+        this.setRegisterCachePolicy(policy);
+    }
+
+    public void invalidateRegisterCache() {
+        this.device.invalidateRegisterCache();
+    }
+
+    public long getElidedWriteCount() {
+        return this.device.getElidedWriteCount();
+    }
+
+    public long getElidedByteCount() {
+        return this.device.getElidedByteCount();
+    }
+
+    public SERVOPWMPI.WriteMode getWriteMode() {
+        return this.device.getWriteMode();
+    }
+
+    public void setWriteMode(SERVOPWMPI.WriteMode mode) {
+        this.device.setWriteMode(mode);
+        logger.info(String.format("[%s]: changed LEDn register write mode to: %s", this.id, mode.toString()));
+    }
+
+    public void flushPendingUpdates() {
+        this.device.flushPendingUpdates();
+    }
+
+    public long getSupersededWriteCount() {
+        return this.device.getSupersededWriteCount();
+    }
+
+    public boolean isLatencyTracing() {
+        return this.device.getLatencyTracer().isEnabled();
+    }
+
+    public void setLatencyTracing(boolean enable) {
+        this.device.getLatencyTracer().setEnabled(enable);
+        logger.info(String.format("[%s]: command latency tracing %s", this.id, enable ? "enabled" : "disabled"));
+    }
+
+    public ServoPwmPiChannelLatency getCommandLatency(int channel) {
+        return this.device.getLatencyTracer().getChannel(channel);
+    }
+
+    public void resetCommandLatency() {
+        this.device.getLatencyTracer().reset();
+    }
+
+    public SERVOPWMPI.PhaseAllocation getPhaseAllocation() {
+        return this.device.getPhaseAllocation();
+    }
+
+    public void setPhaseAllocation(SERVOPWMPI.PhaseAllocation allocation) {
+        this.device.setPhaseAllocation(allocation);
+        logger.info(String.format("[%s]: changed phase-shift allocation to: %s", this.id, allocation.toString()));
+    }
+
+    public void rebalancePhases() {
+        this.device.rebalancePhases();
+        logger.info(String.format("[%s]: rebalanced phase-shifts, peak channel load: %d", this.id, this.device.getPeakChannelLoad()));
+    }
+
+    public int getPeakChannelLoad() {
+        return this.device.getPeakChannelLoad();
+    }
+
+    public ServoPwmPiBus getBus() {
+        return this.device.getBus();
+    }
+
+    public int getBusPriority() {
+        return this.device.getBusPriority();
+    }
+
+    public void setBusPriority(int priority) {
+        this.device.setBusPriority(priority);
+        logger.info(String.format("[%s]: changed I2C bus priority to: %d", this.id, priority));
+    }
+
+    public void setBusArbitration(SERVOPWMPI.BusArbitration arbitration) {
+        this.device.getBus().setArbitration(arbitration);
+        logger.info(String.format("[%s]: changed I2C bus %d arbitration to: %s", this.id, this.device.getBus().getBus(), arbitration.toString()));
+    }
+
+    public void batch(Runnable operations) {
+        this.device.batch(operations);
+    }
+
     /** {@inheritDoc} */
     @Override
     public ServoPwmPiPlatform shutdown(Context context) throws ShutdownException {
@@ -287,9 +780,23 @@ public class ServoPwmPiPlatform extends AddOnBoardPlatform implements Platform {
                 pwmProvider.remove(this);
             }
         }
+        synchronized (this) {
+            if (this.motion != null) {
+                this.motion.stop(this.device);
+                this.motion = null;
+            }
+        }
+        unregisterMBean();
         this.device.shutdown(context);
         this.device = null;
-        if (context.platforms().getAll(this.getClass()).entrySet().size() == 1) {
+        int platforms;
+        try {
+            platforms = context.platforms().getAll(this.getClass()).entrySet().size();
+        } catch (PlatformNotFoundException e) {
+            // platform initialized directly, i. e. not part of the Pi4J context
+            platforms = 0;
+        }
+        if (platforms <= 1) {
             /**
              * No more Servo PWM Pi platforms left
              * Shutdown and remove output enable control GPIO pin if still in Pi4J registry
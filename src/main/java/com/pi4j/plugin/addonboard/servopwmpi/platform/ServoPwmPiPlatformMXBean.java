@@ -0,0 +1,234 @@
+package com.pi4j.plugin.addonboard.servopwmpi.platform;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiPlatformMXBean.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * <p>JMX management interface of a Servo PWM Pi platform.</p>
+ * <p>
+ *  Exposes the I2C traffic metrics and the traced command latencies of the
+ *  platform's board. Each initialized platform is registered as
+ *  <code>com.pi4j.plugin.addonboard.servopwmpi:type=ServoPwmPiPlatform,id=&lt;platform id&gt;</code>.
+ *  Durations are in nanoseconds, percentiles are accurate to 12.5 %.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public interface ServoPwmPiPlatformMXBean {
+
+    /**
+     * <p>getPlatformId.</p>
+     *
+     * @return platform ID
+     */
+    String getPlatformId();
+
+    /**
+     * <p>getI2cBus.</p>
+     *
+     * @return I2C bus number of the board
+     */
+    int getI2cBus();
+
+    /**
+     * <p>getI2cAddress.</p>
+     *
+     * @return 7-bit I2C address of the board
+     */
+    int getI2cAddress();
+
+    /**
+     * <p>getReadTransactionCount.</p>
+     *
+     * @return number of completed I2C read transactions
+     */
+    long getReadTransactionCount();
+
+    /**
+     * <p>getWriteTransactionCount.</p>
+     *
+     * @return number of completed I2C write transactions
+     */
+    long getWriteTransactionCount();
+
+    /**
+     * <p>getReadByteCount.</p>
+     *
+     * @return number of read data bytes
+     */
+    long getReadByteCount();
+
+    /**
+     * <p>getWrittenByteCount.</p>
+     *
+     * @return number of written data bytes, register addresses excluded
+     */
+    long getWrittenByteCount();
+
+    /**
+     * <p>getFailedTransactionCount.</p>
+     *
+     * @return number of failed I2C read and write transactions
+     */
+    long getFailedTransactionCount();
+
+    /**
+     * <p>getWriteLatencyMean.</p>
+     *
+     * @return mean duration of I2C write transactions
+     */
+    double getWriteLatencyMean();
+
+    /**
+     * <p>getWriteLatencyP50.</p>
+     *
+     * @return median duration of I2C write transactions
+     */
+    long getWriteLatencyP50();
+
+    /**
+     * <p>getWriteLatencyP99.</p>
+     *
+     * @return 99th percentile duration of I2C write transactions
+     */
+    long getWriteLatencyP99();
+
+    /**
+     * <p>getWriteLatencyP999.</p>
+     *
+     * @return 99.9th percentile duration of I2C write transactions
+     */
+    long getWriteLatencyP999();
+
+    /**
+     * <p>getWriteLatencyMax.</p>
+     *
+     * @return longest I2C write transaction
+     */
+    long getWriteLatencyMax();
+
+    /**
+     * <p>getLockWaitCount.</p>
+     *
+     * @return number of I2C bus acquisitions
+     */
+    long getLockWaitCount();
+
+    /**
+     * <p>getLockWaitTotal.</p>
+     *
+     * @return total time spent waiting for the I2C bus
+     */
+    long getLockWaitTotal();
+
+    /**
+     * <p>getLockWaitP99.</p>
+     *
+     * @return 99th percentile wait time for the I2C bus
+     */
+    long getLockWaitP99();
+
+    /**
+     * <p>getLockWaitMax.</p>
+     *
+     * @return longest wait time for the I2C bus
+     */
+    long getLockWaitMax();
+
+    /**
+     * <p>getElidedWriteCount.</p>
+     *
+     * @return number of PWM pin updates skipped because the LEDn registers were unchanged
+     */
+    long getElidedWriteCount();
+
+    /**
+     * <p>getElidedByteCount.</p>
+     *
+     * @return number of LEDn register bytes not written because they were unchanged
+     */
+    long getElidedByteCount();
+
+    /**
+     * <p>getSupersededWriteCount.</p>
+     *
+     * @return number of write-behind setpoints replaced before they were written
+     */
+    long getSupersededWriteCount();
+
+    /**
+     * <p>isLatencyTracing.</p>
+     *
+     * @return true if end-to-end command latency tracing is enabled
+     */
+    boolean isLatencyTracing();
+
+    /**
+     * <p>setLatencyTracing.</p>
+     *
+     * @param enable true to enable end-to-end command latency tracing
+     */
+    void setLatencyTracing(boolean enable);
+
+    /**
+     * <p>getCommandLatencyP99.</p>
+     *
+     * @return 99th percentile command latency from PWM pin to completed I2C write, indexed by PWM pin address
+     */
+    long[] getCommandLatencyP99();
+
+    /**
+     * <p>getCommandLatencyMax.</p>
+     *
+     * @return longest command latency from PWM pin to completed I2C write, indexed by PWM pin address
+     */
+    long[] getCommandLatencyMax();
+
+    /**
+     * <p>getQueueingDelayP99.</p>
+     *
+     * @return 99th percentile delay from PWM pin to I2C bus acquisition, indexed by PWM pin address
+     */
+    long[] getQueueingDelayP99();
+
+    /**
+     * <p>getBusTimeP99.</p>
+     *
+     * @return 99th percentile time from I2C bus acquisition to completed I2C write, indexed by PWM pin address
+     */
+    long[] getBusTimeP99();
+
+    /**
+     * Reset the command latency histograms of all PWM pins
+     */
+    void resetLatencyTracing();
+
+    /**
+     * Reset the I2C traffic metrics of the board
+     */
+    void resetStatistics();
+}
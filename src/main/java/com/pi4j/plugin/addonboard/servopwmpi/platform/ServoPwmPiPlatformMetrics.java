@@ -0,0 +1,246 @@
+package com.pi4j.plugin.addonboard.servopwmpi.platform;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiPlatformMetrics.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiDevice;
+import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiLatencyTracer;
+import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiMetrics;
+
+/**
+ * <p>JMX view of the I2C traffic metrics of a Servo PWM Pi platform.</p>
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+final class ServoPwmPiPlatformMetrics implements ServoPwmPiPlatformMXBean {
+
+    private final String platform_id;
+    private final int i2c_bus;
+    private final int i2c_address;
+    private final ServoPwmPiDevice device;
+    private final ServoPwmPiMetrics metrics;
+    private final ServoPwmPiLatencyTracer tracer;
+
+    ServoPwmPiPlatformMetrics(String platformId, int i2cBus, int i2cAddress, ServoPwmPiDevice device) {
+        this.platform_id = platformId;
+        this.i2c_bus = i2cBus;
+        this.i2c_address = i2cAddress;
+        this.device = device;
+        this.metrics = device.getMetrics();
+        this.tracer = device.getLatencyTracer();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getPlatformId() {
+        return this.platform_id;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getI2cBus() {
+        return this.i2c_bus;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getI2cAddress() {
+        return this.i2c_address;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getReadTransactionCount() {
+        return this.metrics.getReadTransactionCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getWriteTransactionCount() {
+        return this.metrics.getWriteTransactionCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getReadByteCount() {
+        return this.metrics.getReadByteCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getWrittenByteCount() {
+        return this.metrics.getWrittenByteCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getFailedTransactionCount() {
+        return this.metrics.getFailedTransactionCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getWriteLatencyMean() {
+        return this.metrics.getWriteLatency().getMean();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getWriteLatencyP50() {
+        return this.metrics.getWriteLatency().getPercentile(0.5);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getWriteLatencyP99() {
+        return this.metrics.getWriteLatency().getPercentile(0.99);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getWriteLatencyP999() {
+        return this.metrics.getWriteLatency().getPercentile(0.999);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getWriteLatencyMax() {
+        return this.metrics.getWriteLatency().getMax();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getLockWaitCount() {
+        return this.metrics.getLockWait().getCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getLockWaitTotal() {
+        return this.metrics.getLockWait().getTotal();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getLockWaitP99() {
+        return this.metrics.getLockWait().getPercentile(0.99);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getLockWaitMax() {
+        return this.metrics.getLockWait().getMax();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getElidedWriteCount() {
+        return this.device.getElidedWriteCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getElidedByteCount() {
+        return this.device.getElidedByteCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getSupersededWriteCount() {
+        return this.device.getSupersededWriteCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isLatencyTracing() {
+        return this.tracer.isEnabled();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setLatencyTracing(boolean enable) {
+        this.tracer.setEnabled(enable);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long[] getCommandLatencyP99() {
+        long[] values = new long[SERVOPWMPI.PWM_CHANNEL_COUNT];
+
+        for (int channel = 0; channel < values.length; channel++) {
+            values[channel] = this.tracer.getChannel(channel).getTotal().getPercentile(0.99);
+        }
+        return values;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long[] getCommandLatencyMax() {
+        long[] values = new long[SERVOPWMPI.PWM_CHANNEL_COUNT];
+
+        for (int channel = 0; channel < values.length; channel++) {
+            values[channel] = this.tracer.getChannel(channel).getTotal().getMax();
+        }
+        return values;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long[] getQueueingDelayP99() {
+        long[] values = new long[SERVOPWMPI.PWM_CHANNEL_COUNT];
+
+        for (int channel = 0; channel < values.length; channel++) {
+            values[channel] = this.tracer.getChannel(channel).getQueueing().getPercentile(0.99);
+        }
+        return values;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long[] getBusTimeP99() {
+        long[] values = new long[SERVOPWMPI.PWM_CHANNEL_COUNT];
+
+        for (int channel = 0; channel < values.length; channel++) {
+            values[channel] = this.tracer.getChannel(channel).getBusTime().getPercentile(0.99);
+        }
+        return values;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void resetLatencyTracing() {
+        this.tracer.reset();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void resetStatistics() {
+        this.metrics.reset();
+    }
+}
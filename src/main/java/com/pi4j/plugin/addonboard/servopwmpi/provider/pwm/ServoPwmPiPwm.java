@@ -28,7 +28,9 @@ package com.pi4j.plugin.addonboard.servopwmpi.provider.pwm;
 import com.pi4j.context.Context;
 import com.pi4j.io.exception.IOException;
 import com.pi4j.io.pwm.Pwm;
+import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiDevice;
 import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.impl.ServoPwmPiPwmConfigBuilderImpl;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * <p>ServoPwmPiPwm interface.</p>
@@ -105,4 +107,120 @@ public interface ServoPwmPiPwm extends Pwm {
      */
     default ServoPwmPiPwm phaseShift(Number phaseShift) throws IOException { setPhaseShift(phaseShift); return this; }
 
+
+    /**
+     *  Get the phase-shift value as number of PWM counter steps (range: 0-4095).
+     *  A negative value indicates that Servo PWM Pi auto-configures the phase-shift.
+     *
+     * @return phase-shift value expressed as PWM counter steps or -1 if auto-configured
+     */
+    int getPhaseShiftTicks();
+
+    /**
+     *  Set the phase-shift value as number of PWM counter steps (range: 0-4095).
+     *  This method will not update a live PWM signal, but rather stage the
+     *  phase-shift value for subsequent call to the 'ServoPwmPiPwm::On()' method.
+     *  A negative value lets Servo PWM Pi auto-configure the phase shift.
+     *
+     * @param phaseShiftTicks phase-shift value expressed as PWM counter steps (range: 0-4095)
+     */
+    void setPhaseShiftTicks(int phaseShiftTicks);
+
+    /**
+     *  Set the duty-cycle value as a decimal value that represents the
+     *  percentage of the ON vs OFF time of the PWM signal for each period.
+     *  Primitive variant of 'Pwm::setDutyCycle(Number)'. This method will not
+     *  update a live PWM signal.
+     *
+     * @param dutyCycle duty-cycle value expressed as a percentage (range: 0-100)
+     */
+    void setDutyCycle(float dutyCycle);
+
+    /**
+     *  Turn the PWM signal [ON] using a specified duty-cycle (%)
+     *  at the pre-configured frequency (Hz).
+     *  Primitive variant of 'Pwm::on(Number)'.
+     *
+     * @param dutyCycle duty-cycle value expressed as a percentage (range: 0-100)
+     * @return returns this ServoPwmPiPwm instance
+     * @throws IOException if fails to communicate with the PWM pin
+     */
+    ServoPwmPiPwm on(float dutyCycle) throws IOException;
+
+    /**
+     *  Get the number of PWM counter steps the PWM signal is HIGH per period
+     *  (range: 0-4096).
+     *
+     * @return number of PWM counter steps of the configured duty-cycle
+     */
+    int getOnTicks();
+
+    /**
+     *  Turn the PWM signal [ON] for a specified number of PWM counter steps
+     *  per period (range: 0-4096). The 12-bit PWM counter of Servo PWM Pi
+     *  provides 4096 steps per period: 0 turns the PWM signal fully off,
+     *  4096 turns it fully on. The switch-on delay is taken from the
+     *  configured phase-shift.
+     *
+     * @param onTicks number of PWM counter steps the PWM signal is HIGH per period
+     * @throws IOException if fails to communicate with the PWM pin
+     */
+    void setOnTicks(int onTicks) throws IOException;
+
+    /**
+     *  Turn the PWM signal [ON] and set the PWM counter steps at which
+     *  the PWM signal is switched on and off (range: 0-4095).
+     *  If the off tick is lower than the on tick the PWM signal is switched off
+     *  in the subsequent PWM period.
+     *
+     * @param onTick PWM counter step of the rising edge (range: 0-4095)
+     * @param offTick PWM counter step of the falling edge (range: 0-4095)
+     * @throws IOException if fails to communicate with the PWM pin
+     */
+    void setTicks(int onTick, int offTick) throws IOException;
+
+    /**
+     *  Turn the PWM signal [ON] using a specified duty-cycle (%) without
+     *  waiting for the I2C transaction. If the Servo PWM Pi board is in
+     *  write-behind mode the new duty-cycle is staged and written by the
+     *  timer thread of the I2C bus; a newer duty-cycle replaces a staged
+     *  one that has not been written yet.
+     *
+     * @param dutyCycle duty-cycle value expressed as a percentage (range: 0-100)
+     * @return future that completes when the PWM pin has been updated
+     */
+    CompletableFuture<Void> onAsync(float dutyCycle);
+
+    /**
+     *  Set the PWM counter steps at which the PWM signal is switched on and
+     *  off (range: 0-4095) without waiting for the I2C transaction.
+     *
+     * @param onTick PWM counter step of the rising edge (range: 0-4095)
+     * @param offTick PWM counter step of the falling edge (range: 0-4095)
+     * @return future that completes when the PWM pin has been updated
+     */
+    CompletableFuture<Void> setTicksAsync(int onTick, int offTick);
+
+    /**
+     *  Get the Servo PWM Pi board of this PWM pin.
+     *
+     * @return a {@link ServoPwmPiDevice} object.
+     */
+    ServoPwmPiDevice getPwmDevice();
+
+    /**
+     *  Get the servo view of this PWM pin. The servo calibration is taken
+     *  from the PWM pin configuration.
+     *
+     * @return a {@link ServoPwmPiServo} object.
+     */
+    ServoPwmPiServo getServo();
+
+    /**
+     *  Get the servo view of this PWM pin.
+     *
+     * @return a {@link ServoPwmPiServo} object.
+     */
+    default ServoPwmPiServo servo() { return getServo(); }
+
 }
@@ -38,6 +38,18 @@ public interface ServoPwmPiPwmConfig extends PwmConfig {
     /** Constant <code>PHASE_SHIFT_KEY="phase-shift</code> */
     String PHASE_SHIFT_KEY = "phase-shift";
 
+    /** Constant <code>SERVO_MIN_PULSE_KEY="servo-min-pulse</code> */
+    String SERVO_MIN_PULSE_KEY = "servo-min-pulse";
+
+    /** Constant <code>SERVO_CENTER_PULSE_KEY="servo-center-pulse</code> */
+    String SERVO_CENTER_PULSE_KEY = "servo-center-pulse";
+
+    /** Constant <code>SERVO_MAX_PULSE_KEY="servo-max-pulse</code> */
+    String SERVO_MAX_PULSE_KEY = "servo-max-pulse";
+
+    /** Constant <code>SERVO_ANGLE_RANGE_KEY="servo-angle-range</code> */
+    String SERVO_ANGLE_RANGE_KEY = "servo-angle-range";
+
     /**
      *  Get the phase-shift value as a decimal value that represents the
      *  percentage of a PWM cycle.  The phase-shift range is valid from 0 to 100
@@ -64,4 +76,32 @@ public interface ServoPwmPiPwmConfig extends PwmConfig {
         return phaseShift();
     }
 
+    /**
+     *  Get the servo pulse width in microseconds of the minimum angle (0 degrees).
+     *
+     * @return pulse width in microseconds or null if not configured
+     */
+    Integer servoMinPulse();
+
+    /**
+     *  Get the servo pulse width in microseconds of the center position.
+     *
+     * @return pulse width in microseconds or null if not configured
+     */
+    Integer servoCenterPulse();
+
+    /**
+     *  Get the servo pulse width in microseconds of the maximum angle.
+     *
+     * @return pulse width in microseconds or null if not configured
+     */
+    Integer servoMaxPulse();
+
+    /**
+     *  Get the servo angle range in degrees between minimum and maximum pulse width.
+     *
+     * @return angle range in degrees or null if not configured
+     */
+    Float servoAngleRange();
+
 }
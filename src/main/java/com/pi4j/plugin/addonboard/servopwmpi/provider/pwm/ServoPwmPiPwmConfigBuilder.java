@@ -59,6 +59,27 @@ public interface ServoPwmPiPwmConfigBuilder
      * @return this builder instance
      */
     ServoPwmPiPwmConfigBuilder phaseShift(Number phaseShift);
+
+    /**
+     *  Set the servo calibration of the PWM pin: pulse widths in microseconds
+     *  at the minimum angle, the center position and the maximum angle.
+     *  Servo pulse widths must increase from minimum to maximum.
+     *
+     * @param minMicros pulse width at the minimum angle (0 degrees)
+     * @param centerMicros pulse width at the center position
+     * @param maxMicros pulse width at the maximum angle
+     * @return this builder instance
+     */
+    ServoPwmPiPwmConfigBuilder servoPulse(int minMicros, int centerMicros, int maxMicros);
+
+    /**
+     *  Set the servo angle range in degrees between minimum and maximum pulse
+     *  width, e. g. 180 for a standard servo.
+     *
+     * @param degrees angle range in degrees
+     * @return this builder instance
+     */
+    ServoPwmPiPwmConfigBuilder servoAngleRange(Number degrees);
     
     /**
      *  Set the duty-cycle value as a decimal value that represents the
@@ -0,0 +1,142 @@
+package com.pi4j.plugin.addonboard.servopwmpi.provider.pwm;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiServo.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.io.exception.IOException;
+
+/**
+ * <p>Servo view of a Servo PWM Pi PWM pin.</p>
+ * <p>
+ *  Drives a servo by pulse width in microseconds or by angle in degrees.
+ *  Each PWM pin carries its own calibration: the pulse widths at the
+ *  minimum angle (0 degrees), the center position and the maximum angle
+ *  (angle range). Angles below the center position are interpolated between
+ *  minimum and center pulse width, angles above between center and maximum
+ *  pulse width. Pulse widths and angles are limited to the calibrated range.
+ *  <p>
+ *  The calibration is mapped to PWM counter steps once for the actual PWM
+ *  frequency of the Servo PWM Pi board and mapped again only after the PWM
+ *  frequency has changed, i. e. setting a pulse width or an angle neither
+ *  reads Servo PWM Pi registers nor divides.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public interface ServoPwmPiServo {
+
+    /**
+     * <p>Getter for the field <code>pwm</code>.</p>
+     *
+     * @return PWM pin of this servo
+     */
+    ServoPwmPiPwm getPwm();
+
+    /**
+     *  Set the servo pulse width in microseconds. The pulse width is limited
+     *  to the calibrated pulse width range.
+     *
+     * @param micros pulse width in microseconds
+     * @throws IOException if fails to communicate with the PWM pin
+     */
+    void setPulseMicros(int micros) throws IOException;
+
+    /**
+     *  Get the current servo pulse width in microseconds.
+     *
+     * @return pulse width in microseconds
+     */
+    int getPulseMicros();
+
+    /**
+     *  Set the servo angle in degrees (range: 0 - angle range). The angle is
+     *  limited to the calibrated angle range.
+     *
+     * @param degrees servo angle in degrees
+     * @throws IOException if fails to communicate with the PWM pin
+     */
+    void setAngle(float degrees) throws IOException;
+
+    /**
+     *  Get the current servo angle in degrees.
+     *
+     * @return servo angle in degrees
+     */
+    float getAngle();
+
+    /**
+     *  Move the servo to the center position.
+     *
+     * @throws IOException if fails to communicate with the PWM pin
+     */
+    void center() throws IOException;
+
+    /**
+     *  Set the servo calibration: pulse widths in microseconds at the minimum
+     *  angle, the center position and the maximum angle.
+     *
+     * @param minMicros pulse width at the minimum angle (0 degrees)
+     * @param centerMicros pulse width at the center position
+     * @param maxMicros pulse width at the maximum angle
+     */
+    void setCalibration(int minMicros, int centerMicros, int maxMicros) throws IllegalArgumentException;
+
+    /**
+     *  Set the servo angle range in degrees between minimum and maximum pulse width.
+     *
+     * @param degrees angle range in degrees
+     */
+    void setAngleRange(float degrees) throws IllegalArgumentException;
+
+    /**
+     * <p>Getter for the calibrated minimum pulse width.</p>
+     *
+     * @return pulse width in microseconds at the minimum angle
+     */
+    int getMinPulseMicros();
+
+    /**
+     * <p>Getter for the calibrated center pulse width.</p>
+     *
+     * @return pulse width in microseconds at the center position
+     */
+    int getCenterPulseMicros();
+
+    /**
+     * <p>Getter for the calibrated maximum pulse width.</p>
+     *
+     * @return pulse width in microseconds at the maximum angle
+     */
+    int getMaxPulseMicros();
+
+    /**
+     * <p>Getter for the field <code>angleRange</code>.</p>
+     *
+     * @return angle range in degrees
+     */
+    float getAngleRange();
+}
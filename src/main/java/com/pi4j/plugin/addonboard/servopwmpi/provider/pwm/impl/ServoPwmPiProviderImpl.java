@@ -72,7 +72,9 @@ public class ServoPwmPiProviderImpl extends PwmProviderBase implements ServoPwmP
 
         if (!config.getPlatform().isEmpty()) {
             if (this.platforms.containsKey(config.getPlatform())) {
-                return new ServoPwmPiPwmImpl(this, platforms.get(config.getPlatform()).pwmDevice(), config);
+                ServoPwmPiPwm pwm = new ServoPwmPiPwmImpl(this, platforms.get(config.getPlatform()).pwmDevice(), config);
+                pwm.initialize(context);
+                return pwm;
             } else {
                 throw new ProviderException(String.format("Servo PWM Pi platform '%s' does not exist", config.getPlatform()));
             }
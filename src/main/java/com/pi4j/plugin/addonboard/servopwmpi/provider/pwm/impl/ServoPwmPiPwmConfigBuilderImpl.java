@@ -90,6 +90,30 @@ public class ServoPwmPiPwmConfigBuilderImpl
         return this;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ServoPwmPiPwmConfigBuilder servoPulse(int minMicros, int centerMicros, int maxMicros) {
+        if (minMicros <= 0 || centerMicros <= minMicros || maxMicros <= centerMicros) {
+            throw new IllegalArgumentException("servoPulse(): servo pulse widths must increase from minimum to maximum");
+        }
+        this.properties.put(ServoPwmPiPwmConfig.SERVO_MIN_PULSE_KEY, Integer.toString(minMicros));
+        this.properties.put(ServoPwmPiPwmConfig.SERVO_CENTER_PULSE_KEY, Integer.toString(centerMicros));
+        this.properties.put(ServoPwmPiPwmConfig.SERVO_MAX_PULSE_KEY, Integer.toString(maxMicros));
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ServoPwmPiPwmConfigBuilder servoAngleRange(Number degrees) {
+        float range = degrees.floatValue();
+
+        if (!(range > 0)) {
+            throw new IllegalArgumentException("servoAngleRange(): servo angle range must be positive");
+        }
+        this.properties.put(ServoPwmPiPwmConfig.SERVO_ANGLE_RANGE_KEY, Float.toString(range));
+        return this;
+    }
+
     /** {@inheritDoc} */
     @Override
     public ServoPwmPiPwmConfigBuilder dutyCycle(Number dutyCycle) {
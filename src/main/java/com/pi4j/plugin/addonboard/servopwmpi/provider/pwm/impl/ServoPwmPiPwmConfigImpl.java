@@ -57,6 +57,10 @@ public class ServoPwmPiPwmConfigImpl
     protected Integer address = null;
     protected Float dutyCycle = null;
     protected Float phaseShift = null;
+    protected Integer servoMinPulse = null;
+    protected Integer servoCenterPulse = null;
+    protected Integer servoMaxPulse = null;
+    protected Float servoAngleRange = null;
     protected PwmType pwmType = PwmType.HARDWARE;
     protected Float shutdownValue = null;
     protected Float initialValue = null;
@@ -116,6 +120,20 @@ public class ServoPwmPiPwmConfigImpl
             this.phaseShift = Float.parseFloat(properties.get(PHASE_SHIFT_KEY));
         }
 
+        // load optional servo calibration from properties
+        if(properties.containsKey(SERVO_MIN_PULSE_KEY)){
+            this.servoMinPulse = Integer.parseInt(properties.get(SERVO_MIN_PULSE_KEY));
+        }
+        if(properties.containsKey(SERVO_CENTER_PULSE_KEY)){
+            this.servoCenterPulse = Integer.parseInt(properties.get(SERVO_CENTER_PULSE_KEY));
+        }
+        if(properties.containsKey(SERVO_MAX_PULSE_KEY)){
+            this.servoMaxPulse = Integer.parseInt(properties.get(SERVO_MAX_PULSE_KEY));
+        }
+        if(properties.containsKey(SERVO_ANGLE_RANGE_KEY)){
+            this.servoAngleRange = Float.parseFloat(properties.get(SERVO_ANGLE_RANGE_KEY));
+        }
+
         // load optional pwm duty-cycle from properties
         if(properties.containsKey(DUTY_CYCLE_KEY)){
             this.dutyCycle = Float.parseFloat(properties.get(DUTY_CYCLE_KEY));
@@ -184,6 +202,26 @@ public class ServoPwmPiPwmConfigImpl
         return this.phaseShift;
     }
 
+    @Override
+    public Integer servoMinPulse() {
+        return this.servoMinPulse;
+    }
+
+    @Override
+    public Integer servoCenterPulse() {
+        return this.servoCenterPulse;
+    }
+
+    @Override
+    public Integer servoMaxPulse() {
+        return this.servoMaxPulse;
+    }
+
+    @Override
+    public Float servoAngleRange() {
+        return this.servoAngleRange;
+    }
+
     @Override
     public Integer frequency() throws ConfigException {
         throw new ConfigException("Servo PWM Pi does not support per PWM pin frequency configuration.");
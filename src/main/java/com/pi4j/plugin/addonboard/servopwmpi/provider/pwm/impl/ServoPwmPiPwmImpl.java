@@ -33,10 +33,13 @@ import com.pi4j.exception.InitializeException;
 import com.pi4j.exception.ShutdownException;
 import com.pi4j.io.exception.IOException;
 import com.pi4j.io.pwm.PwmBase;
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
 import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiDevice;
 import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiProvider;
 import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
 import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwmConfig;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiServo;
+import java.util.concurrent.CompletableFuture;
 
 
 
@@ -50,6 +53,8 @@ public class ServoPwmPiPwmImpl extends PwmBase  implements ServoPwmPiPwm {
 
     protected final ServoPwmPiDevice device;
     protected float phase_shift = -1f;
+    protected int phase_shift_ticks = -1;
+    protected ServoPwmPiServo servo = null;
 
     /**
      * <p>Constructor for ServoPwmPiPwm.</p>
@@ -62,7 +67,7 @@ public class ServoPwmPiPwmImpl extends PwmBase  implements ServoPwmPiPwm {
         super(provider, config);
         this.device = device;
         if (config.phaseShift() != null) {
-            this.phase_shift = config.phaseShift();
+            setPhaseShift(config.phaseShift());
         }
     }
 
@@ -83,14 +88,23 @@ public class ServoPwmPiPwmImpl extends PwmBase  implements ServoPwmPiPwm {
     /** {@inheritDoc} */
     @Override
     public ServoPwmPiPwm on() throws IOException {
+        this.device.getLatencyTracer().enter(this.address());
         this.onState = true;
-        this.device.on(this, getDutyCycle());
+        this.device.on(this, this.dutyCycle);
         return this;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ServoPwmPiPwm on(float dutyCycle) throws IOException {
+        setDutyCycle(dutyCycle);
+        return on();
+    }
+
     /** {@inheritDoc} */
     @Override
     public ServoPwmPiPwm off() throws IOException {
+        this.device.getLatencyTracer().enter(this.address());
         this.onState = false;
         this.device.off(this);
         return this;
@@ -109,6 +123,76 @@ public class ServoPwmPiPwmImpl extends PwmBase  implements ServoPwmPiPwm {
         setPhaseShift(phase_shift);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void setDutyCycle(float dutyCycle) {
+        if (dutyCycle > 100) dutyCycle = 100;
+        if (dutyCycle < 0) dutyCycle = 0;
+        this.dutyCycle = dutyCycle;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getOnTicks() {
+        return Math.round(this.dutyCycle * SERVOPWMPI.PWM_STEPS_PER_PERCENT);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setOnTicks(int onTicks) throws IOException {
+        boolean traced = this.device.getLatencyTracer().enter(this.address());
+
+        try {
+            this.device.setOnTicks(this, onTicks);
+        } catch (IllegalArgumentException e) {
+            this.device.getLatencyTracer().reject(this.address(), traced);
+            throw e;
+        }
+        this.dutyCycle = onTicks * SERVOPWMPI.PWM_PERCENT_PER_STEP;
+        this.onState = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setTicks(int onTick, int offTick) throws IOException {
+        boolean traced = this.device.getLatencyTracer().enter(this.address());
+
+        try {
+            this.device.setTicks(this, onTick, offTick);
+        } catch (IllegalArgumentException e) {
+            this.device.getLatencyTracer().reject(this.address(), traced);
+            throw e;
+        }
+        this.dutyCycle = ((offTick - onTick) & (SERVOPWMPI.PWM_STEPS - 1)) * SERVOPWMPI.PWM_PERCENT_PER_STEP;
+        this.onState = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> onAsync(float dutyCycle) {
+        this.device.getLatencyTracer().enter(this.address());
+        setDutyCycle(dutyCycle);
+        this.onState = true;
+        return this.device.onAsync(this, this.dutyCycle);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> setTicksAsync(int onTick, int offTick) {
+        CompletableFuture<Void> future;
+        boolean traced = this.device.getLatencyTracer().enter(this.address());
+
+        try {
+            future = this.device.setTicksAsync(this, onTick, offTick);
+        } catch (IllegalArgumentException e) {
+            this.device.getLatencyTracer().reject(this.address(), traced);
+            throw e;
+        }
+        this.dutyCycle = ((offTick - onTick) & (SERVOPWMPI.PWM_STEPS - 1)) * SERVOPWMPI.PWM_PERCENT_PER_STEP;
+        this.onState = true;
+        return future;
+    }
+
     /** {@inheritDoc} */
     @Override
     public int getFrequency() throws IOException {
@@ -153,19 +237,59 @@ public class ServoPwmPiPwmImpl extends PwmBase  implements ServoPwmPiPwm {
         
         if (ps < 0) {
             this.phase_shift = -1f;
+            this.phase_shift_ticks = -1;
         } else {
             this.phase_shift = ps;
+            this.phase_shift_ticks = Math.min(Math.round(ps * SERVOPWMPI.PWM_STEPS_PER_PERCENT), SERVOPWMPI.PWM_STEPS - 1);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getPhaseShiftTicks() {
+        return this.phase_shift_ticks;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setPhaseShiftTicks(int phaseShiftTicks) {
+        if (phaseShiftTicks < 0) {
+            this.phase_shift = -1f;
+            this.phase_shift_ticks = -1;
+        } else {
+            this.phase_shift_ticks = Math.min(phaseShiftTicks, SERVOPWMPI.PWM_STEPS - 1);
+            this.phase_shift = this.phase_shift_ticks * SERVOPWMPI.PWM_PERCENT_PER_STEP;
         }
     }
 
     /** {@inheritDoc} */
     @Override
     public float getPhaseShift() throws IOException {
+        int allocated;
+
         if (this.phase_shift < 0) {
+            allocated = this.device.getAllocatedPhaseShiftTicks(this.address());
+            if (allocated >= 0) {
+                return allocated * SERVOPWMPI.PWM_PERCENT_PER_STEP;
+            }
             return this.dutyCycle();
         } else {
             return this.phase_shift;
         }
     }
-}
 
+    /** {@inheritDoc} */
+    @Override
+    public ServoPwmPiDevice getPwmDevice() {
+        return this.device;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized ServoPwmPiServo getServo() {
+        if (this.servo == null) {
+            this.servo = new ServoPwmPiServoImpl(this, (ServoPwmPiPwmConfig) config());
+        }
+        return this.servo;
+    }
+}
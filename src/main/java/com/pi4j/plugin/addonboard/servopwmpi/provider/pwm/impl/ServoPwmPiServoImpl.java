@@ -0,0 +1,220 @@
+package com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.impl;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiServoImpl.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.io.exception.IOException;
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.internal.ServoPwmPiDevice;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwmConfig;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiServo;
+
+/**
+ * <p>ServoPwmPiServoImpl class.</p>
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public class ServoPwmPiServoImpl implements ServoPwmPiServo {
+
+    protected final ServoPwmPiPwm pwm;
+    protected final ServoPwmPiDevice device;
+
+    // calibration in microseconds and degrees (guarded by servo lock)
+    private int min_pulse = SERVOPWMPI.DEFAULT_SERVO_MIN_PULSE;
+    private int center_pulse = SERVOPWMPI.DEFAULT_SERVO_CENTER_PULSE;
+    private int max_pulse = SERVOPWMPI.DEFAULT_SERVO_MAX_PULSE;
+    private float angle_range = SERVOPWMPI.DEFAULT_SERVO_ANGLE_RANGE;
+
+    // calibration mapped to PWM counter steps for pulse scale mapped_scale (guarded by servo lock)
+    private int mapped_scale = 0;
+    private int min_ticks;
+    private int max_ticks;
+    private float center_ticks;
+    private float center_angle;
+    private float low_ticks_per_degree;
+    private float high_ticks_per_degree;
+
+    /**
+     * <p>Constructor for ServoPwmPiServoImpl.</p>
+     *
+     * @param pwm a {@link com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm} object.
+     * @param config a {@link com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwmConfig} object.
+     */
+    public ServoPwmPiServoImpl(ServoPwmPiPwm pwm, ServoPwmPiPwmConfig config) {
+        this.pwm = pwm;
+        this.device = pwm.getPwmDevice();
+        setCalibration((config.servoMinPulse() != null) ? config.servoMinPulse() : SERVOPWMPI.DEFAULT_SERVO_MIN_PULSE,
+                       (config.servoCenterPulse() != null) ? config.servoCenterPulse() : SERVOPWMPI.DEFAULT_SERVO_CENTER_PULSE,
+                       (config.servoMaxPulse() != null) ? config.servoMaxPulse() : SERVOPWMPI.DEFAULT_SERVO_MAX_PULSE);
+        if (config.servoAngleRange() != null) {
+            setAngleRange(config.servoAngleRange());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ServoPwmPiPwm getPwm() {
+        return this.pwm;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setPulseMicros(int micros) throws IOException {
+        this.pwm.setOnTicks(pulseTicks(micros));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getPulseMicros() {
+        return (int) ((((long) this.pwm.getOnTicks() << 16) + (this.device.getPulseScale() >> 1)) / this.device.getPulseScale());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setAngle(float degrees) throws IOException {
+        this.pwm.setOnTicks(angleTicks(degrees));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized float getAngle() {
+        int ticks = this.pwm.getOnTicks();
+
+        map();
+        if (ticks < this.center_ticks) {
+            return this.center_angle - (this.center_ticks - ticks) / this.low_ticks_per_degree;
+        }
+        return this.center_angle + (ticks - this.center_ticks) / this.high_ticks_per_degree;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void center() throws IOException {
+        setPulseMicros(getCenterPulseMicros());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void setCalibration(int minMicros, int centerMicros, int maxMicros) throws IllegalArgumentException {
+        if (minMicros <= 0 || centerMicros <= minMicros || maxMicros <= centerMicros) {
+            throw new IllegalArgumentException("setCalibration(): servo pulse widths of " + this.pwm.id() + " must increase from minimum to maximum");
+        }
+        this.min_pulse = minMicros;
+        this.center_pulse = centerMicros;
+        this.max_pulse = maxMicros;
+        this.mapped_scale = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void setAngleRange(float degrees) throws IllegalArgumentException {
+        if (!(degrees > 0)) {
+            throw new IllegalArgumentException("setAngleRange(): servo angle range of " + this.pwm.id() + " must be positive");
+        }
+        this.angle_range = degrees;
+        this.mapped_scale = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized int getMinPulseMicros() {
+        return this.min_pulse;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized int getCenterPulseMicros() {
+        return this.center_pulse;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized int getMaxPulseMicros() {
+        return this.max_pulse;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized float getAngleRange() {
+        return this.angle_range;
+    }
+
+    /**
+     * Convert a pulse width into PWM counter steps
+     *
+     * @param micros pulse width in microseconds
+     * @return PWM counter steps limited to the calibrated range
+     */
+    private synchronized int pulseTicks(int micros) {
+        int ticks;
+
+        map();
+        ticks = (int) (((long) micros * this.mapped_scale + 0x8000) >> 16);
+        return Math.max(this.min_ticks, Math.min(this.max_ticks, ticks));
+    }
+
+    /**
+     * Convert a servo angle into PWM counter steps
+     *
+     * @param degrees servo angle in degrees
+     * @return PWM counter steps limited to the calibrated range
+     */
+    private synchronized int angleTicks(float degrees) {
+        int ticks;
+
+        map();
+        if (degrees < this.center_angle) {
+            ticks = Math.round(this.center_ticks - (this.center_angle - degrees) * this.low_ticks_per_degree);
+        } else {
+            ticks = Math.round(this.center_ticks + (degrees - this.center_angle) * this.high_ticks_per_degree);
+        }
+        return Math.max(this.min_ticks, Math.min(this.max_ticks, ticks));
+    }
+
+    /**
+     * Map the calibration to PWM counter steps if the pulse scale of the
+     * Servo PWM Pi board has changed (caller must hold servo lock)
+     */
+    private void map() {
+        int scale = this.device.getPulseScale();
+        float ticks_per_micro;
+
+        if (scale == this.mapped_scale) {
+            return;
+        }
+        ticks_per_micro = scale / 65536f;
+        this.min_ticks = (int) (((long) this.min_pulse * scale + 0x8000) >> 16);
+        this.max_ticks = Math.min((int) (((long) this.max_pulse * scale + 0x8000) >> 16), SERVOPWMPI.PWM_STEPS);
+        this.center_ticks = this.center_pulse * ticks_per_micro;
+        this.center_angle = this.angle_range / 2f;
+        this.low_ticks_per_degree = (this.center_pulse - this.min_pulse) * ticks_per_micro / this.center_angle;
+        this.high_ticks_per_degree = (this.max_pulse - this.center_pulse) * ticks_per_micro / this.center_angle;
+        this.mapped_scale = scale;
+    }
+}
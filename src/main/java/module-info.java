@@ -27,6 +27,8 @@ import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPi;
  * #L%
  */
 module com.pi4j.plugin.addonboard.servopwmpi {
+    requires java.management;
+    requires jdk.jfr;
     requires org.slf4j;
     requires com.pi4j;
     requires com.pi4j.plugin.linuxfs;
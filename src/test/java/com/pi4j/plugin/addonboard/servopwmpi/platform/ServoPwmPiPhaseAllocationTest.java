@@ -0,0 +1,104 @@
+package com.pi4j.plugin.addonboard.servopwmpi.platform;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiPhaseAllocationTest.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiProvider;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwmConfigBuilder;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.ServoPwmPiSimulatedI2CProvider;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.ServoPwmPiWaveform;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>Switching profile of 16 servo PWM pins with and without staggered phase allocation.</p>
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public class ServoPwmPiPhaseAllocationTest implements SERVOPWMPI {
+
+    private static final int ADDRESS = 0x40;
+
+    // 1.5 ms servo centre pulse at 50 Hz
+    private static final float DUTY_CYCLE = 7.5f;
+
+    @Test
+    public void staggeredAllocationLowersPeakSwitching() {
+        ServoPwmPiWaveform aligned = render(PhaseAllocation.DUTY_CYCLE);
+        ServoPwmPiWaveform staggered = render(PhaseAllocation.STAGGERED);
+
+        // all PWM pins switch on and off at the same PWM counter steps
+        assertEquals(PWM_CHANNEL_COUNT, aligned.getPeakSwitching());
+        assertTrue(staggered.getPeakSwitching() < aligned.getPeakSwitching(),
+                "peak switching " + staggered.getPeakSwitching() + " not below " + aligned.getPeakSwitching());
+        assertTrue(staggered.getPeakLoad() < aligned.getPeakLoad(),
+                "peak load " + staggered.getPeakLoad() + " not below " + aligned.getPeakLoad());
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            assertEquals(aligned.getActiveTicks(channel), staggered.getActiveTicks(channel));
+        }
+    }
+
+    /**
+     * Set all 16 PWM pins of a simulated board to the same duty-cycle and
+     * render the resulting waveforms
+     */
+    private static ServoPwmPiWaveform render(PhaseAllocation allocation) {
+        ServoPwmPiSimulatedI2CProvider i2c = ServoPwmPiSimulatedI2CProvider.newInstance();
+        ServoPwmPiPlatform platform = new ServoPwmPiPlatform(ADDRESS);
+        Context context = Pi4J.newContextBuilder().noAutoDetect()
+                .add(i2c)
+                .add(ServoPwmPiProvider.newInstance())
+                .add(platform)
+                .build();
+        ServoPwmPiProvider provider = context.provider(ServoPwmPiProvider.ID);
+        ServoPwmPiPwm pwm;
+
+        try {
+            platform.setPwmFrequency(50);
+            platform.setPhaseAllocation(allocation);
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                pwm = provider.create(ServoPwmPiPwmConfigBuilder.newInstance(context)
+                        .id("servopwmpi-test-" + channel)
+                        .address(channel)
+                        .build());
+                pwm.on(DUTY_CYCLE);
+            }
+            return ServoPwmPiWaveform.render(i2c.getBoard(platform.getPwmDevice().getBus().getBus(), ADDRESS),
+                    platform.getPwmDevice().getOscillatorClock());
+        } finally {
+            context.shutdown();
+        }
+    }
+}
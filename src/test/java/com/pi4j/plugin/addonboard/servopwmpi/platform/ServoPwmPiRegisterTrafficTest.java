@@ -0,0 +1,396 @@
+package com.pi4j.plugin.addonboard.servopwmpi.platform;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiRegisterTrafficTest.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPiBus;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiProvider;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwm;
+import com.pi4j.plugin.addonboard.servopwmpi.provider.pwm.ServoPwmPiPwmConfigBuilder;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.ServoPwmPiSimulatedI2CProvider;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.ServoPwmPiSimulatedPca9685;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>I2C register traffic of a Servo PWM Pi platform on a simulated board.</p>
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public class ServoPwmPiRegisterTrafficTest implements SERVOPWMPI {
+
+    private static final int ADDRESS = 0x40;
+
+    private ServoPwmPiSimulatedI2CProvider i2c;
+    private Context context;
+    private ServoPwmPiPlatform platform;
+    private ServoPwmPiSimulatedPca9685 board;
+    private ServoPwmPiPwm[] pwms;
+
+    // channel masks of LEDn register write transactions
+    private final List<Integer> led_writes = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        ServoPwmPiProvider provider;
+
+        this.i2c = ServoPwmPiSimulatedI2CProvider.newInstance();
+        this.platform = new ServoPwmPiPlatform(ADDRESS);
+        this.context = Pi4J.newContextBuilder().noAutoDetect()
+                .add(this.i2c)
+                .add(ServoPwmPiProvider.newInstance())
+                .add(this.platform)
+                .build();
+        provider = this.context.provider(ServoPwmPiProvider.ID);
+        this.pwms = new ServoPwmPiPwm[PWM_CHANNEL_COUNT];
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            this.pwms[channel] = provider.create(ServoPwmPiPwmConfigBuilder.newInstance(this.context)
+                    .id("servopwmpi-test-" + channel)
+                    .address(channel)
+                    .build());
+        }
+        this.board = this.i2c.getBoard(this.platform.getPwmDevice().getBus().getBus(), ADDRESS);
+        this.board.setLedWriteListener((board, channelMask) -> {
+            synchronized (this.led_writes) {
+                this.led_writes.add(channelMask);
+            }
+        });
+        this.i2c.resetStatistics();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.context.shutdown();
+    }
+
+    @Test
+    public void setTicksWritesLedRegistersInOneTransaction() {
+        this.pwms[3].setTicks(100, 1100);
+
+        assertEquals(1, this.i2c.getWriteTransactionCount());
+        assertEquals(1 + LED_REGISTER_COUNT, this.i2c.getWrittenByteCount());
+        assertEquals(0, this.i2c.getReadTransactionCount());
+        assertEquals(List.of(1 << 3), this.led_writes);
+        assertEquals(100, this.board.getOnCount(3));
+        assertEquals(1100, this.board.getOffCount(3));
+    }
+
+    @Test
+    public void setChannelsWritesAdjacentPinsInOneBlockWrite() {
+        int[] on = new int[PWM_CHANNEL_COUNT];
+        int[] off = new int[PWM_CHANNEL_COUNT];
+
+        for (int channel = 0; channel < 4; channel++) {
+            on[channel] = 100 * channel;
+            off[channel] = 1000 + 100 * channel;
+        }
+
+        this.platform.setChannels(0x000F, on, off);
+
+        assertEquals(1, this.i2c.getWriteTransactionCount());
+        assertEquals(1 + 4 * LED_REGISTER_COUNT, this.i2c.getWrittenByteCount());
+        assertEquals(List.of(0x000F), this.led_writes);
+        for (int channel = 0; channel < 4; channel++) {
+            assertEquals(on[channel], this.board.getOnCount(channel));
+            assertEquals(off[channel], this.board.getOffCount(channel));
+        }
+    }
+
+    @Test
+    public void allSetWritesAllLedRegistersInOneTransaction() {
+        this.platform.allSet(0, 2048);
+
+        assertEquals(1, this.i2c.getWriteTransactionCount());
+        assertEquals(1 + LED_REGISTER_COUNT, this.i2c.getWrittenByteCount());
+        assertEquals(List.of(0xFFFF), this.led_writes);
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            assertEquals(2048, this.board.getOffCount(channel));
+        }
+    }
+
+    @Test
+    public void controlRegistersAreReadFromCache() {
+        int frequency = this.platform.getActualPwmFrequency();
+
+        this.platform.isSleeping();
+        this.platform.isAutoIncrement();
+        this.platform.setPwmFrequency(this.platform.getPwmFrequency());
+
+        assertEquals(frequency, this.platform.getActualPwmFrequency());
+        assertEquals(0, this.i2c.getReadTransactionCount());
+        assertEquals(0, this.i2c.getWriteTransactionCount());
+    }
+
+    @Test
+    public void unchangedLedRegistersAreElided() {
+        this.pwms[0].setTicks(0, 1000);
+        this.pwms[0].setTicks(0, 1000);
+
+        assertEquals(1, this.i2c.getWriteTransactionCount());
+        assertEquals(1, this.platform.getElidedWriteCount());
+    }
+
+    @Test
+    public void blockWriteIsTrimmedToChangedPins() {
+        int[] on = new int[PWM_CHANNEL_COUNT];
+        int[] off = new int[PWM_CHANNEL_COUNT];
+
+        for (int channel = 0; channel < 4; channel++) {
+            on[channel] = 100 * channel;
+            off[channel] = 1000 + 100 * channel;
+        }
+
+        this.platform.setChannels(0x000F, on, off);
+        this.i2c.resetStatistics();
+        this.led_writes.clear();
+        off[1] = 1500;
+        off[2] = 1600;
+        this.platform.setChannels(0x000F, on, off);
+
+        assertEquals(1, this.i2c.getWriteTransactionCount());
+        // LED1_OFF_L ... LED2_OFF_H: unchanged leading LED1_ON registers are not written
+        assertEquals(1 + 2 * LED_REGISTER_COUNT - 2, this.i2c.getWrittenByteCount());
+        assertEquals(List.of(0x0006), this.led_writes);
+        assertEquals(1500, this.board.getOffCount(1));
+        assertEquals(1600, this.board.getOffCount(2));
+    }
+
+    @Test
+    public void writeBehindDropsSupersededSetpoints() throws Exception {
+        ServoPwmPiBus bus = this.platform.getPwmDevice().getBus();
+        CompletableFuture<Void> last = null;
+
+        this.platform.setWriteMode(WriteMode.WRITE_BEHIND);
+        // hold the I2C bus: the timer thread cannot write before all setpoints are staged
+        bus.lock();
+        try {
+            for (int i = 0; i < 100; i++) {
+                last = this.pwms[0].setTicksAsync(0, 1000 + i);
+            }
+            assertEquals(0, this.i2c.getWriteTransactionCount());
+        } finally {
+            bus.unlock();
+        }
+        last.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, this.i2c.getWriteTransactionCount());
+        assertEquals(99, this.platform.getSupersededWriteCount());
+        assertEquals(1099, this.board.getOffCount(0));
+    }
+
+    @Test
+    public void combiningWritesWaitingCallersInOneBlockWrite() throws Exception {
+        ServoPwmPiBus bus = this.platform.getPwmDevice().getBus();
+        Thread[] callers = new Thread[4];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        this.platform.setWriteMode(WriteMode.COMBINING);
+        // hold the I2C bus until all callers have staged their LEDn counts
+        bus.lock();
+        try {
+            for (int i = 0; i < callers.length; i++) {
+                final int channel = i;
+                callers[i] = new Thread(() -> this.pwms[channel].setTicks(0, 1000 + channel));
+                callers[i].start();
+            }
+            while (bus.getQueueDepth() < callers.length && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(callers.length, bus.getQueueDepth());
+        } finally {
+            bus.unlock();
+        }
+        for (Thread caller : callers) {
+            caller.join(5000);
+        }
+
+        assertEquals(1, this.i2c.getWriteTransactionCount());
+        assertEquals(List.of(0x000F), this.led_writes);
+        for (int channel = 0; channel < callers.length; channel++) {
+            assertEquals(1000 + channel, this.board.getOffCount(channel));
+        }
+    }
+
+    @Test
+    public void frequencyChangeRestartsOscillatorAfterPreScaleWrite() {
+        this.platform.setPwmFrequency(50);
+
+        assertEquals(preScale(FREQ_OSC_CLOCK, 50), this.board.getPreScale());
+        assertPreScaleSequence();
+    }
+
+    @Test
+    public void asynchronousFrequencyChangeRestartsOscillatorAfterPreScaleWrite() throws Exception {
+        this.platform.setPwmFrequencyAsync(200).get(5, TimeUnit.SECONDS);
+
+        assertEquals(preScale(FREQ_OSC_CLOCK, 200), this.board.getPreScale());
+        assertPreScaleSequence();
+    }
+
+    @Test
+    public void synchronousFrequencyChangeFollowsPendingAsynchronousChange() throws Exception {
+        CompletableFuture<Void> pending = this.platform.setPwmFrequencyAsync(60);
+
+        this.platform.setPwmFrequency(100);
+
+        assertTrue(pending.isDone());
+        assertEquals(preScale(FREQ_OSC_CLOCK, 100), this.board.getPreScale());
+        assertPreScaleSequence();
+    }
+
+    @Test
+    public void frequencyIsReappliedAfterOscillatorCalibration() {
+        double correction;
+
+        this.platform.setPwmFrequency(50);
+        correction = this.platform.calibrateOscillator(52.5);
+        this.platform.setPwmFrequency(50);
+
+        assertEquals(preScale(FREQ_OSC_CLOCK * correction, 50), this.board.getPreScale());
+        assertEquals(50, this.platform.getPwmFrequency());
+        assertPreScaleSequence();
+    }
+
+    @Test
+    public void oscillatorCalibrationIsRejectedWithExternalClock() {
+        double clock = 25000000.0;
+
+        this.platform.enableExternalClock(clock);
+        this.platform.setPwmFrequency(50);
+
+        assertThrows(IllegalStateException.class, () -> this.platform.calibrateOscillator(52.5));
+        assertEquals(1.0, this.platform.getOscillatorCorrection());
+        assertEquals(preScale(clock, 50), this.board.getPreScale());
+    }
+
+    @Test
+    public void sleepDuringFrequencyChangeIsNotOverwrittenByRestart() throws Exception {
+        CompletableFuture<Void> pending = this.platform.setPwmFrequencyAsync(60);
+
+        this.platform.sleep();
+        pending.get(5, TimeUnit.SECONDS);
+
+        assertEquals(preScale(FREQ_OSC_CLOCK, 60), this.board.getPreScale());
+        assertEquals(0, this.board.getBlockedPreScaleWriteCount());
+        assertTrue(this.board.isSleeping());
+        assertTrue(this.platform.isSleeping());
+    }
+
+    @Test
+    public void modeChangeDuringFrequencyChangeIsNotOverwrittenByRestart() throws Exception {
+        CompletableFuture<Void> pending = this.platform.setPwmFrequencyAsync(60);
+
+        this.platform.setAutoIncrement(false);
+        pending.get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, this.board.getRegister(REGISTER_MODE_1) & AI_MASK);
+        assertFalse(this.platform.isAutoIncrement());
+        assertPreScaleSequence();
+    }
+
+    @Test
+    public void externalClockIsEnabledInSleepMode() {
+        double clock = 40000000.0;
+
+        this.platform.enableExternalClock(clock);
+        this.platform.setPwmFrequency(100);
+
+        assertTrue(this.board.isExternalClock());
+        assertEquals(preScale(clock, 100), this.board.getPreScale());
+        assertPreScaleSequence();
+    }
+
+    @Test
+    public void externalClockFollowsPendingAsynchronousChange() throws Exception {
+        double clock = 25000000.0;
+        CompletableFuture<Void> pending = this.platform.setPwmFrequencyAsync(60);
+
+        this.platform.enableExternalClock(clock);
+
+        assertTrue(pending.isDone());
+        assertTrue(this.board.isExternalClock());
+        assertEquals(preScale(clock, 60), this.board.getPreScale());
+        assertEquals(60, this.platform.getPwmFrequency());
+        assertPreScaleSequence();
+    }
+
+    @Test
+    public void multiBoardFrequencyChangeIsCheckedOnAllBoardsFirst() {
+        ServoPwmPiSimulatedI2CProvider i2c = ServoPwmPiSimulatedI2CProvider.newInstance();
+        ServoPwmPiPlatform external = new ServoPwmPiPlatform(0x41);
+        ServoPwmPiPlatform internal = new ServoPwmPiPlatform(0x42);
+        Context context = Pi4J.newContextBuilder().noAutoDetect()
+                .add(i2c)
+                .add(external)
+                .add(internal)
+                .build();
+        ServoPwmPiSimulatedPca9685 board;
+        int preScale;
+
+        try {
+            external.enableExternalClock(50000000.0);
+            board = i2c.getBoard(external.getPwmDevice().getBus().getBus(), 0x41);
+            preScale = board.getPreScale();
+            i2c.resetStatistics();
+
+            assertThrows(IllegalArgumentException.class, () -> ServoPwmPiPlatform.setPwmFrequencyAsync(2000, external, internal));
+            assertEquals(preScale, board.getPreScale());
+            assertEquals(0, i2c.getWriteTransactionCount());
+        } finally {
+            context.shutdown();
+        }
+    }
+
+    /**
+     * PRE_SCALE has been written in SLEEP mode and the PWM channels have been
+     * restarted after the oscillator settled
+     */
+    private void assertPreScaleSequence() {
+        assertEquals(0, this.board.getBlockedPreScaleWriteCount());
+        assertEquals(0, this.board.getEarlyRestartCount());
+        assertFalse(this.board.isSleeping());
+        assertTrue(this.board.isRunning());
+    }
+
+    private static int preScale(double oscillatorClock, int frequency) {
+        return (int) Math.round(oscillatorClock / (PWM_STEPS * frequency)) - 1;
+    }
+}
@@ -0,0 +1,155 @@
+package com.pi4j.plugin.addonboard.servopwmpi.simulation;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiSimulatedI2CProvider.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.io.i2c.I2CProvider;
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.ServoPwmPi;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.impl.ServoPwmPiSimulatedI2CProviderImpl;
+
+/**
+ * <p>I2C provider of simulated Servo PWM Pi boards.</p>
+ * <p>
+ *  Replaces the I2C provider of a Pi4J context to run Servo PWM Pi
+ *  platforms without hardware, e. g. for tests and benchmarks. Each I2C bus
+ *  number is a separate simulated I2C bus. A simulated board is added when the
+ *  first I2C device is created for its I2C address; I2C devices for group
+ *  addresses of simulated boards address the member boards.
+ *  <p>
+ *  Transactions take the time needed at the configured
+ *  {@link SERVOPWMPI.I2cBusSpeed I2C bus speed} plus a per-transaction
+ *  overhead. Without bus speed, transactions take no time.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public interface ServoPwmPiSimulatedI2CProvider extends I2CProvider {
+    String NAME = ServoPwmPi.SERVOPWMPIZERO_SIMULATED_I2C_PROVIDER_NAME;
+    String ID = ServoPwmPi.SERVOPWMPIZERO_SIMULATED_I2C_PROVIDER_ID;
+
+    /**
+     * <p>newInstance.</p>
+     *
+     * @return a {@link ServoPwmPiSimulatedI2CProvider} object without simulated bus timing.
+     */
+    static ServoPwmPiSimulatedI2CProvider newInstance() {
+        return new ServoPwmPiSimulatedI2CProviderImpl(null, 0);
+    }
+
+    /**
+     * <p>newInstance.</p>
+     *
+     * @param speed {@link SERVOPWMPI.I2cBusSpeed} of all simulated I2C buses
+     * @param transactionOverhead additional duration of each transaction in nanoseconds
+     * @return a {@link ServoPwmPiSimulatedI2CProvider} object.
+     */
+    static ServoPwmPiSimulatedI2CProvider newInstance(SERVOPWMPI.I2cBusSpeed speed, long transactionOverhead) {
+        return new ServoPwmPiSimulatedI2CProviderImpl(speed, transactionOverhead);
+    }
+
+    /**
+     * Add a simulated board
+     *
+     * @param bus I2C bus number
+     * @param address 7-bit I2C address
+     * @return register model of the board
+     */
+    ServoPwmPiSimulatedPca9685 addBoard(int bus, int address) throws IllegalArgumentException;
+
+    /**
+     * Get a simulated board
+     *
+     * @param bus I2C bus number
+     * @param address 7-bit I2C address
+     * @return register model of the board or null if there is no board at the I2C address
+     */
+    ServoPwmPiSimulatedPca9685 getBoard(int bus, int address);
+
+    /**
+     * Set the timing of all simulated I2C buses
+     *
+     * @param speed {@link SERVOPWMPI.I2cBusSpeed} or null if transactions take no time
+     * @param transactionOverhead additional duration of each transaction in nanoseconds
+     */
+    void setBusTiming(SERVOPWMPI.I2cBusSpeed speed, long transactionOverhead);
+
+    /**
+     * <p>Getter for the bus speed.</p>
+     *
+     * @return {@link SERVOPWMPI.I2cBusSpeed} or null if transactions take no time
+     */
+    SERVOPWMPI.I2cBusSpeed getBusSpeed();
+
+    /**
+     * <p>Getter for the transaction overhead.</p>
+     *
+     * @return additional duration of each transaction in nanoseconds
+     */
+    long getTransactionOverhead();
+
+    /**
+     * Get the number of write transactions on all simulated I2C buses
+     *
+     * @return number of write transactions
+     */
+    long getWriteTransactionCount();
+
+    /**
+     * Get the number of read transactions on all simulated I2C buses
+     *
+     * @return number of read transactions
+     */
+    long getReadTransactionCount();
+
+    /**
+     * Get the number of bytes written on all simulated I2C buses, including
+     * register addresses and excluding I2C address bytes
+     *
+     * @return number of written bytes
+     */
+    long getWrittenByteCount();
+
+    /**
+     * Get the number of bytes read on all simulated I2C buses
+     *
+     * @return number of read bytes
+     */
+    long getReadByteCount();
+
+    /**
+     * Get the simulated time all I2C buses were busy
+     *
+     * @return bus time in nanoseconds
+     */
+    long getBusTime();
+
+    /**
+     * Reset transaction statistics of all simulated I2C buses and boards
+     */
+    void resetStatistics();
+}
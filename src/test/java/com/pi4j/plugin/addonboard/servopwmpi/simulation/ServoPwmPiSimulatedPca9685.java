@@ -0,0 +1,525 @@
+package com.pi4j.plugin.addonboard.servopwmpi.simulation;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiSimulatedPca9685.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import java.util.Arrays;
+
+/**
+ * <p>Register model of a simulated PCA9685 PWM controller.</p>
+ * <p>
+ *  Models the 256 registers of a Servo PWM Pi board's PWM controller with
+ *  the PCA9685 register semantics:
+ *  <ul>
+ *  <li>register auto-increment (Mode 1 AI bit) with roll-over from 0xFF to
+ *      0x00; without auto-increment all bytes of a transaction are written to
+ *      or read from the same register</li>
+ *  <li>SLEEP and RESTART: sleeping stops running PWM channels and sets RESTART,
+ *      writing RESTART after wake-up restarts them and clears RESTART; restarts
+ *      within 500 us after wake-up are counted as early restarts</li>
+ *  <li>PRE_SCALE writes are blocked while the oscillator is running</li>
+ *  <li>EXTCLK can only be set in SLEEP mode and is sticky</li>
+ *  <li>ALL_LED writes load the LEDn registers of all PWM pins, ALL_LED reads
+ *      return zero</li>
+ *  <li>reserved bits read as zero, reserved registers ignore writes</li>
+ *  </ul>
+ *  The model starts in power-on state. All methods are guarded by the model
+ *  monitor. An optional {@link LedWriteListener} is notified of every write
+ *  transaction that loads LEDn registers.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public final class ServoPwmPiSimulatedPca9685 implements SERVOPWMPI {
+
+    // power-on register values
+    private static final int MODE_1_POWER_ON = 0x11;        // SLEEP, ALLCALL
+    private static final int MODE_2_POWER_ON = 0x04;        // OUTDRV
+
+    // register map
+    private static final int LAST_LED_REGISTER = LED0_ON_L + PWM_CHANNEL_COUNT * LED_REGISTER_COUNT - 1;
+    private static final int REGISTER_TEST_MODE = 0xFF;
+
+    // oscillator start-up time after wake-up
+    private static final long OSCILLATOR_STARTUP_TIME = 500000;    // ns
+
+    private final int address;
+
+    // register file and register pointer
+    private final byte[] registers = new byte[256];
+    private int pointer = 0;
+
+    // PWM channels stopped by SLEEP mode, may be restarted (Mode 1 RESTART bit)
+    private boolean restart = false;
+    private long wake_time = 0;
+
+    // statistics
+    private long register_writes = 0;
+    private long register_reads = 0;
+    private long blocked_pre_scale_writes = 0;
+    private long early_restarts = 0;
+
+    // PWM pins whose LEDn registers the current write transaction loaded
+    private int written_channels = 0;
+    private volatile LedWriteListener led_write_listener = null;
+
+    /**
+     * Receiver of LEDn register writes of a simulated board
+     */
+    @FunctionalInterface
+    public interface LedWriteListener {
+
+        /**
+         * Called after a write transaction has loaded LEDn registers
+         * <p>
+         *  Runs in the writing thread while the simulated I2C bus and the
+         *  model monitor are held, i. e. must return quickly.
+         *
+         * @param board simulated board
+         * @param channelMask PWM pins whose LEDn registers were written (LED0 = bit 0)
+         */
+        void ledsWritten(ServoPwmPiSimulatedPca9685 board, int channelMask);
+    }
+
+    /**
+     * <p>Constructor for ServoPwmPiSimulatedPca9685.</p>
+     *
+     * @param address 7-bit I2C address of the board
+     */
+    public ServoPwmPiSimulatedPca9685(int address) {
+        this.address = address;
+        reset();
+    }
+
+    /**
+     * Reset all registers to their power-on values (power cycle or software reset)
+     */
+    public synchronized void reset() {
+        Arrays.fill(this.registers, (byte) 0);
+        this.registers[REGISTER_MODE_1] = (byte) MODE_1_POWER_ON;
+        this.registers[REGISTER_MODE_2] = (byte) MODE_2_POWER_ON;
+        for (GroupAddress group : GroupAddress.all()) {
+            this.registers[group.getRegister()] = (byte) (group.getDefaultAddress() << 1);
+        }
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            // LEDn_OFF_H bit 4: full OFF
+            this.registers[LED0_OFF_H + channel * LED_REGISTER_COUNT] = (byte) (LED_FULL_MASK >> 8);
+        }
+        this.registers[REGISTER_PRE_SCALE] = DEFAULT_PRE_SCALE;
+        this.pointer = 0;
+        this.restart = false;
+    }
+
+    /**
+     * <p>Getter for the field <code>address</code>.</p>
+     *
+     * @return 7-bit I2C address of the board
+     */
+    public int getAddress() {
+        return this.address;
+    }
+
+    /**
+     * Check if the board acknowledges an I2C address: its own address or an
+     * enabled group address (SUBADR1 - SUBADR3, ALLCALLADR)
+     *
+     * @param address 7-bit I2C address
+     * @return true if the board responds to the I2C address
+     */
+    public synchronized boolean respondsTo(int address) {
+        return address == this.address || isGroupMember(address);
+    }
+
+    /**
+     * Check if an I2C address is an enabled group address of the board
+     *
+     * @param address 7-bit I2C address
+     * @return true if the I2C address is an enabled group address
+     */
+    public synchronized boolean isGroupMember(int address) {
+        for (GroupAddress group : GroupAddress.all()) {
+            if ((this.registers[REGISTER_MODE_1] & group.getValue()) != 0 && ((this.registers[group.getRegister()] & 0xFF) >> 1) == address) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if an I2C address is a configured group address of the board,
+     * enabled or not
+     *
+     * @param address 7-bit I2C address
+     * @return true if a SUBADRx or ALLCALLADR register holds the I2C address
+     */
+    public synchronized boolean isGroupAddress(int address) {
+        for (GroupAddress group : GroupAddress.all()) {
+            if (((this.registers[group.getRegister()] & 0xFF) >> 1) == address) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write transaction: set the register pointer and write data bytes
+     *
+     * @param register register address
+     * @param data data bytes
+     * @param offset offset of the first data byte
+     * @param length number of data bytes
+     */
+    public synchronized void writeRegisters(int register, byte[] data, int offset, int length) {
+        LedWriteListener listener = this.led_write_listener;
+
+        this.pointer = register & 0xFF;
+        this.written_channels = 0;
+        for (int i = 0; i < length; i++) {
+            writeRegister(this.pointer, data[offset + i]);
+            advance();
+        }
+        if (listener != null && this.written_channels != 0) {
+            listener.ledsWritten(this, this.written_channels);
+        }
+    }
+
+    /**
+     * Read transaction: set the register pointer and read data bytes
+     *
+     * @param register register address
+     * @param buffer buffer for the data bytes
+     * @param offset offset of the first data byte
+     * @param length number of data bytes
+     */
+    public synchronized void readRegisters(int register, byte[] buffer, int offset, int length) {
+        this.pointer = register & 0xFF;
+        readRegisters(buffer, offset, length);
+    }
+
+    /**
+     * Read transaction without register address: read data bytes from the
+     * current register pointer
+     *
+     * @param buffer buffer for the data bytes
+     * @param offset offset of the first data byte
+     * @param length number of data bytes
+     */
+    public synchronized void readRegisters(byte[] buffer, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            buffer[offset + i] = (byte) readRegister(this.pointer);
+            advance();
+        }
+    }
+
+    /**
+     * Get a register value as read over the I2C bus
+     *
+     * @param register register address
+     * @return register value (range: 0 - 255)
+     */
+    public synchronized int getRegister(int register) {
+        return registerValue(register & 0xFF);
+    }
+
+    /**
+     * Get an image of all registers as read over the I2C bus
+     *
+     * @return register values indexed by register address
+     */
+    public synchronized byte[] getRegisterImage() {
+        byte[] image = new byte[this.registers.length];
+
+        for (int register = 0; register < image.length; register++) {
+            image[register] = (byte) registerValue(register);
+        }
+        return image;
+    }
+
+    /**
+     * Check if the oscillator is off (Mode 1 SLEEP bit)
+     *
+     * @return true if the board is sleeping
+     */
+    public synchronized boolean isSleeping() {
+        return (this.registers[REGISTER_MODE_1] & SLEEP_MASK) != 0;
+    }
+
+    /**
+     * Check if the PWM channels are running, i. e. the board is awake and
+     * no restart is pending
+     *
+     * @return true if the PWM channels generate their PWM signals
+     */
+    public synchronized boolean isRunning() {
+        return !isSleeping() && !this.restart;
+    }
+
+    /**
+     * Check if the board uses the clock at its EXTCLK pin (Mode 1 EXTCLK bit)
+     *
+     * @return true if EXTCLK is set
+     */
+    public synchronized boolean isExternalClock() {
+        return (this.registers[REGISTER_MODE_1] & EXTCLK_MASK) != 0;
+    }
+
+    /**
+     * <p>Getter for the PRE_SCALE register.</p>
+     *
+     * @return PRE_SCALE value (range: 3 - 255)
+     */
+    public synchronized int getPreScale() {
+        return this.registers[REGISTER_PRE_SCALE] & 0xFF;
+    }
+
+    /**
+     * Get the PWM frequency of the board
+     *
+     * @param oscillatorClock oscillator clock in Hz, e. g. 25 MHz internal oscillator
+     * @return PWM frequency in Hz
+     */
+    public synchronized double getFrequency(double oscillatorClock) {
+        return oscillatorClock / PWM_STEPS / (getPreScale() + 1);
+    }
+
+    /**
+     * Get the LEDn_ON count of a PWM pin
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return LEDn_ON count including full ON bit
+     */
+    public synchronized int getOnCount(int channel) {
+        return ledCount(LED0_ON_L + channel * LED_REGISTER_COUNT);
+    }
+
+    /**
+     * Get the LEDn_OFF count of a PWM pin
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return LEDn_OFF count including full OFF bit
+     */
+    public synchronized int getOffCount(int channel) {
+        return ledCount(LED0_OFF_L + channel * LED_REGISTER_COUNT);
+    }
+
+    /**
+     * Get the number of PWM counter steps a PWM pin is HIGH per period
+     * <p>
+     *  Full OFF takes precedence over full ON. The output polarity (Mode 2
+     *  INVRT bit) and the output state of stopped PWM channels are not
+     *  considered.
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return number of HIGH PWM counter steps (range: 0 - 4096)
+     */
+    public synchronized int getHighTicks(int channel) {
+        int on = getOnCount(channel);
+        int off = getOffCount(channel);
+
+        if ((off & LED_FULL_MASK) != 0) {
+            return 0;
+        }
+        if ((on & LED_FULL_MASK) != 0) {
+            return PWM_STEPS;
+        }
+        return (off - on) & (PWM_STEPS - 1);
+    }
+
+    /**
+     * Get the number of written registers
+     *
+     * @return number of register writes
+     */
+    public synchronized long getRegisterWriteCount() {
+        return this.register_writes;
+    }
+
+    /**
+     * Get the number of read registers
+     *
+     * @return number of register reads
+     */
+    public synchronized long getRegisterReadCount() {
+        return this.register_reads;
+    }
+
+    /**
+     * Get the number of PRE_SCALE writes blocked because the oscillator was running
+     *
+     * @return number of blocked PRE_SCALE writes
+     */
+    public synchronized long getBlockedPreScaleWriteCount() {
+        return this.blocked_pre_scale_writes;
+    }
+
+    /**
+     * Get the number of restarts issued before the oscillator had started (500 us)
+     *
+     * @return number of early restarts
+     */
+    public synchronized long getEarlyRestartCount() {
+        return this.early_restarts;
+    }
+
+    /**
+     * Set the receiver of LEDn register writes
+     *
+     * @param listener {@link LedWriteListener} or null to remove the receiver
+     */
+    public void setLedWriteListener(LedWriteListener listener) {
+        this.led_write_listener = listener;
+    }
+
+    /**
+     * Reset register access statistics
+     */
+    public synchronized void resetStatistics() {
+        this.register_writes = 0;
+        this.register_reads = 0;
+        this.blocked_pre_scale_writes = 0;
+        this.early_restarts = 0;
+    }
+
+    /**
+     * Advance the register pointer after a register access
+     */
+    private void advance() {
+        if ((this.registers[REGISTER_MODE_1] & AI_MASK) != 0) {
+            this.pointer = (this.pointer + 1) & 0xFF;
+        }
+    }
+
+    /**
+     * Write a register according to the PCA9685 register semantics
+     */
+    private void writeRegister(int register, byte value) {
+        int data = value & 0xFF;
+
+        this.register_writes++;
+        if (register == REGISTER_MODE_1) {
+            writeMode1(data);
+        } else if (register == REGISTER_MODE_2) {
+            // bits 5 to 7 are reserved
+            this.registers[register] = (byte) (data & 0x1F);
+        } else if (register <= REGISTER_ALLCALLADR) {
+            // bit 0 of SUBADRx and ALLCALLADR is reserved
+            this.registers[register] = (byte) (data & 0xFE);
+        } else if (register <= LAST_LED_REGISTER) {
+            writeLedRegister(register, data);
+        } else if (register >= ALL_LED_ON_L && register <= ALL_LED_OFF_H) {
+            for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+                writeLedRegister(LED0_ON_L + channel * LED_REGISTER_COUNT + (register - ALL_LED_ON_L), data);
+            }
+        } else if (register == REGISTER_PRE_SCALE) {
+            if ((this.registers[REGISTER_MODE_1] & SLEEP_MASK) != 0) {
+                this.registers[register] = value;
+            } else {
+                this.blocked_pre_scale_writes++;
+            }
+        } else if (register == REGISTER_TEST_MODE) {
+            this.registers[register] = value;
+        }
+        // reserved registers ignore writes
+    }
+
+    /**
+     * Write Mode 1 register: SLEEP, RESTART and sticky EXTCLK
+     */
+    private void writeMode1(int data) {
+        int current = this.registers[REGISTER_MODE_1] & 0xFF;
+        boolean sleeping = (current & SLEEP_MASK) != 0;
+        boolean sleep = (data & SLEEP_MASK) != 0;
+        int extclk = current & EXTCLK_MASK;
+
+        if (sleeping && (data & EXTCLK_MASK) != 0) {
+            extclk = EXTCLK_MASK;
+        }
+        if (!sleeping && sleep && !this.restart) {
+            // running PWM channels are stopped at the end of the PWM period
+            this.restart = true;
+        }
+        if (sleeping && !sleep) {
+            this.wake_time = System.nanoTime();
+        }
+        if (!sleep && this.restart && (data & RESTART_ENABLE_MASK) != 0) {
+            if (System.nanoTime() - this.wake_time < OSCILLATOR_STARTUP_TIME) {
+                this.early_restarts++;
+            }
+            this.restart = false;
+        }
+        this.registers[REGISTER_MODE_1] = (byte) ((data & ~(RESTART_ENABLE_MASK | EXTCLK_MASK)) | extclk);
+    }
+
+    /**
+     * Write LEDn register, bits 5 to 7 of LEDn_ON_H and LEDn_OFF_H are reserved
+     */
+    private void writeLedRegister(int register, int data) {
+        if (((register - LED0_ON_L) & 0x01) != 0) {
+            data &= 0x1F;
+        }
+        this.registers[register] = (byte) data;
+        this.written_channels |= 1 << ((register - LED0_ON_L) / LED_REGISTER_COUNT);
+        if (!isSleeping()) {
+            // PWM register writes resume the PWM channels
+            this.restart = false;
+        }
+    }
+
+    /**
+     * Read a register according to the PCA9685 register semantics
+     */
+    private int readRegister(int register) {
+        this.register_reads++;
+        return registerValue(register);
+    }
+
+    /**
+     * Register value as read over the I2C bus
+     */
+    private int registerValue(int register) {
+        if (register == REGISTER_MODE_1) {
+            return (this.registers[register] & 0xFF) | (this.restart ? (RESTART_ENABLE_MASK & 0xFF) : 0);
+        }
+        if (register > LAST_LED_REGISTER && register < ALL_LED_ON_L) {
+            // reserved registers
+            return 0;
+        }
+        if (register >= ALL_LED_ON_L && register <= ALL_LED_OFF_H) {
+            // ALL_LED registers are write-only
+            return 0;
+        }
+        return this.registers[register] & 0xFF;
+    }
+
+    /**
+     * 13-bit LEDn count of LEDn_x_L and LEDn_x_H registers
+     */
+    private int ledCount(int register) {
+        return (this.registers[register] & 0xFF) | ((this.registers[register + 1] & 0xFF) << 8);
+    }
+}
@@ -0,0 +1,280 @@
+package com.pi4j.plugin.addonboard.servopwmpi.simulation;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiWaveform.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+
+/**
+ * <p>PWM waveforms of a Servo PWM Pi board over one PWM period.</p>
+ * <p>
+ *  Renders a register image of the board's PCA9685 into the output levels of
+ *  all PWM pins:
+ *  <ul>
+ *  <li>a PWM pin is active from its LEDn_ON count to its LEDn_OFF count, the
+ *      active period wraps around the end of the PWM period if LEDn_ON is
+ *      greater than LEDn_OFF; equal counts never activate the PWM pin</li>
+ *  <li>full ON makes a PWM pin active for the whole PWM period, full OFF
+ *      takes precedence over full ON</li>
+ *  <li>the output level is the inverted activity if the Mode 2 INVRT bit is
+ *      set; with open-drain outputs (Mode 2 OUTDRV bit clear) a HIGH output
+ *      is released, i. e. pulled up externally</li>
+ *  <li>the PWM counter step duration follows from PRE_SCALE and the
+ *      oscillator clock</li>
+ *  </ul>
+ *  The load profile counts the active PWM pins per PWM counter step, the
+ *  switching profile counts the edges per PWM counter step. SLEEP mode and
+ *  the OE pin are not considered. Waveforms are immutable.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public final class ServoPwmPiWaveform implements SERVOPWMPI {
+
+    private final double tick_micros;
+    private final boolean inverted;
+    private final boolean open_drain;
+
+    // first active PWM counter step and number of active steps per PWM pin
+    private final int[] starts = new int[PWM_CHANNEL_COUNT];
+    private final int[] widths = new int[PWM_CHANNEL_COUNT];
+
+    // active PWM pins and edges per PWM counter step
+    private final int[] load = new int[PWM_STEPS];
+    private final int[] switching = new int[PWM_STEPS];
+
+    private ServoPwmPiWaveform(byte[] registers, double oscillatorClock) {
+        int mode2 = registers[REGISTER_MODE_2] & 0xFF;
+        int base;
+        int on;
+        int off;
+
+        this.tick_micros = 1000000.0 * ((registers[REGISTER_PRE_SCALE] & 0xFF) + 1) / oscillatorClock;
+        this.inverted = (mode2 & INVRT_MASK) != 0;
+        this.open_drain = (mode2 & OUTDRV_MASK) == 0;
+        for (int channel = 0; channel < PWM_CHANNEL_COUNT; channel++) {
+            base = LED0_ON_L + channel * LED_REGISTER_COUNT;
+            on = (registers[base] & 0xFF) | ((registers[base + 1] & 0xFF) << 8);
+            off = (registers[base + 2] & 0xFF) | ((registers[base + 3] & 0xFF) << 8);
+            if ((off & LED_FULL_MASK) != 0) {
+                this.widths[channel] = 0;
+            } else if ((on & LED_FULL_MASK) != 0) {
+                this.widths[channel] = PWM_STEPS;
+            } else {
+                this.starts[channel] = on & (PWM_STEPS - 1);
+                this.widths[channel] = (off - on) & (PWM_STEPS - 1);
+            }
+            if (this.widths[channel] > 0 && this.widths[channel] < PWM_STEPS) {
+                this.switching[this.starts[channel]]++;
+                this.switching[(this.starts[channel] + this.widths[channel]) & (PWM_STEPS - 1)]++;
+            }
+            for (int i = 0; i < this.widths[channel]; i++) {
+                this.load[(this.starts[channel] + i) & (PWM_STEPS - 1)]++;
+            }
+        }
+    }
+
+    /**
+     * Render a register image
+     *
+     * @param registers register image of a PCA9685 indexed by register address (256 registers)
+     * @param oscillatorClock oscillator clock in Hz, e. g. 25 MHz internal oscillator
+     * @return a {@link ServoPwmPiWaveform} object.
+     */
+    public static ServoPwmPiWaveform render(byte[] registers, double oscillatorClock) throws IllegalArgumentException {
+        if (registers.length < REGISTER_PRE_SCALE + 1) {
+            throw new IllegalArgumentException("render(): register image too short (" + registers.length + " registers)");
+        }
+        if (!(oscillatorClock > 0)) {
+            throw new IllegalArgumentException("render(): oscillator clock must be positive");
+        }
+        return new ServoPwmPiWaveform(registers, oscillatorClock);
+    }
+
+    /**
+     * Render the current registers of a simulated board
+     *
+     * @param board simulated board
+     * @param oscillatorClock oscillator clock in Hz, e. g. 25 MHz internal oscillator
+     * @return a {@link ServoPwmPiWaveform} object.
+     */
+    public static ServoPwmPiWaveform render(ServoPwmPiSimulatedPca9685 board, double oscillatorClock) throws IllegalArgumentException {
+        return render(board.getRegisterImage(), oscillatorClock);
+    }
+
+    /**
+     * Get the duration of a PWM counter step
+     *
+     * @return PWM counter step duration in microseconds
+     */
+    public double getTickMicros() {
+        return this.tick_micros;
+    }
+
+    /**
+     * Get the duration of the PWM period
+     *
+     * @return PWM period in microseconds
+     */
+    public double getPeriodMicros() {
+        return this.tick_micros * PWM_STEPS;
+    }
+
+    /**
+     * Check if the outputs are inverted (Mode 2 INVRT bit)
+     *
+     * @return true if an active PWM pin drives its output LOW
+     */
+    public boolean isInverted() {
+        return this.inverted;
+    }
+
+    /**
+     * Check if the outputs are open-drain (Mode 2 OUTDRV bit clear)
+     *
+     * @return true if HIGH outputs are released instead of driven
+     */
+    public boolean isOpenDrain() {
+        return this.open_drain;
+    }
+
+    /**
+     * Get the number of PWM counter steps a PWM pin is active per PWM period
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return number of active PWM counter steps (range: 0 - 4096)
+     */
+    public int getActiveTicks(int channel) {
+        return this.widths[channel];
+    }
+
+    /**
+     * Get the pulse width of a PWM pin
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return active period in microseconds
+     */
+    public double getPulseMicros(int channel) {
+        return this.widths[channel] * this.tick_micros;
+    }
+
+    /**
+     * Check if the output of a PWM pin is HIGH at a PWM counter step
+     *
+     * @param channel PWM pin (LEDn) address
+     * @param tick PWM counter step (range: 0 - 4095)
+     * @return true if the output level is HIGH
+     */
+    public boolean isHigh(int channel, int tick) {
+        return isActive(channel, tick) != this.inverted;
+    }
+
+    /**
+     * Get the times of the rising output edges of a PWM pin
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return rising edges in microseconds from the start of the PWM period (empty for constant outputs)
+     */
+    public double[] getRisingEdges(int channel) {
+        return edges(channel, !this.inverted);
+    }
+
+    /**
+     * Get the times of the falling output edges of a PWM pin
+     *
+     * @param channel PWM pin (LEDn) address
+     * @return falling edges in microseconds from the start of the PWM period (empty for constant outputs)
+     */
+    public double[] getFallingEdges(int channel) {
+        return edges(channel, this.inverted);
+    }
+
+    /**
+     * Get the number of active PWM pins per PWM counter step
+     *
+     * @return load profile indexed by PWM counter step
+     */
+    public int[] getLoad() {
+        return this.load.clone();
+    }
+
+    /**
+     * Get the maximum number of PWM pins that are active at the same time
+     *
+     * @return peak load
+     */
+    public int getPeakLoad() {
+        return max(this.load);
+    }
+
+    /**
+     * Get the number of output edges per PWM counter step
+     *
+     * @return switching profile indexed by PWM counter step
+     */
+    public int[] getSwitching() {
+        return this.switching.clone();
+    }
+
+    /**
+     * Get the maximum number of output edges at the same PWM counter step
+     *
+     * @return peak number of simultaneous edges
+     */
+    public int getPeakSwitching() {
+        return max(this.switching);
+    }
+
+    /**
+     * Check if a PWM pin is active at a PWM counter step
+     */
+    private boolean isActive(int channel, int tick) {
+        return ((tick - this.starts[channel]) & (PWM_STEPS - 1)) < this.widths[channel];
+    }
+
+    /**
+     * Activation (start of active period) or deactivation edge of a PWM pin
+     */
+    private double[] edges(int channel, boolean activation) {
+        if (this.widths[channel] == 0 || this.widths[channel] == PWM_STEPS) {
+            return new double[0];
+        }
+        if (activation) {
+            return new double[] { this.starts[channel] * this.tick_micros };
+        }
+        return new double[] { ((this.starts[channel] + this.widths[channel]) & (PWM_STEPS - 1)) * this.tick_micros };
+    }
+
+    private static int max(int[] profile) {
+        int peak = 0;
+
+        for (int value : profile) {
+            peak = Math.max(peak, value);
+        }
+        return peak;
+    }
+}
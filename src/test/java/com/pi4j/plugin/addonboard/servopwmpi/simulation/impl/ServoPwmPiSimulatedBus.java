@@ -0,0 +1,245 @@
+package com.pi4j.plugin.addonboard.servopwmpi.simulation.impl;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiSimulatedBus.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.io.exception.IOException;
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.ServoPwmPiSimulatedPca9685;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulated I2C bus with Servo PWM Pi boards
+ * <p>
+ *  Transactions are performed one at a time, like on a real I2C bus. Each
+ *  transaction takes the time needed to clock its bits at the bus speed plus
+ *  a fixed per-transaction overhead, e. g. of the I2C driver. Writes are
+ *  delivered to every board that responds to the I2C address, i. e. group
+ *  addresses update all member boards. Reads from group addresses are not
+ *  acknowledged.
+ *  All methods are guarded by the bus monitor.
+ */
+final class ServoPwmPiSimulatedBus {
+
+    // bit times per transaction: START, STOP and repeated START
+    private static final int START_STOP_BITS = 2;
+    private static final int BITS_PER_BYTE = 9;     // 8 data bits plus ACK
+
+    // waits longer than this are parked, the remainder is spun
+    private static final long PARK_THRESHOLD = 100000;  // ns
+
+    private final int bus;
+    private final List<ServoPwmPiSimulatedPca9685> boards = new ArrayList<>();
+
+    // bus timing (speed null: transactions take no time)
+    private SERVOPWMPI.I2cBusSpeed speed;
+    private long transaction_overhead;
+
+    // statistics
+    private long write_transactions = 0;
+    private long read_transactions = 0;
+    private long written_bytes = 0;
+    private long read_bytes = 0;
+    private long bus_time = 0;
+
+    ServoPwmPiSimulatedBus(int bus, SERVOPWMPI.I2cBusSpeed speed, long transactionOverhead) {
+        this.bus = bus;
+        this.speed = speed;
+        this.transaction_overhead = transactionOverhead;
+    }
+
+    /**
+     * Get the board at an I2C address, add it if the I2C address is neither
+     * used by a board nor a group address of a board
+     *
+     * @param address 7-bit I2C address
+     * @return board at the I2C address or null for group addresses
+     */
+    synchronized ServoPwmPiSimulatedPca9685 attach(int address) {
+        ServoPwmPiSimulatedPca9685 board = getBoard(address);
+
+        if (board != null) {
+            return board;
+        }
+        for (ServoPwmPiSimulatedPca9685 member : this.boards) {
+            if (member.isGroupAddress(address)) {
+                return null;
+            }
+        }
+        return addBoard(address);
+    }
+
+    synchronized ServoPwmPiSimulatedPca9685 addBoard(int address) throws IllegalArgumentException {
+        ServoPwmPiSimulatedPca9685 board;
+
+        if (getBoard(address) != null) {
+            throw new IllegalArgumentException("addBoard(): I2C address " + String.format("0x%02x", address) + " on bus " + this.bus + " is already used");
+        }
+        board = new ServoPwmPiSimulatedPca9685(address);
+        this.boards.add(board);
+        return board;
+    }
+
+    synchronized ServoPwmPiSimulatedPca9685 getBoard(int address) {
+        for (ServoPwmPiSimulatedPca9685 board : this.boards) {
+            if (board.getAddress() == address) {
+                return board;
+            }
+        }
+        return null;
+    }
+
+    synchronized void setTiming(SERVOPWMPI.I2cBusSpeed speed, long transactionOverhead) {
+        this.speed = speed;
+        this.transaction_overhead = transactionOverhead;
+    }
+
+    /**
+     * Write transaction: I2C address, optional register address, data bytes
+     *
+     * @param address 7-bit I2C address
+     * @param register register address or -1 if the first data byte is the register address
+     * @param data data bytes
+     * @param offset offset of the first data byte
+     * @param length number of data bytes
+     * @return number of written data bytes
+     */
+    synchronized int write(int address, int register, byte[] data, int offset, int length) {
+        int bytes = (register < 0) ? length : length + 1;
+        boolean acknowledged = false;
+
+        if (register < 0 && length == 0) {
+            throw new IllegalArgumentException("write(): no register address");
+        }
+        transfer(bytes + 1, 0);
+        for (ServoPwmPiSimulatedPca9685 board : this.boards) {
+            if (board.respondsTo(address)) {
+                if (register < 0) {
+                    board.writeRegisters(data[offset], data, offset + 1, length - 1);
+                } else {
+                    board.writeRegisters(register, data, offset, length);
+                }
+                acknowledged = true;
+            }
+        }
+        if (!acknowledged) {
+            throw new IOException("I2C device " + String.format("0x%02x", address) + " on simulated bus " + this.bus + " did not acknowledge");
+        }
+        this.write_transactions++;
+        this.written_bytes += bytes;
+        return length;
+    }
+
+    /**
+     * Read transaction: I2C address, optional register address, data bytes
+     *
+     * @param address 7-bit I2C address
+     * @param register register address or -1 to read from the current register pointer
+     * @param buffer buffer for the data bytes
+     * @param offset offset of the first data byte
+     * @param length number of data bytes
+     * @return number of read data bytes
+     */
+    synchronized int read(int address, int register, byte[] buffer, int offset, int length) {
+        ServoPwmPiSimulatedPca9685 board = getBoard(address);
+
+        if (register < 0) {
+            transfer(length + 1, 0);
+        } else {
+            // register address write and repeated START
+            transfer(length + 3, 1);
+        }
+        if (board == null) {
+            throw new IOException("I2C device " + String.format("0x%02x", address) + " on simulated bus " + this.bus + " did not acknowledge read");
+        }
+        if (register < 0) {
+            board.readRegisters(buffer, offset, length);
+        } else {
+            board.readRegisters(register, buffer, offset, length);
+        }
+        this.read_transactions++;
+        this.read_bytes += length;
+        return length;
+    }
+
+    synchronized long getWriteTransactionCount() {
+        return this.write_transactions;
+    }
+
+    synchronized long getReadTransactionCount() {
+        return this.read_transactions;
+    }
+
+    synchronized long getWrittenByteCount() {
+        return this.written_bytes;
+    }
+
+    synchronized long getReadByteCount() {
+        return this.read_bytes;
+    }
+
+    synchronized long getBusTime() {
+        return this.bus_time;
+    }
+
+    synchronized void resetStatistics() {
+        this.write_transactions = 0;
+        this.read_transactions = 0;
+        this.written_bytes = 0;
+        this.read_bytes = 0;
+        this.bus_time = 0;
+        for (ServoPwmPiSimulatedPca9685 board : this.boards) {
+            board.resetStatistics();
+        }
+    }
+
+    /**
+     * Occupy the bus for the duration of a transaction
+     *
+     * @param bytes number of transferred bytes including I2C address bytes
+     * @param restarts number of repeated STARTs
+     */
+    private void transfer(int bytes, int restarts) {
+        long duration;
+        long deadline;
+
+        if (this.speed == null) {
+            return;
+        }
+        duration = (bytes * BITS_PER_BYTE + START_STOP_BITS + restarts) * 1000000000L / this.speed.getValue() + this.transaction_overhead;
+        this.bus_time += duration;
+        deadline = System.nanoTime() + duration;
+        if (duration > PARK_THRESHOLD) {
+            LockSupport.parkNanos(duration - PARK_THRESHOLD);
+        }
+        while (System.nanoTime() - deadline < 0) {
+            Thread.onSpinWait();
+        }
+    }
+}
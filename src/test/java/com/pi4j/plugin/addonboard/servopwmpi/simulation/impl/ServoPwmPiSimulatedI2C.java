@@ -0,0 +1,113 @@
+package com.pi4j.plugin.addonboard.servopwmpi.simulation.impl;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiSimulatedI2C.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.io.i2c.I2C;
+import com.pi4j.io.i2c.I2CBase;
+import com.pi4j.io.i2c.I2CConfig;
+import com.pi4j.io.i2c.I2CProvider;
+
+/**
+ * <p>I2C device of a simulated I2C bus.</p>
+ * <p>
+ *  Every read or write is one transaction on the simulated I2C bus.
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public class ServoPwmPiSimulatedI2C extends I2CBase implements I2C {
+
+    private final ServoPwmPiSimulatedBus bus;
+
+    /**
+     * <p>Constructor for ServoPwmPiSimulatedI2C.</p>
+     *
+     * @param provider a {@link com.pi4j.io.i2c.I2CProvider} object.
+     * @param config a {@link com.pi4j.io.i2c.I2CConfig} object.
+     * @param bus simulated I2C bus
+     */
+    ServoPwmPiSimulatedI2C(I2CProvider provider, I2CConfig config, ServoPwmPiSimulatedBus bus) {
+        super(provider, config);
+        this.bus = bus;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int write(byte b) {
+        return this.bus.write(device(), -1, new byte[] { b }, 0, 1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int write(byte[] data, int offset, int length) {
+        return this.bus.write(device(), -1, data, offset, length);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int read() {
+        byte[] buffer = new byte[1];
+
+        this.bus.read(device(), -1, buffer, 0, 1);
+        return buffer[0] & 0xFF;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        return this.bus.read(device(), -1, buffer, offset, length);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int writeRegister(int register, byte b) {
+        this.bus.write(device(), register, new byte[] { b }, 0, 1);
+        return 1;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int writeRegister(int register, byte[] data, int offset, int length) {
+        return this.bus.write(device(), register, data, offset, length);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int readRegister(int register) {
+        byte[] buffer = new byte[1];
+
+        this.bus.read(device(), register, buffer, 0, 1);
+        return buffer[0] & 0xFF;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int readRegister(int register, byte[] buffer, int offset, int length) {
+        return this.bus.read(device(), register, buffer, offset, length);
+    }
+}
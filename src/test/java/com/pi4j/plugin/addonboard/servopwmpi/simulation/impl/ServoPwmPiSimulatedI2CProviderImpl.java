@@ -0,0 +1,178 @@
+package com.pi4j.plugin.addonboard.servopwmpi.simulation.impl;
+
+/*-
+ * #%L
+ * **********************************************************************
+ * ORGANIZATION  :  Pi4J
+ * PROJECT       :  Pi4J :: ADDONBOARD   :: Servo PWM PI
+ * FILENAME      :  ServoPwmPiSimulatedI2CProviderImpl.java
+ *
+ * This file is an extension for the Pi4J project. More information about
+ * this project can be found here:  https://pi4j.com/
+ * **********************************************************************
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+
+import com.pi4j.io.i2c.I2C;
+import com.pi4j.io.i2c.I2CConfig;
+import com.pi4j.io.i2c.I2CProviderBase;
+import com.pi4j.plugin.addonboard.servopwmpi.SERVOPWMPI;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.ServoPwmPiSimulatedI2CProvider;
+import com.pi4j.plugin.addonboard.servopwmpi.simulation.ServoPwmPiSimulatedPca9685;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>ServoPwmPiSimulatedI2CProviderImpl class.</p>
+ *
+ * @author Thomas Reim
+ * @version $Id: $Id
+ */
+public class ServoPwmPiSimulatedI2CProviderImpl extends I2CProviderBase implements ServoPwmPiSimulatedI2CProvider {
+
+    // simulated I2C buses by I2C bus number (guarded by provider lock)
+    private final Map<Integer, ServoPwmPiSimulatedBus> buses = new HashMap<>();
+
+    private SERVOPWMPI.I2cBusSpeed speed;
+    private long transaction_overhead;
+
+    /**
+     * <p>Constructor for ServoPwmPiSimulatedI2CProviderImpl.</p>
+     *
+     * @param speed {@link SERVOPWMPI.I2cBusSpeed} or null if transactions take no time
+     * @param transactionOverhead additional duration of each transaction in nanoseconds
+     */
+    public ServoPwmPiSimulatedI2CProviderImpl(SERVOPWMPI.I2cBusSpeed speed, long transactionOverhead) {
+        this.id = ID;
+        this.name = NAME;
+        this.speed = speed;
+        this.transaction_overhead = transactionOverhead;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public I2C create(I2CConfig config) {
+        ServoPwmPiSimulatedBus bus = bus(config.bus());
+
+        bus.attach(config.device());
+        return new ServoPwmPiSimulatedI2C(this, config, bus);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ServoPwmPiSimulatedPca9685 addBoard(int bus, int address) throws IllegalArgumentException {
+        return bus(bus).addBoard(address);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ServoPwmPiSimulatedPca9685 getBoard(int bus, int address) {
+        return bus(bus).getBoard(address);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void setBusTiming(SERVOPWMPI.I2cBusSpeed speed, long transactionOverhead) {
+        this.speed = speed;
+        this.transaction_overhead = transactionOverhead;
+        for (ServoPwmPiSimulatedBus bus : this.buses.values()) {
+            bus.setTiming(speed, transactionOverhead);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized SERVOPWMPI.I2cBusSpeed getBusSpeed() {
+        return this.speed;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized long getTransactionOverhead() {
+        return this.transaction_overhead;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized long getWriteTransactionCount() {
+        long count = 0;
+
+        for (ServoPwmPiSimulatedBus bus : this.buses.values()) {
+            count += bus.getWriteTransactionCount();
+        }
+        return count;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized long getReadTransactionCount() {
+        long count = 0;
+
+        for (ServoPwmPiSimulatedBus bus : this.buses.values()) {
+            count += bus.getReadTransactionCount();
+        }
+        return count;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized long getWrittenByteCount() {
+        long count = 0;
+
+        for (ServoPwmPiSimulatedBus bus : this.buses.values()) {
+            count += bus.getWrittenByteCount();
+        }
+        return count;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized long getReadByteCount() {
+        long count = 0;
+
+        for (ServoPwmPiSimulatedBus bus : this.buses.values()) {
+            count += bus.getReadByteCount();
+        }
+        return count;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized long getBusTime() {
+        long time = 0;
+
+        for (ServoPwmPiSimulatedBus bus : this.buses.values()) {
+            time += bus.getBusTime();
+        }
+        return time;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void resetStatistics() {
+        for (ServoPwmPiSimulatedBus bus : this.buses.values()) {
+            bus.resetStatistics();
+        }
+    }
+
+    /**
+     * Get a simulated I2C bus, create it if required
+     */
+    private synchronized ServoPwmPiSimulatedBus bus(int bus) {
+        return this.buses.computeIfAbsent(bus, (Integer number) -> new ServoPwmPiSimulatedBus(number, this.speed, this.transaction_overhead));
+    }
+}